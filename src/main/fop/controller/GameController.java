@@ -1,185 +1,103 @@
 package fop.controller;
 
 import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
-import java.time.LocalDateTime;
-import java.util.*;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Set;
 
-import fop.io.ActionCardReader;
-import fop.io.PathCardReader;
-import fop.io.ScoreEntryIO;
-import fop.model.ComputerPlayer;
 import fop.model.Player;
-import fop.model.Player.Role;
-import fop.model.ScoreEntry;
+import fop.model.Strategy;
 import fop.model.board.Gameboard;
 import fop.model.board.Position;
 import fop.model.cards.*;
-import fop.model.cards.GoalCard.Type;
 import javax.swing.SwingWorker;
 
 /**
- * 
- * Verwaltet das Gameplay.
+ *
+ * Verwaltet das Gameplay.<br>
+ * <br>
+ * Alle Methoden leiten an eine einzige {@link GameSession} weiter, die von der Benutzeroberfläche verwendet wird.
+ * Für weitere, unabhängige Spiele (z.B. Simulationen) können eigene Sitzungen erstellt werden.
  *
  */
 public final class GameController {
 	
 	private GameController() {}
 	
-	// Konstanten
-	private static final String ACTION_CARDS = "/actioncards.xml";
-	private static final String PATH_CARDS = "/pathcards.xml";
-	
-	// Spielvariablen
-	private static final List<Player> players = new ArrayList<>();
-	private static final Stack<Card> drawDeck = new Stack<>();
-	private static final Stack<Card> discardPile = new Stack<>();
-	private static final Gameboard gameboard = new Gameboard();
-	
-	private static int activePlayer = -1;
-	private static Card selectedCard = null;
-	
-	
-	//////////
-	// INIT //
-	//////////
-	
-	/**
-	 * Setzt das gesamte Spiel zurück.<br>
-	 * Wichtig: Alle Property Change Listener müssen nach
-	 * dem Aufruf dieser Methode gesetzt werden.
-	 */
-	public static void reset() {
-		players.clear();
-		drawDeck.clear();
-		discardPile.clear();
-		gameboard.clear();
-		activePlayer = -1;
-		selectedCard = null;
-		for (PropertyChangeListener pcl : pcs.getPropertyChangeListeners())
-			pcs.removePropertyChangeListener(pcl);
-	}
+	/** Die Sitzung der Benutzeroberfläche; Wartezeiten und Computerspieler laufen in einem {@link SwingWorker}. */
+	private static final GameSession session = new GameSession(GameController::runInBackground);
 	
 	/**
-	 * Fügt einen neuen Spieler hinzu.
-	 * @param name der Name des Spielers
-	 * @param isComputer gibt an, ob der Spieler ein Computergegner ist
-	 * @see fop.model.Player.Role
+	 * Liefert die Sitzung, an die alle Methoden weitergeleitet werden.
+	 * @return die Sitzung der Benutzeroberfläche
 	 */
-	public static void addPlayer(String name, boolean isComputer) {
-		if (isComputer)
-			players.add(new ComputerPlayer(name));
-		else players.add(new Player(name));
+	public static GameSession getSession() {
+		return session;
 	}
 	
 	/**
-	 * Startet das Spiel.<br>
-	 * Dabei werden die Rollen verteilt, der Kartenstapel erstellt und gemischt und das Wegelabyrinth initialisiert.
+	 * Führt eine Aufgabe der Sitzung in einem {@link SwingWorker} aus, damit die Benutzeroberfläche bedienbar bleibt.
+	 * @param task die Aufgabe
 	 */
-	public static void startGame() {
-		assignRoles();
-		initCards();
-		dealStartCards();
-		firePropertyChange(SELECT_CARD, null);
-		initMaze();
+	private static void runInBackground(Runnable task) {
 		new SwingWorker<Object, Void>() {
 			
 			@Override
 			protected Object doInBackground() throws Exception {
-				TimeUnit.SECONDS.sleep(1);
-				nextPlayer();
+				task.run();
 				return null;
 			}
 		}.execute();
 	}
 	
-	/**
-	 * Setzt die Rollen der Spieler.
-	 */
-	public static void assignRoles() {
-		if (players.isEmpty()) return;
-		int playerCount = players.size();
-		
-		int saboteurCount = playerCount <= 10 ? List.of(0, 1, 1, 1, 2, 2, 3, 3, 3, 4).get(playerCount - 1) : playerCount / 2 - 1;
-		int goldMinerCount = playerCount <= 10 ? List.of(1, 1, 3, 4, 4, 5, 5, 6, 7, 7).get(playerCount - 1) : playerCount - saboteurCount + 1;
-		int thirdRoleCount = playerCount <= 10 ? List.of(0, 1, 1, 2, 2, 3, 3, 3, 4, 4).get(playerCount - 1) : playerCount / 2;
-		
-		List<Role> roles = new LinkedList<>();
-		for (int i = 0; i < saboteurCount; i++)
-			roles.add(Role.SABOTEUR);
-		for (int i = 0; i < goldMinerCount; i++)
-			roles.add(Role.GOLD_MINER);
-		if (Role.values().length > 2) {
-			Role thirdRole = Arrays.stream(Role.values()).filter(r -> r != Role.SABOTEUR && r != Role.GOLD_MINER).findFirst().get();
-			for (int i = 0; i < thirdRoleCount; i++)
-				roles.add(thirdRole);
-		}
-		
-		Collections.shuffle(roles);
-		for (Player player : players)
-			player.assignRole(roles.remove(0));
-	}
+	
+	//////////
+	// INIT //
+	//////////
 	
 	/**
-	 * Initialisiert und mischt den Nachziehstapel.
+	 * Setzt das gesamte Spiel zurück.<br>
+	 * Wichtig: Alle Property Change Listener müssen nach
+	 * dem Aufruf dieser Methode gesetzt werden.
+	 * @see GameSession#reset()
 	 */
-	private static void initCards() {
-		drawDeck.clear();
-		initActionCards(); // Aktionskarten
-		initPathCards();   // Wegekarten
-		Collections.shuffle(drawDeck); // Karten mischen
+	public static void reset() {
+		session.reset();
 	}
 	
 	/**
-	 * Fügt dem {@link #drawDeck} alle Aktionskarten hinzu.
+	 * Fügt einen neuen Spieler hinzu.
+	 * @param name der Name des Spielers
+	 * @param isComputer gibt an, ob der Spieler ein Computergegner ist
+	 * @see GameSession#addPlayer(String, boolean)
 	 */
-	private static void initActionCards() {
-		// read action cards
-		List<ActionCard> actionCards = ActionCardReader.readFromResource(ACTION_CARDS);
-		
-		// add cards to deck
-		drawDeck.addAll(actionCards);
+	public static void addPlayer(String name, boolean isComputer) {
+		session.addPlayer(name, isComputer);
 	}
 	
 	/**
-	 * Fügt dem {@link #drawDeck} alle Wegekarten hinzu.
+	 * Fügt einen neuen Computerspieler mit der übergebenen Strategie hinzu.
+	 * @param name der Name des Spielers
+	 * @param strategy die Strategie, die die Züge des Spielers auswählt
+	 * @see GameSession#addPlayer(String, Strategy)
 	 */
-	private static void initPathCards() {
-		// read path cards
-		List<PathCard> pathCards = PathCardReader.readFromResource(PATH_CARDS);
-		
-		// rotate 50% of cards randomly
-		for (PathCard card : pathCards)
-			if (Math.random() <= 0.5) card.rotate();
-		
-		// add cards to deck
-		drawDeck.addAll(pathCards);
+	public static void addPlayer(String name, Strategy strategy) {
+		session.addPlayer(name, strategy);
 	}
 	
 	/**
-	 * Verteilt die Startkarten an alle Spieler.
+	 * Startet das Spiel.
+	 * @see GameSession#startGame()
 	 */
-	private static void dealStartCards() {
-		int playerCount = players.size();
-		int cardCount = playerCount <= 7 ? playerCount <= 5 ? 6 : 5 : 4;
-		for (int i = 0; i < cardCount; i++)
-			for (Player player : players)
-				drawCard(player);
+	public static void startGame() {
+		session.startGame();
 	}
 	
 	/**
-	 * Initialisiert das Wegelabyrinth.
+	 * Setzt die Rollen der Spieler.
+	 * @see GameSession#assignRoles()
 	 */
-	private static void initMaze() {
-		gameboard.placeCard(0, 0, new StartCard());
-		List<GoalCard> goalCards = new LinkedList<>(List.of(new GoalCard(Type.Gold), new GoalCard(Type.Stone), new GoalCard(Type.Stone)));
-		Collections.shuffle(goalCards);
-		gameboard.placeCard(8, -2, goalCards.remove(0));
-		gameboard.placeCard(8, 0, goalCards.remove(0));
-		gameboard.placeCard(8, 2, goalCards.remove(0));
+	public static void assignRoles() {
+		session.assignRoles();
 	}
 	
 	
@@ -188,40 +106,43 @@ public final class GameController {
 	////////////
 	
 	public static Player[] getPlayers() {
-		return players.toArray(Player[]::new);
+		return session.getPlayers();
 	}
 	
 	public static Player getActivePlayer() {
-		if (activePlayer == -1) return null;
-		return players.get(activePlayer);
+		return session.getActivePlayer();
 	}
 	
 	public static Card getSelectedCard() {
-		return selectedCard;
+		return session.getSelectedCard();
 	}
 	
 	public static Gameboard getGameboard() {
-		return gameboard;
+		return session.getGameboard();
 	}
 	
 	public static Set<Position> getCardPositions() {
-		return gameboard.getBoard().keySet();
+		return session.getCardPositions();
 	}
 	
 	public static PathCard getCardAt(Position pos) {
-		return gameboard.getBoard().getOrDefault(pos, null);
+		return session.getCardAt(pos);
+	}
+	
+	public static Set<Position> getFrontierPositions() {
+		return session.getFrontierPositions();
 	}
 	
 	public static boolean canCardBePlacedAt(int x, int y, PathCard card) {
-		return gameboard.canCardBePlacedAt(x, y, card);
+		return session.canCardBePlacedAt(x, y, card);
 	}
 	
 	public static int getDrawDeckSize() {
-		return drawDeck.size();
+		return session.getDrawDeckSize();
 	}
 	
 	public static List<Card> getDiscardPile() {
-		return new ArrayList<>(discardPile);
+		return session.getDiscardPile();
 	}
 	
 	
@@ -232,103 +153,10 @@ public final class GameController {
 	/**
 	 * Gibt die Gewinner des Spiels zurück.
 	 * @return die Gewinner; oder null falls das Spiel noch nicht beendet ist
+	 * @see GameSession#getWinners()
 	 */
 	public static List<Player> getWinners() {
-		// TODO Aufgabe 4.3.2
-
-		// Sie dürfen diese Methode vollständig umschreiben und den vorhandenen Code entfernen.
-		// Steinkarte wurde aufgedeckt -> Steinsucher gewinnen
-		if(gameboard.isStoneCardVisible() && players.stream().filter(p -> p.getRole() == Player.Role.STONE_MINER).findAny().isPresent())
-			return players.stream().filter(p -> p.getRole() == Player.Role.STONE_MINER).collect(Collectors.toList());
-		// Goldkarte wurde aufgedeckt -> Goldsucher gewinnen
-		if (gameboard.isGoldCardVisible() && players.stream().filter(p -> p.getRole() == Player.Role.GOLD_MINER).findAny().isPresent())
-			return players.stream().filter(p -> p.getRole() == Player.Role.GOLD_MINER).collect(Collectors.toList());
-
-		// keine Karten mehr übrig -> Saboteure gewinnen
-		if (drawDeck.isEmpty() && players.stream().allMatch(p -> p.getAllHandCards().isEmpty()) && players.stream().filter(p -> p.getRole() == Player.Role.SABOTEUR).findAny().isPresent())
-			return players.stream().filter(p -> p.getRole() == Player.Role.SABOTEUR).collect(Collectors.toList());
-		if (drawDeck.isEmpty() && players.stream().allMatch(p -> p.getAllHandCards().isEmpty()) && !players.stream().filter(p -> p.getRole() == Player.Role.SABOTEUR).findAny().isPresent()) {
-			int highestScore = players.stream().mapToInt(p -> p.getScore()).max().getAsInt();
-			List<Player> playerWithHighhestScore = players.stream().filter(p -> p.getScore() == highestScore).collect(Collectors.toList());
-			return playerWithHighhestScore;
-		}
-			// noch kein Gewinner
-		return null;
-	}
-	
-	/**
-	 * Beendet den Zug des aktuellen aktiven Spielers und startet den Zug des nächsten Spielers.<br>
-	 * Dabei zieht der alte aktive Spieler eine Karte nach.
-	 */
-	private static void nextPlayer() {
-		// Spielende prüfen
-		List<Player> winners = getWinners();
-		if (winners != null) {
-			// Bonus Punkte von restlichen Karten
-			for (Player player : winners) {
-				player.scorePoints(30);
-			}
-			// Highscores speichern
-			LocalDateTime now = LocalDateTime.now();
-			for (Player player : players) {
-				ScoreEntry scoreEntry = new ScoreEntry(player.getName(), now, player.getScore());
-				ScoreEntryIO.addScoreEntry(scoreEntry);
-			}
-			// Spielende signalisieren
-			selectCard(null);
-			activePlayer = -1;
-			firePropertyChange(NEXT_PLAYER);
-			firePropertyChange(GAME_OVER, winners);
-			return;
-		}
-		
-		// Karte nachziehen
-		drawCard();
-		
-		// der nächste Spieler ist am Zug
-		int nextActivePlayer = activePlayer + 1;
-		if (nextActivePlayer == players.size()) nextActivePlayer = 0;
-		
-		// alle Karten verstecken
-		selectCard(null);
-		activePlayer = -1;
-		firePropertyChange(NEXT_PLAYER);
-		
-		// nächsten Spieler informieren
-		firePropertyChange(INFORM_NEXT_PLAYER, players.get(nextActivePlayer));
-		
-		// Karten des aktiven Spielers zeigen
-		activePlayer = nextActivePlayer;
-		firePropertyChange(NEXT_PLAYER);
-		if (getActivePlayer().getAllHandCards().isEmpty())
-			firePropertyChange(ACTIVE_PLAYER_NO_HAND_CARDS);
-	}
-	
-	/**
-	 * Der übergebene Spieler zieht eine Karte vom Nachziehstapel.
-	 * @param player der Spieler, der eine Karten zieht
-	 * @return die gezogene Karte; oder null
-	 */
-	private static Card drawCard(Player player) {
-		// wenn das Deck leer ist geht das Spiel weiter bis kein Spieler mehr Handkarten hat
-		if (drawDeck.isEmpty()) return null;
-		if (player == null) return null;
-		Card card = drawDeck.pop();
-		player.drawCard(card);
-		return card;
-	}
-	
-	private static void drawCard() {
-		Card card = drawCard(getActivePlayer());
-		firePropertyChange(DRAW_CARD, card);
-	}
-	
-	/**
-	 * Benutzt die ausgewählte Karte des aktiven Spielers.
-	 */
-	private static void playSelectedCard() {
-		getActivePlayer().playCard(selectedCard);
-		selectCard(null);
+		return session.getWinners();
 	}
 	
 	/**
@@ -336,115 +164,65 @@ public final class GameController {
 	 * @param card die auszuwählende Karte
 	 */
 	public static void selectCard(Card card) {
-		selectedCard = card;
-		firePropertyChange(SELECT_CARD);
-	}
-	
-	/**
-	 * Gibt dem aktiven Spieler die übergebene Anzahl Punkte.
-	 * @param points die zu vergebenden Punkte
-	 */
-	private static void scorePoints(int points) {
-		getActivePlayer().scorePoints(points);
+		session.selectCard(card);
 	}
 	
 	// POSSIBLE ACTIONS //
 	
 	/**
-	 * Beendet den Zug des aktiven Spielers.<br>
-	 * Danach ist der nächste Spieler an der Reihe.
+	 * Beendet den Zug des aktiven Spielers.
+	 * @see GameSession#doNothing()
 	 */
 	public static void doNothing() {
-		nextPlayer();
+		session.doNothing();
 	}
 	
 	/**
-	 * Setzt die ausgewählte Karte in das Wegelabyrinth.<br>
-	 * Danach ist der nächste Spieler an der Reihe.
-	 * @param x x-Position im Wegelabyrinth
-	 * @param y y-Position im Wegelabyrinth
-	 * @see Gameboard#placeCard(int, int, PathCard)
+	 * Setzt die ausgewählte Karte in das Wegelabyrinth.
+	 * @see GameSession#placeSelectedCardAt(int, int)
 	 */
 	public static void placeSelectedCardAt(int x, int y) {
-		gameboard.placeCard(x, y, (PathCard) selectedCard);
-		playSelectedCard();
-		scorePoints(gameboard.getNumberOfAdjacentCards(x, y) + 1);
-		nextPlayer();
+		session.placeSelectedCardAt(x, y);
 	}
 	
 	/**
-	 * Zerstört die Wegekarte an der übergebenen Position mit der ausgewählten Karte.<br>
-	 * Legt die zerstörte und die ausgewählte Karte auf den Ablagestapel.<br>
-	 * Danach ist der nächste Spieler an der Reihe.
-	 * @param x x-Position im Wegelabyrinth
-	 * @param y y-Position im Wegelabyrinth
-	 * @see Gameboard#removeCard(int, int)
+	 * Zerstört die Wegekarte an der übergebenen Position mit der ausgewählten Karte.
+	 * @see GameSession#destroyCardWithSelectedCardAt(int, int)
 	 */
 	public static void destroyCardWithSelectedCardAt(int x, int y) {
-		PathCard oldCard = gameboard.removeCard(x, y);
-		discardPile.add(oldCard);
-		discardPile.add(selectedCard);
-		playSelectedCard();
-		scorePoints(2);
-		nextPlayer();
+		session.destroyCardWithSelectedCardAt(x, y);
 	}
 	
 	/**
-	 * Repariert die Karte mit dem zerbrochenen Werkzeug mit der ausgewählten Karte.<br>
-	 * Legt die Karte mit dem zerbrochenen Werkzeug und die ausgewählte Karte auf den Ablagestapel.<br>
-	 * Danach ist der nächste Spieler an der Reihe.
-	 * @param player der Spieler, dessen Werkzeug repariert wird
-	 * @param brokenToolCard die Karte, die repariert wird
-	 * @see Player#fixBrokenTool(BrokenToolCard, FixedToolCard)
+	 * Repariert die Karte mit dem zerbrochenen Werkzeug mit der ausgewählten Karte.
+	 * @see GameSession#fixBrokenToolCardWithSelectedCard(Player, BrokenToolCard)
 	 */
 	public static void fixBrokenToolCardWithSelectedCard(Player player, BrokenToolCard brokenToolCard) {
-		player.fixBrokenTool(brokenToolCard, (FixedToolCard) selectedCard);
-		discardPile.add(brokenToolCard);
-		discardPile.add(selectedCard);
-		playSelectedCard();
-		scorePoints(2);
-		if(player.hasBrokenTool())
-			scorePoints(5);
-		nextPlayer();
+		session.fixBrokenToolCardWithSelectedCard(player, brokenToolCard);
 	}
 	
 	/**
-	 * Zerstört das Werkzeug eines Spielers mit der ausgewählten Karte.<br>
-	 * Danach ist der nächste Spieler an der Reihe.
-	 * @param player der Spieler, dessen Werkzeug zerstört wird
+	 * Zerstört das Werkzeug eines Spielers mit der ausgewählten Karte.
+	 * @see GameSession#breakToolWithSelectedCard(Player)
 	 */
 	public static void breakToolWithSelectedCard(Player player) {
-		if(player.hasBrokenTool())
-			scorePoints(-1);
-		player.breakTool((BrokenToolCard) selectedCard);
-		playSelectedCard();
-		scorePoints(2);
-		nextPlayer();
+		session.breakToolWithSelectedCard(player);
 	}
 	
 	/**
-	 * Schaut die übergebene Zielkarte an.<br>
-	 * Legt die ausgewählte Karte auf den Ablagestapel.<br>
-	 * Danach ist der nächste Spieler an der Reihe.
-	 * @param goalCard die anzuschauende Zielkarte
+	 * Schaut die übergebene Zielkarte an.
+	 * @see GameSession#lookAtGoalCardWithSelectedCard(GoalCard)
 	 */
 	public static void lookAtGoalCardWithSelectedCard(GoalCard goalCard) {
-		if(selectedCard.isMap())
-			scorePoints(-10);
-		firePropertyChange(LOOK_AT_GOAL_CARD, goalCard);
-		discardPile.add(selectedCard);
-		playSelectedCard();
-		nextPlayer();
+		session.lookAtGoalCardWithSelectedCard(goalCard);
 	}
 	
 	/**
-	 * Legt die ausgewählte Karte auf den Ablagestapel.<br>
-	 * Danach ist der nächste Spieler an der Reihe.
+	 * Legt die ausgewählte Karte auf den Ablagestapel.
+	 * @see GameSession#discardSelectedCard()
 	 */
 	public static void discardSelectedCard() {
-		discardPile.add(selectedCard);
-		playSelectedCard();
-		nextPlayer();
+		session.discardSelectedCard();
 	}
 	
 	
@@ -452,61 +230,36 @@ public final class GameController {
 	// LISTENER //
 	//////////////
 	
-	private static PropertyChangeSupport pcs = new PropertyChangeSupport(GameController.class);
-	
 	// CONSTANTS //
 	
-	/**
-	 * Wird aktiviert, wenn das Spiel beendet ist.<br>
-	 * newValue (List&lt;Player&gt;): die Gewinner des Spiels
-	 */
-	public static final String GAME_OVER = "game_over";
+	/** @see GameSession#GAME_OVER */
+	public static final String GAME_OVER = GameSession.GAME_OVER;
 	
-	/**
-	 * Wird aktiviert, wenn ein neuer Spieler am Zug ist.
-	 */
-	public static final String NEXT_PLAYER = "next_player";
+	/** @see GameSession#NEXT_PLAYER */
+	public static final String NEXT_PLAYER = GameSession.NEXT_PLAYER;
 	
-	/**
-	 * Wird aktiviert, wenn der nächste aktive Spieler über seinen Zug informiert werden soll.<br>
-	 * newValue (Player): der nächste aktive Spieler
-	 */
-	public static final String INFORM_NEXT_PLAYER = "prepare_next_player";
+	/** @see GameSession#INFORM_NEXT_PLAYER */
+	public static final String INFORM_NEXT_PLAYER = GameSession.INFORM_NEXT_PLAYER;
 	
-	/**
-	 * Wird aktiviert, wenn der aktive Spieler am Zug ist, aber keine Handkarten mehr zur Verfügung hat.
-	 */
-	public static final String ACTIVE_PLAYER_NO_HAND_CARDS = "active_player_no_hand_cards";
+	/** @see GameSession#ACTIVE_PLAYER_NO_HAND_CARDS */
+	public static final String ACTIVE_PLAYER_NO_HAND_CARDS = GameSession.ACTIVE_PLAYER_NO_HAND_CARDS;
 	
-	/**
-	 * Wird aktiviert, wenn eine Karte ausgewählt wird.
-	 */
-	public static final String SELECT_CARD = "select_card";
+	/** @see GameSession#SELECT_CARD */
+	public static final String SELECT_CARD = GameSession.SELECT_CARD;
 	
-	/**
-	 * Wird aktiviert, wenn eine Karte nachgezogen wird.<br>
-	 * newValue (Card): die neue Karte; oder null
-	 */
-	public static final String DRAW_CARD = "draw_card";
+	/** @see GameSession#DRAW_CARD */
+	public static final String DRAW_CARD = GameSession.DRAW_CARD;
 	
-	/**
-	 * Wird aktiviert, wenn eine Zielkarte angeschaut wird.<br>
-	 * newValue (GoalCard): die angeschaute Zielkarte
-	 */
-	public static final String LOOK_AT_GOAL_CARD = "look_at_goal_card";
+	/** @see GameSession#MOVE */
+	public static final String MOVE = GameSession.MOVE;
+	
+	/** @see GameSession#LOOK_AT_GOAL_CARD */
+	public static final String LOOK_AT_GOAL_CARD = GameSession.LOOK_AT_GOAL_CARD;
 	
 	// METHODS //
 	
 	public static void addPropertyChangeListener(String name, PropertyChangeListener listener) {
-		pcs.addPropertyChangeListener(name, listener);
-	}
-	
-	private static void firePropertyChange(String name, Object value) {
-		pcs.firePropertyChange(name, null, value);
-	}
-	
-	private static void firePropertyChange(String name) {
-		pcs.firePropertyChange(name, null, null);
+		session.addPropertyChangeListener(name, listener);
 	}
 	
 }
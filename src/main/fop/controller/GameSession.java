@@ -0,0 +1,819 @@
+package fop.controller;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import fop.io.ActionCardReader;
+import fop.io.PathCardReader;
+import fop.io.ScoreEntryIO;
+import fop.model.ComputerPlayer;
+import fop.model.Move;
+import fop.model.Player;
+import fop.model.Player.Role;
+import fop.model.ScoreEntry;
+import fop.model.Strategy;
+import fop.model.board.Gameboard;
+import fop.model.board.Position;
+import fop.model.cards.*;
+import fop.model.cards.GoalCard.Type;
+
+/**
+ * 
+ * Verwaltet das Gameplay eines einzelnen Spiels.<br>
+ * <br>
+ * Eine Sitzung enthält den gesamten Zustand eines Spiels (Spieler, Kartenstapel, Wegelabyrinth und Listener),
+ * sodass mehrere Spiele unabhängig voneinander in einem Prozess laufen können.
+ * Eine Sitzung ist nicht synchronisiert und darf immer nur von einem Thread gleichzeitig verwendet werden.<br>
+ * Die Benutzeroberfläche verwendet die Sitzung von {@link GameController}.<br>
+ * <br>
+ * Eine Sitzung für die Benutzeroberfläche erhält von ihr einen {@link Executor}, mit dem Wartezeiten und Züge der
+ * Computerspieler außerhalb des Threads der Benutzeroberfläche laufen; die Sitzung selbst kennt keine Swing-Klassen.
+ * Eine Sitzung ohne Benutzeroberfläche ({@link #isHeadless()}) wartet nie, läuft im Thread des Aufrufers
+ * und speichert keine Highscores. Spiele mit ausschließlich Computerspielern können dort mit
+ * {@link #playToEnd()} in einer einfachen Schleife zu Ende gespielt werden.
+ *
+ */
+public final class GameSession {
+	
+	/**
+	 * Erstellt eine neue Sitzung ohne Spieler für die Benutzeroberfläche.
+	 * @param background führt Wartezeiten und Züge der Computerspieler aus, ohne die Benutzeroberfläche zu blockieren
+	 */
+	public GameSession(Executor background) {
+		this(Objects.requireNonNull(background), new SplittableRandom());
+	}
+	
+	/**
+	 * Erstellt eine neue Sitzung ohne Spieler und ohne Benutzeroberfläche,
+	 * deren Zufallsentscheidungen vollständig durch den Startwert bestimmt sind.<br>
+	 * Spielen dieselben Computerspieler mit demselben Startwert, verläuft das Spiel identisch.
+	 * @param seed der Startwert des Zufallsgenerators
+	 */
+	public GameSession(long seed) {
+		this(null, new SplittableRandom(seed));
+	}
+	
+	private GameSession(Executor background, SplittableRandom random) {
+		this.background = background;
+		this.random = random;
+	}
+	
+	// Konstanten
+	private static final String ACTION_CARDS = "/actioncards.xml";
+	private static final String PATH_CARDS = "/pathcards.xml";
+	
+	// Spielvariablen
+	private final List<Player> players = new ArrayList<>();
+	private final Stack<Card> drawDeck = new Stack<>();
+	private final Stack<Card> discardPile = new Stack<>();
+	private final Gameboard gameboard = new Gameboard();
+	
+	private int activePlayer = -1;
+	private Card selectedCard = null;
+	
+	/** Die Gewinner des beendeten Spiels; oder {@code null} solange das Spiel läuft. */
+	private List<Player> winners = null;
+	
+	/** Die Anzahl der beendeten Züge. */
+	private int turns = 0;
+	
+	/** Die zu verteilenden Rollen; oder {@code null} für die Standardverteilung. */
+	private List<Role> rolePool = null;
+	
+	/** Alle Rollen, aus denen beim Start verteilt wurde, einschließlich der unbenutzten. */
+	private List<Role> dealtRoles = List.of();
+	
+	/** Die Positionen der Zielkarten, die sich ein Spieler mit einer Schatzkarte angeschaut hat. */
+	private final Map<Player, Set<Position>> knownGoals = new HashMap<>();
+	
+	/** Führt Aufgaben für die Benutzeroberfläche im Hintergrund aus; oder {@code null} ohne Benutzeroberfläche. */
+	private final Executor background;
+	
+	/**
+	 * Der Zufallsgenerator für Rollen, Kartenstapel und Computerspieler.<br>
+	 * Jede Sitzung besitzt einen eigenen Generator, sodass parallele Spiele nicht um einen gemeinsamen konkurrieren.
+	 */
+	private final SplittableRandom random;
+	
+	
+	//////////
+	// INIT //
+	//////////
+	
+	/**
+	 * Setzt das gesamte Spiel zurück.<br>
+	 * Wichtig: Alle Property Change Listener müssen nach
+	 * dem Aufruf dieser Methode gesetzt werden.
+	 */
+	public void reset() {
+		players.clear();
+		drawDeck.clear();
+		discardPile.clear();
+		gameboard.clear();
+		activePlayer = -1;
+		selectedCard = null;
+		winners = null;
+		turns = 0;
+		dealtRoles = List.of();
+		knownGoals.clear();
+		for (PropertyChangeListener pcl : pcs.getPropertyChangeListeners())
+			pcs.removePropertyChangeListener(pcl);
+	}
+	
+	/**
+	 * Fügt einen neuen Spieler hinzu.
+	 * @param name der Name des Spielers
+	 * @param isComputer gibt an, ob der Spieler ein Computergegner ist
+	 * @see fop.model.Player.Role
+	 */
+	public void addPlayer(String name, boolean isComputer) {
+		if (isComputer)
+			players.add(new ComputerPlayer(name, this));
+		else players.add(new Player(name));
+	}
+	
+	/**
+	 * Fügt einen neuen Computerspieler mit der übergebenen Strategie hinzu.
+	 * @param name der Name des Spielers
+	 * @param strategy die Strategie, die die Züge des Spielers auswählt
+	 */
+	public void addPlayer(String name, Strategy strategy) {
+		players.add(new ComputerPlayer(name, this, strategy));
+	}
+	
+	/**
+	 * Fügt den übergebenen Spieler hinzu, z.B. einen Computerspieler mit eigener Strategie.<br>
+	 * Computerspieler müssen mit dieser Sitzung erstellt worden sein.
+	 * @param player der neue Spieler
+	 */
+	public void addPlayer(Player player) {
+		players.add(player);
+	}
+	
+	/**
+	 * Legt die Rollen fest, aus denen beim Start des Spiels zufällig verteilt wird.<br>
+	 * Wie bei der Standardverteilung darf es mehr Rollen als Spieler geben, übrige Rollen bleiben unbenutzt.
+	 * @param rolePool die zu verteilenden Rollen; oder {@code null} für die Standardverteilung nach Spieleranzahl
+	 * @see #assignRoles()
+	 */
+	public void setRolePool(List<Role> rolePool) {
+		this.rolePool = rolePool == null ? null : List.copyOf(rolePool);
+	}
+	
+	/**
+	 * Startet das Spiel.<br>
+	 * Dabei werden die Rollen verteilt, der Kartenstapel erstellt und gemischt und das Wegelabyrinth initialisiert.
+	 */
+	public void startGame() {
+		assignRoles();
+		initCards();
+		dealStartCards();
+		firePropertyChange(SELECT_CARD, null);
+		initMaze();
+		if (isHeadless()) {
+			nextPlayer();
+			return;
+		}
+		runInBackground(() -> {
+			try {
+				TimeUnit.SECONDS.sleep(1);
+			} catch (InterruptedException ignored) {}
+			nextPlayer();
+		});
+	}
+	
+	/**
+	 * Führt die Aufgabe mit dem {@link Executor} der Benutzeroberfläche aus, z.B. den Zug eines Computerspielers.
+	 * @param task die Aufgabe
+	 * @throws IllegalStateException wenn die Sitzung ohne Benutzeroberfläche läuft
+	 */
+	public void runInBackground(Runnable task) {
+		if (isHeadless()) throw new IllegalStateException("Headless sessions do not run tasks in the background.");
+		background.execute(task);
+	}
+	
+	/**
+	 * Startet das Spiel und spielt es ohne Benutzeroberfläche zu Ende.<br>
+	 * Alle Spieler müssen Computerspieler sein. Spieler ohne Handkarten setzen aus,
+	 * wie es sonst die Benutzeroberfläche veranlasst.
+	 * @return die Gewinner des Spiels
+	 * @throws IllegalStateException wenn die Sitzung nicht headless ist, ein Spieler kein Computerspieler ist
+	 *         oder ein Computerspieler seinen Zug nicht beendet
+	 */
+	public List<Player> playToEnd() {
+		if (!isHeadless()) throw new IllegalStateException("Only headless sessions can be played in a loop.");
+		if (!players.stream().allMatch(Player::isComputer))
+			throw new IllegalStateException("Headless games can only be played by computer players.");
+		startGame();
+		while (winners == null) {
+			ComputerPlayer player = (ComputerPlayer) getActivePlayer();
+			int turn = turns;
+			if (player.getAllHandCards().isEmpty()) doNothing();
+			else player.takeTurn();
+			if (turns == turn) throw new IllegalStateException(player.getName() + " did not finish the turn.");
+		}
+		return winners;
+	}
+	
+	/**
+	 * Setzt die Rollen der Spieler.
+	 */
+	public void assignRoles() {
+		if (players.isEmpty()) return;
+		int playerCount = players.size();
+		if (rolePool != null) {
+			if (rolePool.size() < playerCount) throw new IllegalStateException("The role pool has fewer roles than players.");
+			List<Role> roles = new ArrayList<>(rolePool);
+			dealtRoles = rolePool;
+			shuffle(roles);
+			for (int i = 0; i < playerCount; i++)
+				players.get(i).assignRole(roles.get(i));
+			return;
+		}
+		
+		int saboteurCount = playerCount <= 10 ? List.of(0, 1, 1, 1, 2, 2, 3, 3, 3, 4).get(playerCount - 1) : playerCount / 2 - 1;
+		int goldMinerCount = playerCount <= 10 ? List.of(1, 1, 3, 4, 4, 5, 5, 6, 7, 7).get(playerCount - 1) : playerCount - saboteurCount + 1;
+		int thirdRoleCount = playerCount <= 10 ? List.of(0, 1, 1, 2, 2, 3, 3, 3, 4, 4).get(playerCount - 1) : playerCount / 2;
+		
+		List<Role> roles = new LinkedList<>();
+		for (int i = 0; i < saboteurCount; i++)
+			roles.add(Role.SABOTEUR);
+		for (int i = 0; i < goldMinerCount; i++)
+			roles.add(Role.GOLD_MINER);
+		if (Role.values().length > 2) {
+			Role thirdRole = Arrays.stream(Role.values()).filter(r -> r != Role.SABOTEUR && r != Role.GOLD_MINER).findFirst().get();
+			for (int i = 0; i < thirdRoleCount; i++)
+				roles.add(thirdRole);
+		}
+		
+		dealtRoles = List.copyOf(roles);
+		shuffle(roles);
+		for (Player player : players)
+			player.assignRole(roles.remove(0));
+	}
+	
+	/**
+	 * Initialisiert und mischt den Nachziehstapel.
+	 */
+	private void initCards() {
+		drawDeck.clear();
+		initActionCards(); // Aktionskarten
+		initPathCards();   // Wegekarten
+		shuffle(drawDeck); // Karten mischen
+	}
+	
+	/**
+	 * Fügt dem {@link #drawDeck} alle Aktionskarten hinzu.
+	 */
+	private void initActionCards() {
+		// read action cards
+		List<ActionCard> actionCards = ActionCardReader.readFromResource(ACTION_CARDS);
+		
+		// add cards to deck
+		drawDeck.addAll(actionCards);
+	}
+	
+	/**
+	 * Fügt dem {@link #drawDeck} alle Wegekarten hinzu.
+	 */
+	private void initPathCards() {
+		// read path cards
+		List<PathCard> pathCards = PathCardReader.readFromResource(PATH_CARDS);
+		
+		// rotate 50% of cards randomly
+		for (PathCard card : pathCards)
+			if (random.nextBoolean()) card.rotate();
+		
+		// add cards to deck
+		drawDeck.addAll(pathCards);
+	}
+	
+	/**
+	 * Verteilt die Startkarten an alle Spieler.
+	 */
+	private void dealStartCards() {
+		int playerCount = players.size();
+		int cardCount = playerCount <= 7 ? playerCount <= 5 ? 6 : 5 : 4;
+		for (int i = 0; i < cardCount; i++)
+			for (Player player : players)
+				drawCard(player);
+	}
+	
+	/**
+	 * Initialisiert das Wegelabyrinth.
+	 */
+	private void initMaze() {
+		gameboard.placeCard(0, 0, new StartCard());
+		List<GoalCard> goalCards = new LinkedList<>(List.of(new GoalCard(Type.Gold), new GoalCard(Type.Stone), new GoalCard(Type.Stone)));
+		shuffle(goalCards);
+		gameboard.placeCard(8, -2, goalCards.remove(0));
+		gameboard.placeCard(8, 0, goalCards.remove(0));
+		gameboard.placeCard(8, 2, goalCards.remove(0));
+	}
+	
+	/**
+	 * Mischt die übergebene Liste mit dem Zufallsgenerator der Sitzung (Fisher-Yates).
+	 * @param list die zu mischende Liste
+	 */
+	private void shuffle(List<?> list) {
+		for (int i = list.size() - 1; i > 0; i--)
+			Collections.swap(list, i, random.nextInt(i + 1));
+	}
+	
+	
+	/**
+	 * Erstellt eine Kopie des laufenden Spiels aus Sicht des übergebenen Spielers, in der alle für ihn
+	 * verborgenen Informationen zufällig neu bestimmt sind (Determinisierung).<br>
+	 * <br>
+	 * Bekannt bleiben das Wegelabyrinth, die Punkte, die zerbrochenen Werkzeuge, die eigene Rolle und Hand
+	 * sowie die Zielkarten, die der Spieler sich angeschaut hat. Die Handkarten der anderen Spieler und
+	 * der Nachziehstapel werden gemeinsam gemischt und mit den ursprünglichen Anzahlen neu verteilt,
+	 * die Rollen der anderen Spieler werden aus den übrigen verteilten Rollen gezogen und
+	 * die unbekannten verdeckten Zielkarten werden untereinander vertauscht.<br>
+	 * <br>
+	 * Die Kopie läuft ohne Benutzeroberfläche, alle Spieler sind Computerspieler mit der übergebenen Strategie
+	 * und der aktive Spieler ist derselbe. Wegekarten werden kopiert, sodass diese Sitzung durch Züge
+	 * in der Kopie nicht verändert wird. Solange diese Sitzung nicht verändert wird, dürfen
+	 * mehrere Threads gleichzeitig Kopien erstellen.
+	 * @param observer der Spieler, aus dessen Sicht kopiert wird
+	 * @param seed der Startwert des Zufallsgenerators der Kopie
+	 * @param strategy die Strategie aller Spieler der Kopie
+	 * @return die Kopie
+	 * @throws IllegalArgumentException wenn der Spieler nicht in dieser Sitzung mitspielt
+	 */
+	public GameSession determinize(Player observer, long seed, Strategy strategy) {
+		if (!players.contains(observer)) throw new IllegalArgumentException("The observer does not play in this session.");
+		GameSession copy = new GameSession(seed);
+		
+		// the other players get their roles from the dealt roles except the observer's own
+		List<Role> roles = new ArrayList<>(dealtRoles);
+		if (!roles.remove(observer.getRole()) || roles.size() < players.size() - 1) {
+			roles.clear();
+			for (Player player : players)
+				if (player != observer) roles.add(player.getRole());
+		}
+		copy.shuffle(roles);
+		
+		// hand cards of the other players and the draw deck are unknown to the observer
+		List<Card> hidden = new ArrayList<>(drawDeck);
+		for (Player player : players)
+			if (player != observer) hidden.addAll(player.getAllHandCards());
+		copy.shuffle(hidden);
+		
+		for (Player player : players) {
+			ComputerPlayer clone = new ComputerPlayer(player.getName(), copy, strategy);
+			clone.assignRole(player == observer ? player.getRole() : roles.remove(roles.size() - 1));
+			clone.scorePoints(player.getScore());
+			for (ToolType type : ToolType.values())
+				if (player.hasBrokenTool(type)) clone.breakTool(player.getBrokenTool(type));
+			List<Card> handCards = player.getAllHandCards();
+			for (int i = 0; i < handCards.size(); i++)
+				clone.drawCard(copyOf(player == observer ? handCards.get(i) : hidden.remove(hidden.size() - 1)));
+			copy.players.add(clone);
+		}
+		for (Card card : hidden)
+			copy.drawDeck.push(copyOf(card));
+		copy.discardPile.addAll(discardPile);
+		
+		// covered goal cards the observer has not looked at may lie at any of these positions
+		Set<Position> known = knownGoals.getOrDefault(observer, Set.of());
+		List<Type> unknownGoals = new ArrayList<>();
+		for (Position goal : gameboard.getGoalPositions()) {
+			GoalCard goalCard = (GoalCard) gameboard.cardAt(goal.x(), goal.y());
+			if (goalCard.isCovered() && !known.contains(goal)) unknownGoals.add(goalCard.getType());
+		}
+		copy.shuffle(unknownGoals);
+		for (Map.Entry<Position, PathCard> entry : gameboard.getBoard().entrySet()) {
+			Position pos = entry.getKey();
+			PathCard card = entry.getValue();
+			if (card.isGoalCard() && ((GoalCard) card).isCovered() && !known.contains(pos))
+				card = new GoalCard(unknownGoals.remove(unknownGoals.size() - 1));
+			else card = card.copy();
+			copy.gameboard.placeCard(pos.x(), pos.y(), card);
+		}
+		
+		copy.dealtRoles = dealtRoles;
+		copy.activePlayer = activePlayer;
+		copy.turns = turns;
+		return copy;
+	}
+	
+	/**
+	 * Kopiert Wegekarten, da deren Drehung veränderbar ist. Aktionskarten werden geteilt.
+	 * @param card die Karte
+	 * @return die Kopie oder die Karte selbst
+	 */
+	private static Card copyOf(Card card) {
+		return card.isPathCard() ? ((PathCard) card).copy() : card;
+	}
+	
+	
+	////////////
+	// GETTER //
+	////////////
+	
+	public Player[] getPlayers() {
+		return players.toArray(Player[]::new);
+	}
+	
+	public Player getActivePlayer() {
+		if (activePlayer == -1) return null;
+		return players.get(activePlayer);
+	}
+	
+	public Card getSelectedCard() {
+		return selectedCard;
+	}
+	
+	public Gameboard getGameboard() {
+		return gameboard;
+	}
+	
+	public boolean isHeadless() {
+		return background == null;
+	}
+	
+	/**
+	 * Gibt an, ob das Spiel beendet ist, ohne die Gewinner neu zu bestimmen.
+	 * @return {@code true} wenn das Spiel beendet ist; sonst {@code false}
+	 * @see #getWinners()
+	 */
+	public boolean isGameOver() {
+		return winners != null;
+	}
+	
+	/**
+	 * Liefert den Zufallsgenerator der Sitzung.<br>
+	 * Computerspieler sollen ihn für alle Zufallsentscheidungen verwenden, damit Spiele reproduzierbar bleiben.
+	 * @return der Zufallsgenerator
+	 */
+	public SplittableRandom getRandom() {
+		return random;
+	}
+	
+	/**
+	 * Liefert die Positionen der Zielkarten, die sich der übergebene Spieler mit einer Schatzkarte angeschaut hat.<br>
+	 * Computerspieler dürfen die Typen dieser Zielkarten verwenden.
+	 * @param player der Spieler
+	 * @return eine nicht veränderbare Sicht auf die Positionen
+	 */
+	public Set<Position> getKnownGoalPositions(Player player) {
+		Set<Position> known = knownGoals.get(player);
+		return known == null ? Set.of() : Collections.unmodifiableSet(known);
+	}
+	
+	/**
+	 * Liefert alle Rollen, aus denen beim Start verteilt wurde, einschließlich der unbenutzten.<br>
+	 * Wie viele Rollen jeder Art im Spiel sind, ist allen Spielern bekannt.
+	 * @return die verteilten Rollen; leer, solange keine Rollen verteilt wurden
+	 */
+	public List<Role> getDealtRoles() {
+		return dealtRoles;
+	}
+	
+	/**
+	 * Gibt die Anzahl der bisher beendeten Züge zurück.
+	 * @return die Anzahl der Züge
+	 */
+	public int getTurnCount() {
+		return turns;
+	}
+	
+	public Set<Position> getCardPositions() {
+		return gameboard.getBoard().keySet();
+	}
+	
+	public PathCard getCardAt(Position pos) {
+		return gameboard.getBoard().getOrDefault(pos, null);
+	}
+	
+	public Set<Position> getFrontierPositions() {
+		return gameboard.getFrontier().keySet();
+	}
+	
+	public boolean canCardBePlacedAt(int x, int y, PathCard card) {
+		return gameboard.canCardBePlacedAt(x, y, card);
+	}
+	
+	public int getDrawDeckSize() {
+		return drawDeck.size();
+	}
+	
+	public List<Card> getDiscardPile() {
+		return new ArrayList<>(discardPile);
+	}
+	
+	
+	//////////////
+	// GAMEPLAY //
+	//////////////
+	
+	/**
+	 * Gibt die Gewinner des Spiels zurück.
+	 * @return die Gewinner; oder null falls das Spiel noch nicht beendet ist
+	 */
+	public List<Player> getWinners() {
+		// TODO Aufgabe 4.3.2
+		
+		// Sie dürfen diese Methode vollständig umschreiben und den vorhandenen Code entfernen.
+		// Steinkarte wurde aufgedeckt -> Steinsucher gewinnen
+		if(gameboard.isStoneCardVisible() && players.stream().filter(p -> p.getRole() == Player.Role.STONE_MINER).findAny().isPresent())
+			return players.stream().filter(p -> p.getRole() == Player.Role.STONE_MINER).collect(Collectors.toList());
+		// Goldkarte wurde aufgedeckt -> Goldsucher gewinnen
+		if (gameboard.isGoldCardVisible() && players.stream().filter(p -> p.getRole() == Player.Role.GOLD_MINER).findAny().isPresent())
+			return players.stream().filter(p -> p.getRole() == Player.Role.GOLD_MINER).collect(Collectors.toList());
+		
+		// keine Karten mehr übrig -> Saboteure gewinnen
+		if (drawDeck.isEmpty() && players.stream().allMatch(p -> p.getAllHandCards().isEmpty()) && players.stream().filter(p -> p.getRole() == Player.Role.SABOTEUR).findAny().isPresent())
+			return players.stream().filter(p -> p.getRole() == Player.Role.SABOTEUR).collect(Collectors.toList());
+		if (drawDeck.isEmpty() && players.stream().allMatch(p -> p.getAllHandCards().isEmpty()) && !players.stream().filter(p -> p.getRole() == Player.Role.SABOTEUR).findAny().isPresent()) {
+			int highestScore = players.stream().mapToInt(p -> p.getScore()).max().getAsInt();
+			List<Player> playerWithHighhestScore = players.stream().filter(p -> p.getScore() == highestScore).collect(Collectors.toList());
+			return playerWithHighhestScore;
+		}
+			// noch kein Gewinner
+		return null;
+	}
+	
+	/**
+	 * Beendet den Zug des aktuellen aktiven Spielers und startet den Zug des nächsten Spielers.<br>
+	 * Dabei zieht der alte aktive Spieler eine Karte nach.
+	 */
+	private void nextPlayer() {
+		turns++;
+		// Spielende prüfen
+		List<Player> winners = getWinners();
+		if (winners != null) {
+			this.winners = winners;
+			// Bonus Punkte von restlichen Karten
+			for (Player player : winners) {
+				player.scorePoints(30);
+			}
+			// Highscores speichern
+			if (!isHeadless()) {
+				LocalDateTime now = LocalDateTime.now();
+				for (Player player : players) {
+					ScoreEntry scoreEntry = new ScoreEntry(player.getName(), now, player.getScore());
+					ScoreEntryIO.addScoreEntry(scoreEntry);
+				}
+			}
+			// Spielende signalisieren
+			selectCard(null);
+			activePlayer = -1;
+			firePropertyChange(NEXT_PLAYER);
+			firePropertyChange(GAME_OVER, winners);
+			return;
+		}
+		
+		// Karte nachziehen
+		drawCard();
+		
+		// der nächste Spieler ist am Zug
+		int nextActivePlayer = activePlayer + 1;
+		if (nextActivePlayer == players.size()) nextActivePlayer = 0;
+		
+		// alle Karten verstecken
+		selectCard(null);
+		activePlayer = -1;
+		firePropertyChange(NEXT_PLAYER);
+		
+		// nächsten Spieler informieren
+		firePropertyChange(INFORM_NEXT_PLAYER, players.get(nextActivePlayer));
+		
+		// Karten des aktiven Spielers zeigen
+		activePlayer = nextActivePlayer;
+		firePropertyChange(NEXT_PLAYER);
+		if (getActivePlayer().getAllHandCards().isEmpty())
+			firePropertyChange(ACTIVE_PLAYER_NO_HAND_CARDS);
+	}
+	
+	/**
+	 * Der übergebene Spieler zieht eine Karte vom Nachziehstapel.
+	 * @param player der Spieler, der eine Karten zieht
+	 * @return die gezogene Karte; oder null
+	 */
+	private Card drawCard(Player player) {
+		// wenn das Deck leer ist geht das Spiel weiter bis kein Spieler mehr Handkarten hat
+		if (drawDeck.isEmpty()) return null;
+		if (player == null) return null;
+		Card card = drawDeck.pop();
+		player.drawCard(card);
+		return card;
+	}
+	
+	private void drawCard() {
+		Card card = drawCard(getActivePlayer());
+		firePropertyChange(DRAW_CARD, card);
+	}
+	
+	/**
+	 * Benutzt die ausgewählte Karte des aktiven Spielers.
+	 */
+	private void playSelectedCard() {
+		getActivePlayer().playCard(selectedCard);
+		selectCard(null);
+	}
+	
+	/**
+	 * Wählt eine Karte aus. Dementsprechend wird die Benutzeroberfläche aktualisiert.
+	 * @param card die auszuwählende Karte
+	 */
+	public void selectCard(Card card) {
+		selectedCard = card;
+		firePropertyChange(SELECT_CARD);
+	}
+	
+	/**
+	 * Gibt dem aktiven Spieler die übergebene Anzahl Punkte.
+	 * @param points die zu vergebenden Punkte
+	 */
+	private void scorePoints(int points) {
+		getActivePlayer().scorePoints(points);
+	}
+	
+	// POSSIBLE ACTIONS //
+	
+	/**
+	 * Beendet den Zug des aktiven Spielers.<br>
+	 * Danach ist der nächste Spieler an der Reihe.
+	 */
+	public void doNothing() {
+		firePropertyChange(MOVE, Move.nothing());
+		nextPlayer();
+	}
+	
+	/**
+	 * Setzt die ausgewählte Karte in das Wegelabyrinth.<br>
+	 * Danach ist der nächste Spieler an der Reihe.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @see Gameboard#placeCard(int, int, PathCard)
+	 */
+	public void placeSelectedCardAt(int x, int y) {
+		firePropertyChange(MOVE, Move.place(selectedCard, x, y, ((PathCard) selectedCard).isRotated()));
+		gameboard.placeCard(x, y, (PathCard) selectedCard);
+		playSelectedCard();
+		scorePoints(gameboard.getNumberOfAdjacentCards(x, y) + 1);
+		nextPlayer();
+	}
+	
+	/**
+	 * Zerstört die Wegekarte an der übergebenen Position mit der ausgewählten Karte.<br>
+	 * Legt die zerstörte und die ausgewählte Karte auf den Ablagestapel.<br>
+	 * Danach ist der nächste Spieler an der Reihe.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @see Gameboard#removeCard(int, int)
+	 */
+	public void destroyCardWithSelectedCardAt(int x, int y) {
+		firePropertyChange(MOVE, Move.destroy(selectedCard, x, y));
+		PathCard oldCard = gameboard.removeCard(x, y);
+		discardPile.add(oldCard);
+		discardPile.add(selectedCard);
+		playSelectedCard();
+		scorePoints(2);
+		nextPlayer();
+	}
+	
+	/**
+	 * Repariert die Karte mit dem zerbrochenen Werkzeug mit der ausgewählten Karte.<br>
+	 * Legt die Karte mit dem zerbrochenen Werkzeug und die ausgewählte Karte auf den Ablagestapel.<br>
+	 * Danach ist der nächste Spieler an der Reihe.
+	 * @param player der Spieler, dessen Werkzeug repariert wird
+	 * @param brokenToolCard die Karte, die repariert wird
+	 * @see Player#fixBrokenTool(BrokenToolCard, FixedToolCard)
+	 */
+	public void fixBrokenToolCardWithSelectedCard(Player player, BrokenToolCard brokenToolCard) {
+		firePropertyChange(MOVE, Move.fixTool(selectedCard, player, brokenToolCard));
+		player.fixBrokenTool(brokenToolCard, (FixedToolCard) selectedCard);
+		discardPile.add(brokenToolCard);
+		discardPile.add(selectedCard);
+		playSelectedCard();
+		scorePoints(2);
+		if(player.hasBrokenTool())
+			scorePoints(5);
+		nextPlayer();
+	}
+	
+	/**
+	 * Zerstört das Werkzeug eines Spielers mit der ausgewählten Karte.<br>
+	 * Danach ist der nächste Spieler an der Reihe.
+	 * @param player der Spieler, dessen Werkzeug zerstört wird
+	 */
+	public void breakToolWithSelectedCard(Player player) {
+		firePropertyChange(MOVE, Move.breakTool(selectedCard, player));
+		if(player.hasBrokenTool())
+			scorePoints(-1);
+		player.breakTool((BrokenToolCard) selectedCard);
+		playSelectedCard();
+		scorePoints(2);
+		nextPlayer();
+	}
+	
+	/**
+	 * Schaut die übergebene Zielkarte an.<br>
+	 * Legt die ausgewählte Karte auf den Ablagestapel.<br>
+	 * Danach ist der nächste Spieler an der Reihe.
+	 * @param goalCard die anzuschauende Zielkarte
+	 */
+	public void lookAtGoalCardWithSelectedCard(GoalCard goalCard) {
+		Position goalPosition = null;
+		for (Position goal : gameboard.getGoalPositions())
+			if (gameboard.cardAt(goal.x(), goal.y()) == goalCard) goalPosition = goal;
+		if (goalPosition != null) firePropertyChange(MOVE, Move.lookAtGoal(selectedCard, goalPosition.x(), goalPosition.y()));
+		if(selectedCard.isMap())
+			scorePoints(-10);
+		// remember which goal card the player knows
+		if (goalPosition != null) knownGoals.computeIfAbsent(getActivePlayer(), p -> new HashSet<>()).add(goalPosition);
+		firePropertyChange(LOOK_AT_GOAL_CARD, goalCard);
+		discardPile.add(selectedCard);
+		playSelectedCard();
+		nextPlayer();
+	}
+	
+	/**
+	 * Legt die ausgewählte Karte auf den Ablagestapel.<br>
+	 * Danach ist der nächste Spieler an der Reihe.
+	 */
+	public void discardSelectedCard() {
+		firePropertyChange(MOVE, Move.discard(selectedCard));
+		discardPile.add(selectedCard);
+		playSelectedCard();
+		nextPlayer();
+	}
+	
+	
+	//////////////
+	// LISTENER //
+	//////////////
+	
+	private final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
+	
+	// CONSTANTS //
+	
+	/**
+	 * Wird aktiviert, wenn das Spiel beendet ist.<br>
+	 * newValue (List&lt;Player&gt;): die Gewinner des Spiels
+	 */
+	public static final String GAME_OVER = "game_over";
+	
+	/**
+	 * Wird aktiviert, wenn ein neuer Spieler am Zug ist.
+	 */
+	public static final String NEXT_PLAYER = "next_player";
+	
+	/**
+	 * Wird aktiviert, wenn der nächste aktive Spieler über seinen Zug informiert werden soll.<br>
+	 * newValue (Player): der nächste aktive Spieler
+	 */
+	public static final String INFORM_NEXT_PLAYER = "prepare_next_player";
+	
+	/**
+	 * Wird aktiviert, wenn der aktive Spieler am Zug ist, aber keine Handkarten mehr zur Verfügung hat.
+	 */
+	public static final String ACTIVE_PLAYER_NO_HAND_CARDS = "active_player_no_hand_cards";
+	
+	/**
+	 * Wird aktiviert, wenn eine Karte ausgewählt wird.
+	 */
+	public static final String SELECT_CARD = "select_card";
+	
+	/**
+	 * Wird aktiviert, wenn eine Karte nachgezogen wird.<br>
+	 * newValue (Card): die neue Karte; oder null
+	 */
+	public static final String DRAW_CARD = "draw_card";
+	
+	/**
+	 * Wird aktiviert, bevor der aktive Spieler einen Zug ausführt.<br>
+	 * Das Wegelabyrinth und die Spieler sind noch im Zustand vor dem Zug.<br>
+	 * newValue (Move): der auszuführende Zug
+	 */
+	public static final String MOVE = "move";
+	
+	/**
+	 * Wird aktiviert, wenn eine Zielkarte angeschaut wird.<br>
+	 * newValue (GoalCard): die angeschaute Zielkarte
+	 */
+	public static final String LOOK_AT_GOAL_CARD = "look_at_goal_card";
+	
+	// METHODS //
+	
+	public void addPropertyChangeListener(String name, PropertyChangeListener listener) {
+		pcs.addPropertyChangeListener(name, listener);
+	}
+	
+	private void firePropertyChange(String name, Object value) {
+		pcs.firePropertyChange(name, null, value);
+	}
+	
+	private void firePropertyChange(String name) {
+		pcs.firePropertyChange(name, null, null);
+	}
+	
+}
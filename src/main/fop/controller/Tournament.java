@@ -0,0 +1,322 @@
+package fop.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+
+import fop.model.ComputerPlayer;
+import fop.model.Player;
+import fop.model.Player.Role;
+import fop.model.strategy.BeliefStrategy;
+import fop.model.strategy.GreedyStrategy;
+import fop.model.strategy.RandomStrategy;
+import fop.model.strategy.RoleStrategy;
+
+/**
+ *
+ * Spielt viele Spiele mit Computerspielern parallel und wertet die Gewinnquoten aus.<br>
+ * <br>
+ * Jedes Spiel läuft in einer eigenen {@link GameSession} ohne Benutzeroberfläche ({@link GameSession#playToEnd()}).
+ * Spieleranzahl und Strategien der Plätze werden pro Spiel aus dem Startwert und der Nummer des Spiels bestimmt,
+ * ebenso der Startwert der Sitzung. Damit ist jedes Spiel reproduzierbar und unabhängig von der Reihenfolge der Ausführung.
+ * Die Spiele werden auf einen {@link ForkJoinPool} verteilt und die Ergebnisse anschließend zusammengeführt.<br>
+ * <br>
+ * Aufruf: {@code java -cp bin/main fop.controller.Tournament [Spiele] [Startwert]}
+ *
+ */
+public final class Tournament {
+	
+	/** Die Anzahl der Spiele, die ein Teilauftrag ohne weitere Aufteilung spielt. */
+	private static final int GAMES_PER_TASK = 16;
+	
+	/** Die Namen der Strategien in der Reihenfolge ihres Hinzufügens. */
+	private final List<String> strategyNames = new ArrayList<>();
+	
+	/** Erstellt zu einem Namen und einer Sitzung einen Computerspieler der jeweiligen Strategie. */
+	private final List<BiFunction<String, GameSession, ComputerPlayer>> strategies = new ArrayList<>();
+	
+	/** Die möglichen Spieleranzahlen. */
+	private int[] playerCounts = {3, 4, 5, 6, 7, 8, 9, 10};
+	
+	/** Die zu verteilenden Rollen je Spieleranzahl; fehlende Einträge verwenden die Standardverteilung. */
+	private final Map<Integer, List<Role>> rolePools = new HashMap<>();
+	
+	/**
+	 * Erstellt ein Turnier ohne Strategien.
+	 */
+	public Tournament() {}
+	
+	/**
+	 * Fügt eine Strategie hinzu. Jeder Platz eines Spiels erhält zufällig eine der Strategien.
+	 * @param name der Name der Strategie in der Auswertung
+	 * @param factory erstellt zu einem Spielernamen und einer Sitzung einen Computerspieler
+	 * @return dieses Turnier
+	 */
+	public Tournament addStrategy(String name, BiFunction<String, GameSession, ComputerPlayer> factory) {
+		strategyNames.add(name);
+		strategies.add(factory);
+		return this;
+	}
+	
+	/**
+	 * Legt die möglichen Spieleranzahlen fest, aus denen pro Spiel zufällig gewählt wird.
+	 * @param playerCounts die Spieleranzahlen
+	 * @return dieses Turnier
+	 */
+	public Tournament setPlayerCounts(int... playerCounts) {
+		if (playerCounts.length == 0) throw new IllegalArgumentException("At least one player count is required.");
+		this.playerCounts = playerCounts.clone();
+		return this;
+	}
+	
+	/**
+	 * Legt die Rollen fest, die in Spielen mit der übergebenen Spieleranzahl verteilt werden.
+	 * @param playerCount die Spieleranzahl
+	 * @param roles die zu verteilenden Rollen, mindestens so viele wie Spieler
+	 * @return dieses Turnier
+	 * @see GameSession#setRolePool(List)
+	 */
+	public Tournament setRolePool(int playerCount, Role... roles) {
+		if (roles.length < playerCount) throw new IllegalArgumentException("The role pool has fewer roles than players.");
+		rolePools.put(playerCount, List.of(roles));
+		return this;
+	}
+	
+	/**
+	 * Spielt die übergebene Anzahl an Spielen im übergebenen Pool.
+	 * @param games die Anzahl der Spiele
+	 * @param seed der Startwert, aus dem die Aufstellung jedes Spiels bestimmt wird
+	 * @param pool der Pool, auf den die Spiele verteilt werden
+	 * @return die zusammengeführten Ergebnisse
+	 */
+	public Result run(int games, long seed, ForkJoinPool pool) {
+		if (strategies.isEmpty()) throw new IllegalStateException("At least one strategy is required.");
+		long start = System.nanoTime();
+		Result result = pool.invoke(new Games(seed, 0, games));
+		result.nanos = System.nanoTime() - start;
+		return result;
+	}
+	
+	/**
+	 * Spielt ein einzelnes Spiel und trägt das Ergebnis ein.
+	 * @param seed der Startwert des Turniers
+	 * @param game die Nummer des Spiels
+	 * @param result die Ergebnisse, in die das Spiel eingetragen wird
+	 */
+	private void play(long seed, int game, Result result) {
+		// every game gets its own generator, independent of the execution order
+		SplittableRandom random = new SplittableRandom(seed + game * 0x9E3779B97F4A7C15L);
+		int playerCount = playerCounts[random.nextInt(playerCounts.length)];
+		
+		GameSession session = new GameSession(random.nextLong());
+		session.setRolePool(rolePools.get(playerCount));
+		Map<Player, Integer> strategyOf = new HashMap<>();
+		for (int i = 0; i < playerCount; i++) {
+			int strategy = random.nextInt(strategies.size());
+			ComputerPlayer player = strategies.get(strategy).apply(strategyNames.get(strategy) + " " + (i + 1), session);
+			session.addPlayer(player);
+			strategyOf.put(player, strategy);
+		}
+		
+		List<Player> winners = session.playToEnd();
+		result.games++;
+		result.turns += session.getTurnCount();
+		for (Player player : session.getPlayers()) {
+			int role = player.getRole().ordinal();
+			int strategy = strategyOf.get(player);
+			boolean won = winners.contains(player);
+			result.roleSeats[role]++;
+			result.strategySeats[strategy][role]++;
+			if (won) {
+				result.roleWins[role]++;
+				result.strategyWins[strategy][role]++;
+			}
+		}
+	}
+	
+	/**
+	 *
+	 * Ein Teilauftrag, der einen Bereich von Spielen spielt oder weiter aufteilt.
+	 *
+	 */
+	private final class Games extends RecursiveTask<Result> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final long seed;
+		private final int from, to;
+		
+		private Games(long seed, int from, int to) {
+			this.seed = seed;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected Result compute() {
+			if (to - from <= GAMES_PER_TASK) {
+				Result result = new Result(strategyNames);
+				for (int game = from; game < to; game++)
+					play(seed, game, result);
+				return result;
+			}
+			int middle = (from + to) >>> 1;
+			Games left = new Games(seed, from, middle);
+			left.fork();
+			Result right = new Games(seed, middle, to).compute();
+			return left.join().merge(right);
+		}
+		
+	}
+	
+	/**
+	 *
+	 * Die Ergebnisse eines Turniers.<br>
+	 * Gewinnquoten werden pro Platz gezählt: Ein Spieler zählt als Gewinner, wenn er unter den Gewinnern des Spiels ist.
+	 *
+	 */
+	public static final class Result {
+		
+		private final List<String> strategyNames;
+		private long games;
+		private long turns;
+		private long nanos;
+		
+		/** Plätze und Siege je Rolle. */
+		private final long[] roleSeats = new long[Role.values().length];
+		private final long[] roleWins = new long[Role.values().length];
+		
+		/** Plätze und Siege je Strategie und Rolle. */
+		private final long[][] strategySeats;
+		private final long[][] strategyWins;
+		
+		private Result(List<String> strategyNames) {
+			this.strategyNames = strategyNames;
+			strategySeats = new long[strategyNames.size()][Role.values().length];
+			strategyWins = new long[strategyNames.size()][Role.values().length];
+		}
+		
+		/**
+		 * Addiert die übergebenen Ergebnisse zu diesen.
+		 * @param other die zu addierenden Ergebnisse
+		 * @return diese Ergebnisse
+		 */
+		private Result merge(Result other) {
+			games += other.games;
+			turns += other.turns;
+			for (int role = 0; role < roleSeats.length; role++) {
+				roleSeats[role] += other.roleSeats[role];
+				roleWins[role] += other.roleWins[role];
+				for (int strategy = 0; strategy < strategySeats.length; strategy++) {
+					strategySeats[strategy][role] += other.strategySeats[strategy][role];
+					strategyWins[strategy][role] += other.strategyWins[strategy][role];
+				}
+			}
+			return this;
+		}
+		
+		public long getGames() {
+			return games;
+		}
+		
+		/**
+		 * Gibt die Anzahl der gespielten Spiele pro Sekunde zurück.
+		 * @return der Durchsatz in Spielen pro Sekunde
+		 */
+		public double getGamesPerSecond() {
+			return nanos == 0 ? 0 : games * 1e9 / nanos;
+		}
+		
+		/**
+		 * Gibt den Anteil der Spieler mit der übergebenen Rolle zurück, die gewonnen haben.
+		 * @param role die Rolle
+		 * @return die Gewinnquote zwischen {@code 0} und {@code 1}
+		 */
+		public double getWinRate(Role role) {
+			return rate(roleWins[role.ordinal()], roleSeats[role.ordinal()]);
+		}
+		
+		/**
+		 * Gibt den Anteil der Spieler mit der übergebenen Strategie zurück, die gewonnen haben.
+		 * @param strategy der Name der Strategie
+		 * @return die Gewinnquote zwischen {@code 0} und {@code 1}
+		 */
+		public double getWinRate(String strategy) {
+			int index = strategyNames.indexOf(strategy);
+			if (index < 0) throw new IllegalArgumentException("Unknown strategy: " + strategy);
+			long seats = 0, wins = 0;
+			for (int role = 0; role < roleSeats.length; role++) {
+				seats += strategySeats[index][role];
+				wins += strategyWins[index][role];
+			}
+			return rate(wins, seats);
+		}
+		
+		/**
+		 * Gibt den Anteil der Spieler mit der übergebenen Strategie und Rolle zurück, die gewonnen haben.
+		 * @param strategy der Name der Strategie
+		 * @param role die Rolle
+		 * @return die Gewinnquote zwischen {@code 0} und {@code 1}
+		 */
+		public double getWinRate(String strategy, Role role) {
+			int index = strategyNames.indexOf(strategy);
+			if (index < 0) throw new IllegalArgumentException("Unknown strategy: " + strategy);
+			return rate(strategyWins[index][role.ordinal()], strategySeats[index][role.ordinal()]);
+		}
+		
+		private static double rate(long wins, long seats) {
+			return seats == 0 ? 0 : (double) wins / seats;
+		}
+		
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("%d games in %.2f s (%.1f games/s, %.1f turns/game)%n",
+					games, nanos / 1e9, getGamesPerSecond(), games == 0 ? 0 : (double) turns / games));
+			sb.append(String.format("%-14s", "win rate"));
+			for (Role role : Role.values())
+				sb.append(String.format("%14s", role));
+			sb.append(String.format("%14s%n", "total"));
+			sb.append(String.format("%-14s", "all"));
+			long seats = 0, wins = 0;
+			for (Role role : Role.values()) {
+				sb.append(String.format("%13.1f%%", 100 * getWinRate(role)));
+				seats += roleSeats[role.ordinal()];
+				wins += roleWins[role.ordinal()];
+			}
+			sb.append(String.format("%13.1f%%%n", 100 * rate(wins, seats)));
+			for (String strategy : strategyNames) {
+				sb.append(String.format("%-14s", strategy));
+				for (Role role : Role.values())
+					sb.append(String.format("%13.1f%%", 100 * getWinRate(strategy, role)));
+				sb.append(String.format("%13.1f%%%n", 100 * getWinRate(strategy)));
+			}
+			return sb.toString();
+		}
+		
+	}
+	
+	/**
+	 * Erstellt das Turnier, das {@link #main(String[])} spielt, mit allen Strategien.
+	 * @return das Turnier
+	 */
+	static Tournament withAllStrategies() {
+		return new Tournament()
+				.addStrategy("random", (name, session) -> new ComputerPlayer(name, session, new RandomStrategy()))
+				.addStrategy("greedy", (name, session) -> new ComputerPlayer(name, session, new GreedyStrategy()))
+				.addStrategy("role", (name, session) -> new ComputerPlayer(name, session, new RoleStrategy()))
+				.addStrategy("belief", (name, session) -> new ComputerPlayer(name, session, new BeliefStrategy(session)));
+	}
+	
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+		System.out.print(withAllStrategies().run(games, seed, ForkJoinPool.commonPool()));
+	}
+	
+}
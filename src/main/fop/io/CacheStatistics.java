@@ -0,0 +1,56 @@
+package fop.io;
+
+/**
+ *
+ * Stellt die Zählerstände eines Bildspeichers zu einem Zeitpunkt dar.<br>
+ * <br>
+ * Ein Treffer ist ein Zugriff, der ein gespeichertes Bild liefert, ein Fehlschlag ein Zugriff,
+ * für den das Bild erst geladen oder berechnet werden muss. Verdrängt zählt die Bilder,
+ * die verworfen wurden, um das Budget des Speichers einzuhalten.
+ *
+ */
+public final class CacheStatistics {
+	
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	
+	/**
+	 * Erstellt einen Zählerstand.
+	 * @param hits die Anzahl der Treffer
+	 * @param misses die Anzahl der Fehlschläge
+	 * @param evictions die Anzahl der verdrängten Bilder
+	 */
+	public CacheStatistics(long hits, long misses, long evictions) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+	}
+	
+	public long hits() {
+		return hits;
+	}
+	
+	public long misses() {
+		return misses;
+	}
+	
+	public long evictions() {
+		return evictions;
+	}
+	
+	/**
+	 * Liefert den Anteil der Treffer an allen Zugriffen.
+	 * @return der Anteil zwischen {@code 0} und {@code 1}; {@code 0} wenn es keine Zugriffe gab
+	 */
+	public double hitRate() {
+		long requests = hits + misses;
+		return requests == 0 ? 0 : (double) hits / requests;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("CacheStatistics (hits=%d, misses=%d, evictions=%d)", hits, misses, evictions);
+	}
+	
+}
@@ -1,15 +1,16 @@
 package fop.io;
 
+import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
-import java.awt.geom.AffineTransform;
-import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -27,7 +28,12 @@ import javax.imageio.ImageIO;
  * <br>
  * Alle Bilder liegen im Ordner {@link #PATH}.<br>
  * Mittels {@link #readImage(Card)} kann das zu einer Karte passende Bild abgerufen werden.<br>
- * Mittels {@link #readImage(String)} kann das zu einer Karte passende Bild anhand des Kartennamens abgerufen werden.
+ * Mittels {@link #readImage(String)} kann das zu einer Karte passende Bild anhand des Kartennamens abgerufen werden.<br>
+ * Zum Zeichnen sollten {@link #drawImage(Graphics2D, Card, int, int, int, int)} und
+ * {@link #drawImage(Graphics2D, String, int, int, int, int)} genutzt werden, die vorskalierte Bilder
+ * aus einem {@link ScaledImageCache} verwenden. Dessen Budget in Bytes kann mit der Systemeigenschaft
+ * {@value #CACHE_BUDGET_PROPERTY} festgelegt werden.<br>
+ * Liegt im Ordner ein {@link ImageAtlas}, werden die Bilder daraus gelesen statt einzeln dekodiert.
  *
  */
 public final class CardImageReader {
@@ -47,21 +53,71 @@ public final class CardImageReader {
 	
 	private CardImageReader() {}
 	
-	/** Speichert Bilder von Karten */
-	private static final Map<Card, BufferedImage> cardSafe = new HashMap<>();
-	/** Speichert Bilder von Namen von Karten */
-	private static final Map<String, BufferedImage> nameSafe = new HashMap<>();
+	/** Speichert Bilder unter dem Namen ihrer Datei und ihrer Drehung */
+	private static final Map<ImageKey, BufferedImage> imageSafe = new ConcurrentHashMap<>();
+	/** Speichert zu jedem Kartennamen den Namen der Bilddatei; {@link Optional#empty()} wenn es keine gibt */
+	private static final Map<String, Optional<String>> fileSafe = new ConcurrentHashMap<>();
+	/** Zählt die Zugriffe auf {@link #imageSafe} */
+	private static final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+	
+	/** Die vorab zu Pixeln umgewandelten Bilder; {@code null} wenn es keinen Atlas gibt */
+	private static final ImageAtlas atlas = ImageAtlas.open(PATH);
+	
+	/** Die Systemeigenschaft mit dem Budget der skalierten Bilder in Bytes. */
+	public static final String CACHE_BUDGET_PROPERTY = "fop.image.cache";
+	/** Speichert skalierte Bilder */
+	private static final ScaledImageCache scaledSafe = new ScaledImageCache(Long.getLong(CACHE_BUDGET_PROPERTY, 32L << 20));
+	
+	/**
+	 * Liefert den Namen der Datei, aus der das Bild der Karte geladen wird.<br>
+	 * Karten mit demselben Namen der Datei und derselben Drehung teilen sich ein Bild.
+	 * @param card die Karte
+	 * @return der Name der Datei ohne Endung; oder der Name der Karte, wenn es keine Datei gibt
+	 */
+	static String fileName(Card card) {
+		return fileSafe.computeIfAbsent(card.getName(), CardImageReader::findFile).orElse(card.getName());
+	}
+	
+	private static boolean hasFile(Card card) {
+		return fileSafe.computeIfAbsent(card.getName(), CardImageReader::findFile).isPresent();
+	}
+	
+	private static boolean isRotated(Card card) {
+		return card.isPathCard() && ((PathCard) card).isRotated();
+	}
 	
 	/**
-	 * Liefert ein zur übergebenen Wegekarte passendes Bild.
+	 * Liefert ein zur übergebenen Wegekarte passendes Bild.<br>
+	 * Alle Karten mit derselben Bilddatei und Drehung erhalten dasselbe Bild; für gedrehte Karten wird dafür einmal je
+	 * Datei eine gedrehte Kopie gespeichert, z.B. für die Dialoge. Zum Zeichnen sollte stattdessen
+	 * {@link #drawImage(Graphics2D, Card, int, int, int, int)} genutzt werden, das ohne diese Kopie auskommt.
+	 * Die Methode darf von mehreren Threads gleichzeitig aufgerufen werden, z.B. vom {@link ImagePreloader}.
 	 * @param card die Karte
 	 * @return das Bild
 	 */
 	public static BufferedImage readImage(Card card) {
-		if (cardSafe.containsKey(card)) return cardSafe.get(card);
+		return readImage(card, isRotated(card));
+	}
+	
+	/**
+	 * Liefert ein zur übergebenen Karte passendes Bild in der übergebenen Drehung.
+	 * @param card die Karte
+	 * @param rotated gibt an, ob das Bild der Datei gedreht werden soll
+	 * @return das Bild
+	 */
+	private static BufferedImage readImage(Card card, boolean rotated) {
+		Optional<String> file = fileSafe.computeIfAbsent(card.getName(), CardImageReader::findFile);
+		// generated images are kept apart from files with the same name
+		ImageKey key = new ImageKey(file.orElse("#" + card.getName()), rotated);
+		BufferedImage img = imageSafe.get(key);
+		if (img != null) {
+			hits.incrementAndGet();
+			return img;
+		}
+		misses.incrementAndGet();
 		
 		// try to load from resources
-		BufferedImage img = loadImage(card);
+		if (file.isPresent()) img = loadImage(file.get(), rotated);
 		
 		// if path card draw it
 		if (card.isPathCard() && img == null) {
@@ -78,9 +134,9 @@ public final class CardImageReader {
 		//if (img == null)
 		//	throw new IllegalArgumentException(String.format("No image for the given card was found: %s", card));
 		
-		// save and return image
-		cardSafe.put(card, img);
-		return img;
+		// save and return image; another thread may have been faster
+		BufferedImage old = imageSafe.putIfAbsent(key, img);
+		return old == null ? img : old;
 	}
 	
 	/**
@@ -89,13 +145,17 @@ public final class CardImageReader {
 	 * @return das Bild
 	 */
 	public static BufferedImage readImage(String name) {
-		if (nameSafe.containsKey(name)) return nameSafe.get(name);
+		ImageKey key = new ImageKey(name, false);
+		BufferedImage img = imageSafe.get(key);
+		if (img != null) {
+			hits.incrementAndGet();
+			return img;
+		}
+		misses.incrementAndGet();
 		
 		// try to load from resources
-		BufferedImage img;
-		try (InputStream is = CardImageReader.class.getResourceAsStream(String.format("%s/%s.png", PATH, name))) {
-			img = ImageIO.read(is);
-		} catch (IOException | IllegalArgumentException e) {
+		img = loadImage(name, false);
+		if (img == null) {
 			// nothing found draw card with name
 			System.err.printf("No image for card '%s' was found. An image was created.%n", name);
 			img = createImage(name);
@@ -103,19 +163,67 @@ public final class CardImageReader {
 			//throw new IllegalArgumentException(String.format("No image for the given card was found: %s", name));
 		}
 		
-		// save and return image
-		nameSafe.put(name, img);
-		return img;
+		// save and return image; another thread may have been faster
+		BufferedImage old = imageSafe.putIfAbsent(key, img);
+		return old == null ? img : old;
 	}
 	
 	/**
-	 * Versucht ein Bild aus den Ressourcen zu laden.
-	 * @param card die zu ladende Karte
-	 * @return das Bild; oder {@code null}
+	 * Liefert die Zählerstände des Speichers der geladenen Bilder.<br>
+	 * Dieser Speicher ist nicht begrenzt, es werden also nie Bilder verdrängt.
+	 * @return die Zählerstände
+	 */
+	public static CacheStatistics getImageStatistics() {
+		return new CacheStatistics(hits.get(), misses.get(), 0);
+	}
+	
+	/**
+	 * Liefert die Zählerstände des Speichers der skalierten Bilder.
+	 * @return die Zählerstände
 	 */
-	private static BufferedImage loadImage(Card card) {
+	public static CacheStatistics getScaledImageStatistics() {
+		return scaledSafe.statistics();
+	}
+	
+	/**
+	 * Zeichnet das zur übergebenen Karte passende Bild in das übergebene Rechteck.<br>
+	 * Das Bild wird nur einmal je Größe skaliert und danach unverändert kopiert. Gedrehte Karten werden mit dem
+	 * ungedrehten Bild und einer Drehung um 180° gezeichnet, sodass dafür keine eigenen Bilder berechnet werden.
+	 * @param g das Grafikobjekt
+	 * @param card die Karte
+	 * @param x x-Position des Rechtecks
+	 * @param y y-Position des Rechtecks
+	 * @param width die Breite des Rechtecks
+	 * @param height die Höhe des Rechtecks
+	 */
+	public static void drawImage(Graphics2D g, Card card, int x, int y, int width, int height) {
+		// generated images already show the rotated paths
+		if (isRotated(card) && hasFile(card)) scaledSafe.draw(g, readImage(card, false), x, y, width, height, true);
+		else scaledSafe.draw(g, readImage(card), x, y, width, height, false);
+	}
+	
+	/**
+	 * Zeichnet das Bild mit dem übergebenen Namen in das übergebene Rechteck.<br>
+	 * Das Bild wird nur einmal je Größe skaliert und danach unverändert kopiert.
+	 * @param g das Grafikobjekt
+	 * @param name der Name des Bildes
+	 * @param x x-Position des Rechtecks
+	 * @param y y-Position des Rechtecks
+	 * @param width die Breite des Rechtecks
+	 * @param height die Höhe des Rechtecks
+	 */
+	public static void drawImage(Graphics2D g, String name, int x, int y, int width, int height) {
+		scaledSafe.draw(g, readImage(name), x, y, width, height, false);
+	}
+	
+	/**
+	 * Sucht die Bilddatei zu einem Kartennamen.<br>
+	 * Probiert werden der Name selbst, der Name ohne Nummer und der Name mit der Nummer {@code 1}.
+	 * @param name der Name der Karte
+	 * @return der Name der Datei ohne Endung; oder {@link Optional#empty()}
+	 */
+	private static Optional<String> findFile(String name) {
 		// collect possible file names
-		String name = card.getName();
 		Matcher m = Pattern.compile("([a-zA-Z]+(_[a-zA-Z]+)*)(_\\d+)?").matcher(name);
 		m.find();
 		String base = m.group(1);
@@ -126,24 +234,63 @@ public final class CardImageReader {
 		files.add(base + "_1");
 		
 		// try possible images
-		for (String file : files) {
-			InputStream is = CardImageReader.class.getResourceAsStream(String.format("%s/%s.png", PATH, file));
-			if (is != null) try (is) {
-				// load image
-				BufferedImage img = ImageIO.read(is);
-				// rotate image if path card is rotated
-				if (card.isPathCard() && ((PathCard) card).isRotated()) {
-					AffineTransform rotate = AffineTransform.getRotateInstance(Math.PI, img.getWidth() / 2, img.getHeight() / 2);
-					img = new AffineTransformOp(rotate, AffineTransformOp.TYPE_BILINEAR).filter(img, null);
-				}
-				return img;
-			} catch (IOException e) {
-				continue;
+		for (String file : files)
+			if (CardImageReader.class.getResource(String.format("%s/%s.png", PATH, file)) != null) return Optional.of(file);
+		
+		// no image found
+		return Optional.empty();
+	}
+	
+	/**
+	 * Versucht ein Bild aus den Ressourcen zu laden.<br>
+	 * Ein gedrehtes Bild wird aus dem gespeicherten ungedrehten Bild berechnet, das dafür bei Bedarf geladen wird.
+	 * @param file der Name der Datei ohne Endung
+	 * @param rotated gibt an, ob das Bild um 180° gedreht werden soll
+	 * @return das Bild; oder {@code null}
+	 */
+	private static BufferedImage loadImage(String file, boolean rotated) {
+		if (rotated) {
+			BufferedImage img = imageSafe.get(new ImageKey(file, false));
+			if (img == null) {
+				img = loadImage(file, false);
+				if (img == null) return null;
+				BufferedImage old = imageSafe.putIfAbsent(new ImageKey(file, false), img);
+				if (old != null) img = old;
 			}
+			return rotate(img);
 		}
 		
-		// no image found
-		return null;
+		// the atlas only needs to inflate the pixels; stale or missing entries fall back to the file
+		if (atlas != null) {
+			BufferedImage img = atlas.read(file);
+			if (img != null) return img;
+		}
+		
+		InputStream is = CardImageReader.class.getResourceAsStream(String.format("%s/%s.png", PATH, file));
+		if (is == null) return null;
+		try (is) {
+			return ImageIO.read(is);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Dreht ein Bild um 180°.<br>
+	 * Um die Mitte gedreht landet jedes Pixel genau auf einem anderen Pixel, daher wird ohne Interpolation
+	 * und ohne Überblenden kopiert; das ist verlustfrei und deutlich schneller als ein {@link java.awt.image.AffineTransformOp}.
+	 * @param img das Bild
+	 * @return das gedrehte Bild
+	 */
+	private static BufferedImage rotate(BufferedImage img) {
+		int type = img.getType() == BufferedImage.TYPE_CUSTOM ? BufferedImage.TYPE_INT_ARGB : img.getType();
+		BufferedImage rotated = new BufferedImage(img.getWidth(), img.getHeight(), type);
+		Graphics2D g = rotated.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.rotate(Math.PI, img.getWidth() / 2.0, img.getHeight() / 2.0);
+		g.drawImage(img, 0, 0, null);
+		g.dispose();
+		return rotated;
 	}
 	
 	/**
@@ -266,4 +413,42 @@ public final class CardImageReader {
 		return img;
 	}
 	
+	/**
+	 * 
+	 * Identifiziert ein geladenes Bild über den Namen seiner Datei und seine Drehung.<br>
+	 * Anders als eine {@link Card} ändert sich der Schlüssel nicht, während er gespeichert ist.
+	 *
+	 */
+	private static final class ImageKey {
+		
+		private final String name;
+		private final boolean rotated;
+		
+		private ImageKey(String name, boolean rotated) {
+			this.name = name;
+			this.rotated = rotated;
+		}
+		
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + name.hashCode();
+			result = prime * result + (rotated ? 1231 : 1237);
+			return result;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (obj == null) return false;
+			if (getClass() != obj.getClass()) return false;
+			ImageKey other = (ImageKey) obj;
+			if (!name.equals(other.name)) return false;
+			if (rotated != other.rotated) return false;
+			return true;
+		}
+		
+	}
+	
 }
@@ -0,0 +1,196 @@
+package fop.io;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.imageio.ImageIO;
+
+/**
+ *
+ * Liest Bilder aus einem Atlas, in dem die Pixel aller Bilder eines Ordners hintereinander liegen.<br>
+ * <br>
+ * Der Atlas besteht aus der Datei {@value #DATA} mit den Pixeln im Format von {@link BufferedImage#TYPE_4BYTE_ABGR},
+ * je Bild mit {@link Deflater} komprimiert, und der Textdatei {@value #INDEX}, die je Zeile Name, Breite, Höhe,
+ * Position und Länge eines Bildes in {@value #DATA} sowie Größe und Änderungszeit der PNG-Datei enthält.
+ * Die Pixel werden in den Speicher abgebildet und beim Lesen eines Bildes nur entpackt, ohne die Filter und
+ * Farbumrechnung einer PNG-Datei. Bilder, deren PNG-Datei sich seit dem Erstellen des Atlas geändert hat,
+ * werden nicht aus dem Atlas gelesen.
+ * Erstellt wird der Atlas beim Bauen mit dem Ziel {@code atlas} in {@code ant.xml}, das {@link #main(String[])} aufruft.
+ * Liegen die Ressourcen in einem JAR, wird {@value #DATA} beim Öffnen einmal vollständig gelesen.
+ *
+ */
+public final class ImageAtlas {
+	
+	/** Der Name der Datei mit den Pixeln. */
+	public static final String DATA = "atlas.bin";
+	
+	/** Der Name der Datei mit den Einträgen. */
+	public static final String INDEX = "atlas.idx";
+	
+	/** Die Pixel aller Bilder. */
+	private final ByteBuffer data;
+	
+	/** Breite, Höhe, Position und Länge der Bilder nach ihrem Namen. */
+	private final Map<String, long[]> entries;
+	
+	private ImageAtlas(ByteBuffer data, Map<String, long[]> entries) {
+		this.data = data;
+		this.entries = entries;
+	}
+	
+	/**
+	 * Öffnet den Atlas im übergebenen Ordner der Ressourcen.<br>
+	 * Liegt der Atlas als Datei vor, wird er in den Speicher abgebildet, und Bilder, deren PNG-Datei im selben Ordner
+	 * fehlt oder eine andere Größe oder Änderungszeit hat, werden ausgelassen. Liegt er in einem JAR, wird er mit
+	 * einem Lesevorgang vollständig geladen; das JAR wird aus demselben Build erstellt und kann nicht veralten.
+	 * @param path der Ordner, z.B. {@code /image}
+	 * @return der Atlas; oder {@code null}, wenn es keinen Atlas gibt oder er nicht gelesen werden kann
+	 */
+	public static ImageAtlas open(String path) {
+		URL index = ImageAtlas.class.getResource(String.format("%s/%s", path, INDEX));
+		URL data = ImageAtlas.class.getResource(String.format("%s/%s", path, DATA));
+		if (index == null || data == null) return null;
+		
+		Path file = null;
+		if ("file".equals(data.getProtocol())) {
+			try {
+				file = Path.of(data.toURI());
+			} catch (URISyntaxException e) {
+				System.err.printf("The image atlas could not be located: %s%n", e);
+				return null;
+			}
+		}
+		
+		Map<String, long[]> entries = new HashMap<>();
+		int stale = 0;
+		try (Scanner scan = new Scanner(index.openStream(), "UTF-8")) {
+			while (scan.hasNext()) {
+				String name = scan.next();
+				long[] entry = {scan.nextInt(), scan.nextInt(), scan.nextLong(), scan.nextInt()};
+				long size = scan.nextLong(), lastModified = scan.nextLong();
+				// the file was changed after the atlas was built, e.g. copied over by an IDE
+				File png = file == null ? null : file.resolveSibling(name + ".png").toFile();
+				if (png == null || png.length() == size && png.lastModified() == lastModified) entries.put(name, entry);
+				else stale++;
+			}
+		} catch (IOException | RuntimeException e) {
+			System.err.printf("The image atlas index could not be read: %s%n", e);
+			return null;
+		}
+		if (stale > 0) System.err.printf("%d images in the atlas are out of date and are read from their files.%n", stale);
+		
+		if (file == null) {
+			try (InputStream is = data.openStream()) {
+				return new ImageAtlas(ByteBuffer.wrap(is.readAllBytes()), entries);
+			} catch (IOException e) {
+				System.err.printf("The image atlas could not be read: %s%n", e);
+				return null;
+			}
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new ImageAtlas(buffer, entries);
+		} catch (IOException e) {
+			System.err.printf("The image atlas could not be mapped: %s%n", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Liefert eine Kopie des Bildes mit dem übergebenen Namen. Darf von mehreren Threads gleichzeitig aufgerufen werden.
+	 * @param name der Name des Bildes ohne Endung
+	 * @return das Bild; oder {@code null}, wenn es nicht im Atlas liegt
+	 */
+	public BufferedImage read(String name) {
+		long[] entry = entries.get(name);
+		if (entry == null) return null;
+		BufferedImage img = new BufferedImage((int) entry[0], (int) entry[1], BufferedImage.TYPE_4BYTE_ABGR);
+		byte[] pixels = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+		if (entry[2] + entry[3] > data.capacity()) return null;
+		// each reader gets its own position and limit
+		ByteBuffer slice = data.duplicate();
+		slice.position((int) entry[2]).limit((int) (entry[2] + entry[3]));
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(slice);
+			if (inflater.inflate(pixels) != pixels.length || !inflater.finished()) return null;
+			return img;
+		} catch (DataFormatException e) {
+			return null;
+		} finally {
+			inflater.end();
+		}
+	}
+	
+	/**
+	 * Erstellt einen Atlas aus allen PNG-Bildern eines Ordners.<br>
+	 * Größe und Änderungszeit werden von den Bildern im Quellordner übernommen, daher sollte das der Ordner sein,
+	 * in dem {@link #open(String)} die Bilder später findet.<br>
+	 * Aufruf: {@code java -cp bin/main fop.io.ImageAtlas <Quellordner> <Zielordner>}
+	 * @param args der Ordner mit den Bildern und der Ordner, in den der Atlas geschrieben wird
+	 * @throws IOException wenn ein Bild nicht gelesen oder der Atlas nicht geschrieben werden kann
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) throw new IllegalArgumentException("Usage: ImageAtlas <source directory> <target directory>");
+		File[] files = new File(args[0]).listFiles((dir, name) -> name.endsWith(".png"));
+		if (files == null) throw new IOException(String.format("Not a directory: %s", args[0]));
+		Arrays.sort(files);
+		File target = new File(args[1]);
+		target.mkdirs();
+		
+		long offset = 0, raw = 0;
+		Deflater deflater = new Deflater();
+		byte[] chunk = new byte[1 << 16];
+		try (FileChannel channel = FileChannel.open(new File(target, DATA).toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+				PrintWriter index = new PrintWriter(new File(target, INDEX), StandardCharsets.UTF_8)) {
+			for (File file : files) {
+				BufferedImage source = ImageIO.read(file);
+				if (source == null) throw new IOException(String.format("Not an image: %s", file));
+				// convert to the layout that read copies into; drawing would blend the transparent corners
+				int w = source.getWidth(), h = source.getHeight();
+				BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_4BYTE_ABGR);
+				img.setRGB(0, 0, w, h, source.getRGB(0, 0, w, h, null, 0, w), 0, w);
+				byte[] pixels = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+				
+				long start = offset;
+				deflater.reset();
+				deflater.setInput(pixels);
+				deflater.finish();
+				while (!deflater.finished()) {
+					ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, deflater.deflate(chunk));
+					while (buffer.hasRemaining())
+						channel.write(buffer);
+					offset += buffer.limit();
+				}
+				raw += pixels.length;
+				
+				String name = file.getName().substring(0, file.getName().length() - ".png".length());
+				index.printf("%s %d %d %d %d %d %d%n", name, w, h, start, offset - start, file.length(), file.lastModified());
+			}
+		} finally {
+			deflater.end();
+		}
+		System.out.printf("Packed %d images (%d bytes, %d uncompressed) into %s%n", files.length, offset, raw, target);
+	}
+	
+}
@@ -0,0 +1,138 @@
+package fop.io;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fop.model.Player;
+import fop.model.cards.Card;
+import fop.model.cards.CardAnchor;
+import fop.model.cards.GoalCard;
+
+/**
+ *
+ * Lädt alle Bilder des {@link CardImageReader} im Hintergrund, damit beim Zeichnen des Spiels kein Bild
+ * mehr dekodiert werden muss.<br>
+ * <br>
+ * Vorgeladen werden alle Karten aus {@value #PATH_CARDS} und {@value #ACTION_CARDS},
+ * alle Varianten der Zielkarten sowie die Rückseiten und Rollen. Karten mit derselben Bilddatei werden zu einer
+ * Aufgabe zusammengefasst, sodass keine Datei doppelt dekodiert wird. Die Aufgaben werden von höchstens
+ * {@link #THREADS} Daemon-Threads mit niedriger Priorität abgearbeitet, damit die Benutzeroberfläche
+ * währenddessen bedienbar bleibt.
+ *
+ */
+public final class ImagePreloader {
+	
+	/** Die Ressourcen mit den Karten. */
+	private static final String PATH_CARDS = "/pathcards.xml";
+	private static final String ACTION_CARDS = "/actioncards.xml";
+	
+	/** Die Anzahl der Threads, die gleichzeitig Bilder dekodieren; ein Prozessor bleibt der Benutzeroberfläche. */
+	public static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+	
+	private ImagePreloader() {}
+	
+	/**
+	 * Startet das Vorladen aller Bilder.
+	 * @param listener wird nach jedem geladenen Bild aufgerufen, und zwar im Thread, der es geladen hat
+	 * @return ein Future, das abgeschlossen ist, sobald alle Bilder geladen sind
+	 */
+	public static CompletableFuture<Void> preload(ProgressListener listener) {
+		AtomicInteger threadNumber = new AtomicInteger();
+		ExecutorService executor = new ThreadPoolExecutor(THREADS, THREADS, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), task -> {
+			Thread thread = new Thread(task, "image-preloader-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		
+		// reading the card files takes a while as well, so it is not done by the caller
+		CompletableFuture<Void> loading = CompletableFuture.supplyAsync(ImagePreloader::createTasks, executor).thenCompose(tasks -> {
+			int total = tasks.size();
+			AtomicInteger loaded = new AtomicInteger();
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[total];
+			for (int i = 0; i < total; i++) {
+				Runnable task = tasks.get(i);
+				futures[i] = CompletableFuture.runAsync(() -> {
+					task.run();
+					listener.progress(loaded.incrementAndGet(), total);
+				}, executor);
+			}
+			return CompletableFuture.allOf(futures);
+		});
+		// the threads end once all images are loaded, also when reading the card files failed
+		return loading.whenComplete((result, e) -> executor.shutdown());
+	}
+	
+	/**
+	 * Erstellt eine Aufgabe je Bilddatei, die alle Karten mit dieser Datei lädt.
+	 * @return die Aufgaben
+	 */
+	private static List<Runnable> createTasks() {
+		Map<String, List<Card>> cardsByFile = new LinkedHashMap<>();
+		for (Card card : collectCards())
+			cardsByFile.computeIfAbsent(CardImageReader.fileName(card), file -> new ArrayList<>()).add(card);
+		
+		List<Runnable> tasks = new ArrayList<>();
+		for (List<Card> cards : cardsByFile.values())
+			tasks.add(() -> cards.forEach(CardImageReader::readImage));
+		
+		List<String> names = new ArrayList<>(List.of("back", "role", "goal_gold", "goal_stone"));
+		for (Player.Role role : Player.Role.values())
+			names.add(String.format("role_%s", role.name().toLowerCase()));
+		for (String name : names)
+			if (!cardsByFile.containsKey(name)) tasks.add(() -> CardImageReader.readImage(name));
+		return tasks;
+	}
+	
+	/**
+	 * Sammelt alle Karten, die im Spiel gezeichnet werden können.
+	 * @return die Karten
+	 */
+	private static List<Card> collectCards() {
+		List<Card> cards = new ArrayList<>();
+		// rotated cards are drawn from the same image, see CardImageReader.drawImage
+		cards.addAll(PathCardReader.readFromResource(PATH_CARDS));
+		cards.addAll(ActionCardReader.readFromResource(ACTION_CARDS));
+		
+		// covered goal card and every shape a revealed goal card can take
+		cards.add(new GoalCard(GoalCard.Type.Gold));
+		int masks = 1 << CardAnchor.values().length;
+		for (GoalCard.Type type : GoalCard.Type.values()) {
+			for (int required = 0; required < masks; required++) {
+				for (int forbidden = 0; forbidden < masks; forbidden++) {
+					GoalCard card = new GoalCard(type);
+					card.showFront();
+					card.generateGraph(required, forbidden);
+					cards.add(card);
+				}
+			}
+		}
+		return cards;
+	}
+	
+	/**
+	 *
+	 * Wird über den Fortschritt des Vorladens informiert.
+	 *
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+		
+		/**
+		 * Wird aufgerufen, nachdem eine Bilddatei geladen wurde.
+		 * @param loaded die Anzahl der bisher geladenen Bilddateien
+		 * @param total die Anzahl aller Bilddateien
+		 */
+		void progress(int loaded, int total);
+		
+	}
+	
+}
@@ -0,0 +1,212 @@
+package fop.io;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *
+ * Speichert verkleinerte Kopien von Bildern, damit beim Zeichnen nur noch fertige Bilder kopiert werden.<br>
+ * <br>
+ * Zu jedem Ausgangsbild werden bei Bedarf Mip-Stufen erzeugt, die jeweils halb so breit und hoch sind wie die
+ * vorherige Stufe. Eine gewünschte Größe wird aus der kleinsten Stufe berechnet, die noch mindestens so groß ist,
+ * sodass jede bikubische Skalierung höchstens um die Hälfte verkleinert. Mip-Stufen und skalierte Bilder
+ * werden nach Ausgangsbild (Identität), Breite und Höhe gespeichert. Um 180° gedrehte Bilder teilen sich diese mit dem
+ * ungedrehten Ausgangsbild, da {@link #draw(Graphics2D, BufferedImage, int, int, int, int, boolean)} sie beim Kopieren dreht.
+ * Übersteigt der Speicherbedarf das Budget, werden die am längsten nicht verwendeten Bilder verworfen.<br>
+ * Alle Methoden dürfen von mehreren Threads verwendet werden.
+ *
+ */
+public final class ScaledImageCache {
+	
+	/** Die gespeicherten Bilder in der Reihenfolge ihrer letzten Verwendung. */
+	private final Map<Key, BufferedImage> images = new LinkedHashMap<>(64, 0.75f, true);
+	
+	/** Der höchste Speicherbedarf aller gespeicherten Bilder in Bytes. */
+	private final long budget;
+	
+	/** Der aktuelle Speicherbedarf aller gespeicherten Bilder in Bytes. */
+	private long bytes;
+	
+	/** Die Zähler für {@link #statistics()}. */
+	private long hits, misses, evictions;
+	
+	/**
+	 * Erstellt einen leeren Speicher.
+	 * @param budget der höchste Speicherbedarf aller gespeicherten Bilder in Bytes
+	 */
+	public ScaledImageCache(long budget) {
+		if (budget < 0) throw new IllegalArgumentException("The budget must not be negative.");
+		this.budget = budget;
+	}
+	
+	/**
+	 * Zeichnet das Bild in das übergebene Rechteck.<br>
+	 * Das Bild wird dafür in der Größe des Rechtecks auf dem Gerät skaliert, z.B. doppelt so groß bei
+	 * einem Bildschirm mit doppelter Pixeldichte, sodass es ohne weitere Interpolation kopiert werden kann.
+	 * Ist das Grafikobjekt gedreht, wird die Größe entlang der gedrehten Achsen bestimmt.
+	 * @param g das Grafikobjekt
+	 * @param source das Ausgangsbild
+	 * @param x x-Position des Rechtecks
+	 * @param y y-Position des Rechtecks
+	 * @param width die Breite des Rechtecks
+	 * @param height die Höhe des Rechtecks
+	 * @param rotated gibt an, ob das Bild um 180° gedreht gezeichnet wird; dafür wird kein weiteres Bild gespeichert
+	 */
+	public void draw(Graphics2D g, BufferedImage source, int x, int y, int width, int height, boolean rotated) {
+		if (width <= 0 || height <= 0) return;
+		AffineTransform transform = g.getTransform();
+		int deviceWidth = (int) Math.round(width * Math.hypot(transform.getScaleX(), transform.getShearY()));
+		int deviceHeight = (int) Math.round(height * Math.hypot(transform.getShearX(), transform.getScaleY()));
+		BufferedImage img = get(source, Math.max(deviceWidth, 1), Math.max(deviceHeight, 1));
+		// a half turn around the center maps whole pixels onto whole pixels, so it is still a plain copy
+		if (rotated) g.rotate(Math.PI, x + width / 2.0, y + height / 2.0);
+		if (img.getWidth() == width && img.getHeight() == height) g.drawImage(img, x, y, null);
+		else g.drawImage(img, x, y, width, height, null);
+		if (rotated) g.setTransform(transform);
+	}
+	
+	/**
+	 * Liefert das Bild in der übergebenen Größe.
+	 * @param source das Ausgangsbild
+	 * @param width die gewünschte Breite
+	 * @param height die gewünschte Höhe
+	 * @return das skalierte Bild; oder das Ausgangsbild, wenn es schon die gewünschte Größe hat
+	 */
+	public BufferedImage get(BufferedImage source, int width, int height) {
+		if (width <= 0 || height <= 0) throw new IllegalArgumentException("The size must be positive.");
+		if (source.getWidth() == width && source.getHeight() == height) return source;
+		
+		Key key = new Key(source, width, height);
+		synchronized (this) {
+			BufferedImage img = images.get(key);
+			if (img != null) {
+				hits++;
+				return img;
+			}
+			misses++;
+		}
+		
+		// start at the smallest mip level that is still at least as large; a mip level
+		// itself is requested here as well and therefore made from the next larger level
+		int level = 0;
+		while (true) {
+			int w = source.getWidth() >> level + 1, h = source.getHeight() >> level + 1;
+			if (w < width || h < height || w == width && h == height) break;
+			level++;
+		}
+		BufferedImage base = level == 0 ? source : get(source, source.getWidth() >> level, source.getHeight() >> level);
+		BufferedImage img = scale(base, width, height);
+		
+		synchronized (this) {
+			BufferedImage old = images.putIfAbsent(key, img);
+			if (old != null) return old;
+			bytes += sizeOf(img);
+			evict();
+		}
+		return img;
+	}
+	
+	/**
+	 * Verwirft alle gespeicherten Bilder.
+	 */
+	public synchronized void clear() {
+		images.clear();
+		bytes = 0;
+	}
+	
+	/**
+	 * Liefert den aktuellen Speicherbedarf aller gespeicherten Bilder.
+	 * @return der Speicherbedarf in Bytes
+	 */
+	public synchronized long bytes() {
+		return bytes;
+	}
+	
+	/**
+	 * Liefert die Zählerstände des Speichers.<br>
+	 * Zugriffe in der Größe des Ausgangsbildes werden nicht gezählt, Zugriffe auf Mip-Stufen beim Berechnen schon.
+	 * @return die Zählerstände
+	 */
+	public synchronized CacheStatistics statistics() {
+		return new CacheStatistics(hits, misses, evictions);
+	}
+	
+	/**
+	 * Verwirft die am längsten nicht verwendeten Bilder, bis das Budget eingehalten wird.
+	 */
+	private void evict() {
+		Iterator<BufferedImage> it = images.values().iterator();
+		while (bytes > budget && it.hasNext()) {
+			bytes -= sizeOf(it.next());
+			it.remove();
+			evictions++;
+		}
+	}
+	
+	/**
+	 * Skaliert das Bild bikubisch auf die übergebene Größe.
+	 * @param img das Bild
+	 * @param width die neue Breite
+	 * @param height die neue Höhe
+	 * @return das neue Bild
+	 */
+	private static BufferedImage scale(BufferedImage img, int width, int height) {
+		BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+		Graphics2D g = scaled.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+		g.drawImage(img, 0, 0, width, height, null);
+		g.dispose();
+		return scaled;
+	}
+	
+	private static long sizeOf(BufferedImage img) {
+		return 4L * img.getWidth() * img.getHeight();
+	}
+	
+	/**
+	 *
+	 * Identifiziert ein skaliertes Bild über die Identität seines Ausgangsbildes und seine Größe.
+	 *
+	 */
+	private static final class Key {
+		
+		private final BufferedImage source;
+		private final int width, height;
+		
+		private Key(BufferedImage source, int width, int height) {
+			this.source = source;
+			this.width = width;
+			this.height = height;
+		}
+		
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + System.identityHashCode(source);
+			result = prime * result + width;
+			result = prime * result + height;
+			return result;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (obj == null) return false;
+			if (getClass() != obj.getClass()) return false;
+			Key other = (Key) obj;
+			if (source != other.source) return false;
+			if (width != other.width) return false;
+			if (height != other.height) return false;
+			return true;
+		}
+		
+	}
+	
+}
@@ -3,8 +3,11 @@ package fop.model;
 import java.util.concurrent.TimeUnit;
 
 import fop.controller.GameController;
+import fop.controller.GameSession;
 import fop.model.cards.Card;
-import javax.swing.SwingWorker;
+import fop.model.cards.GoalCard;
+import fop.model.cards.PathCard;
+import fop.model.strategy.GreedyStrategy;
 
 /***
  * 
@@ -13,23 +16,52 @@ import javax.swing.SwingWorker;
  */
 public class ComputerPlayer extends Player {
 	
+	/** Die Sitzung, in der der Computerspieler mitspielt. */
+	protected final GameSession session;
+	
+	/** Die Strategie, die die Züge des Computerspielers auswählt. */
+	protected final Strategy strategy;
+	
+	/**
+	 * Erstellt einen Computerspieler in der Sitzung der Benutzeroberfläche.
+	 * @param name der Name des Spielers
+	 * @see GameController#getSession()
+	 */
 	public ComputerPlayer(String name) {
+		this(name, GameController.getSession());
+	}
+	
+	/**
+	 * Erstellt einen Computerspieler mit der {@link GreedyStrategy}, der in der übergebenen Sitzung mitspielt.
+	 * @param name der Name des Spielers
+	 * @param session die Sitzung
+	 */
+	public ComputerPlayer(String name, GameSession session) {
+		this(name, session, new GreedyStrategy());
+	}
+	
+	/**
+	 * Erstellt einen Computerspieler, der in der übergebenen Sitzung mit der übergebenen Strategie mitspielt.
+	 * @param name der Name des Spielers
+	 * @param session die Sitzung
+	 * @param strategy die Strategie, die die Züge auswählt
+	 */
+	public ComputerPlayer(String name, GameSession session, Strategy strategy) {
 		super(name);
-		GameController.addPropertyChangeListener(GameController.NEXT_PLAYER, evt -> {
+		this.session = session;
+		this.strategy = strategy;
+		session.addPropertyChangeListener(GameSession.NEXT_PLAYER, evt -> {
 			// skip if it is not the players turn
-			if (GameController.getActivePlayer() != this) return;
+			if (session.getActivePlayer() != this) return;
+			// headless sessions drive the turns in a loop
+			if (session.isHeadless()) return;
 			
-			// do action in background worker
-			new SwingWorker<Object, Void>() {
-				
-				@Override
-				protected Object doInBackground() throws Exception {
-					sleep(800);
-					doAction();
-					sleep(800);
-					return null;
-				}
-			}.execute();
+			// do action in the background, as provided by the user interface
+			session.runInBackground(() -> {
+				sleep(800);
+				doAction();
+				sleep(800);
+			});
 		});
 	}
 	
@@ -39,37 +71,82 @@ public class ComputerPlayer extends Player {
 	}
 	
 	/**
-	 * Pausiert das Programm, damit die Änderungen auf der Benutzeroberfläche sichtbar werden.
+	 * Führt sofort einen Zug aus, z.B. in einer Sitzung ohne Benutzeroberfläche.
+	 * @see GameSession#playToEnd()
+	 */
+	public void takeTurn() {
+		doAction();
+	}
+	
+	/**
+	 * Pausiert das Programm, damit die Änderungen auf der Benutzeroberfläche sichtbar werden.<br>
+	 * In einer Sitzung ohne Benutzeroberfläche wird nicht gewartet.
 	 * @param timeMillis zu wartende Zeit in Millisekunden
 	 */
 	protected void sleep(int timeMillis) {
+		if (session.isHeadless()) return;
 		try {
 			TimeUnit.MILLISECONDS.sleep(timeMillis);
 		} catch (InterruptedException ignored) {}
 	}
 	
 	protected void selectCard(Card card) {
-		GameController.selectCard(card);
+		session.selectCard(card);
 		sleep(800);
 	}
 	
+	public Strategy getStrategy() {
+		return strategy;
+	}
+	
 	/**
 	 * Führt einen Zug des Computerspielers aus.<br>
-	 * Benutzt {@link #selectCard(Card)}, um eine Karte auszuwählen.<br>
-	 * Benutzt Methoden in {@link GameController}, um Aktionen auszuführen.
+	 * Der Zug wird von der {@link #strategy Strategie} ausgewählt und mit {@link #execute(Move)} ausgeführt.
 	 */
 	protected void doAction() {
-		// TODO Aufgabe 4.3.3
-		// Sie dürfen diese Methode vollständig umschreiben und den vorhandenen Code entfernen.
+		execute(strategy.chooseMove(this, session));
+	}
+	
+	/**
+	 * Führt den übergebenen Zug aus, z.B. einen Zug, den eine Suche außerhalb der {@link #strategy Strategie} gewählt hat.<br>
+	 * Der Spieler muss am Zug sein und der Zug muss sich auf Karten dieser Sitzung beziehen.<br>
+	 * Benutzt {@link #selectCard(Card)}, um eine Karte auszuwählen.<br>
+	 * Benutzt Methoden in {@link #session}, um Aktionen auszuführen.
+	 * @param move der auszuführende Zug
+	 */
+	public void execute(Move move) {
+		if (move.type() == Move.Type.NOTHING) {
+			session.doNothing();
+			return;
+		}
 		
-		// erhalte zufällige Handkarte
-		Card card = handCards.get((int) (Math.random() * handCards.size()));
+		// turn path cards into the chosen orientation
+		Card card = move.card();
+		if (card.isPathCard() && ((PathCard) card).isRotated() != move.rotated())
+			((PathCard) card).rotate();
 		
 		// wähle Karte aus
 		selectCard(card);
 		
-		// werfe Karte ab
-		GameController.discardSelectedCard();
+		switch (move.type()) {
+			case PLACE:
+				session.placeSelectedCardAt(move.x(), move.y());
+				break;
+			case DESTROY:
+				session.destroyCardWithSelectedCardAt(move.x(), move.y());
+				break;
+			case BREAK_TOOL:
+				session.breakToolWithSelectedCard(move.target());
+				break;
+			case FIX_TOOL:
+				session.fixBrokenToolCardWithSelectedCard(move.target(), move.brokenTool());
+				break;
+			case LOOK_AT_GOAL:
+				session.lookAtGoalCardWithSelectedCard((GoalCard) session.getGameboard().cardAt(move.x(), move.y()));
+				break;
+			default:
+				session.discardSelectedCard();
+		}
 	}
 	
 }
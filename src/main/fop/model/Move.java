@@ -0,0 +1,168 @@
+package fop.model;
+
+import fop.model.cards.BrokenToolCard;
+import fop.model.cards.Card;
+
+/**
+ *
+ * Stellt einen Zug eines Spielers dar, wie ihn eine {@link Strategy} auswählt.<br>
+ * <br>
+ * Ein Zug besteht aus seinem {@link Type}, der auszuspielenden Karte und abhängig vom Typ
+ * einer Position im Wegelabyrinth, einem Zielspieler oder einer Karte mit zerbrochenem Werkzeug.
+ * Züge werden über die statischen Methoden erstellt und sind unveränderlich.
+ *
+ */
+public final class Move {
+	
+	/** Der Zug, mit dem ein Spieler ohne Handkarten aussetzt. */
+	private static final Move NOTHING = new Move(Type.NOTHING, null, 0, 0, false, null, null);
+	
+	private final Type type;
+	private final Card card;
+	private final int x;
+	private final int y;
+	private final boolean rotated;
+	private final Player target;
+	private final BrokenToolCard brokenTool;
+	
+	private Move(Type type, Card card, int x, int y, boolean rotated, Player target, BrokenToolCard brokenTool) {
+		this.type = type;
+		this.card = card;
+		this.x = x;
+		this.y = y;
+		this.rotated = rotated;
+		this.target = target;
+		this.brokenTool = brokenTool;
+	}
+	
+	/**
+	 * Erstellt einen Zug, der eine Wegekarte in das Wegelabyrinth setzt.
+	 * @param card die Wegekarte
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param rotated gibt an, ob die Karte gedreht gelegt werden soll
+	 * @return der Zug
+	 */
+	public static Move place(Card card, int x, int y, boolean rotated) {
+		return new Move(Type.PLACE, card, x, y, rotated, null, null);
+	}
+	
+	/**
+	 * Erstellt einen Zug, der die Wegekarte an der übergebenen Position mit einem Steinschlag zerstört.
+	 * @param card die Steinschlagkarte
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @return der Zug
+	 */
+	public static Move destroy(Card card, int x, int y) {
+		return new Move(Type.DESTROY, card, x, y, false, null, null);
+	}
+	
+	/**
+	 * Erstellt einen Zug, der das Werkzeug des übergebenen Spielers zerstört.
+	 * @param card die Karte mit dem zerbrochenen Werkzeug
+	 * @param target der Spieler, dessen Werkzeug zerstört wird
+	 * @return der Zug
+	 */
+	public static Move breakTool(Card card, Player target) {
+		return new Move(Type.BREAK_TOOL, card, 0, 0, false, target, null);
+	}
+	
+	/**
+	 * Erstellt einen Zug, der ein zerbrochenes Werkzeug des übergebenen Spielers repariert.
+	 * @param card die Karte mit dem reparierten Werkzeug
+	 * @param target der Spieler, dessen Werkzeug repariert wird
+	 * @param brokenTool die Karte mit dem zerbrochenen Werkzeug, die vor dem Spieler liegt
+	 * @return der Zug
+	 */
+	public static Move fixTool(Card card, Player target, BrokenToolCard brokenTool) {
+		return new Move(Type.FIX_TOOL, card, 0, 0, false, target, brokenTool);
+	}
+	
+	/**
+	 * Erstellt einen Zug, der mit einer Schatzkarte die Zielkarte an der übergebenen Position anschaut.
+	 * @param card die Schatzkarte
+	 * @param x x-Position der Zielkarte
+	 * @param y y-Position der Zielkarte
+	 * @return der Zug
+	 */
+	public static Move lookAtGoal(Card card, int x, int y) {
+		return new Move(Type.LOOK_AT_GOAL, card, x, y, false, null, null);
+	}
+	
+	/**
+	 * Erstellt einen Zug, der die übergebene Karte auf den Ablagestapel legt.
+	 * @param card die abzulegende Karte
+	 * @return der Zug
+	 */
+	public static Move discard(Card card) {
+		return new Move(Type.DISCARD, card, 0, 0, false, null, null);
+	}
+	
+	/**
+	 * Liefert den Zug, mit dem ein Spieler ohne Handkarten aussetzt.
+	 * @return der Zug
+	 */
+	public static Move nothing() {
+		return NOTHING;
+	}
+	
+	
+	// get //
+	
+	public Type type() {
+		return type;
+	}
+	
+	public Card card() {
+		return card;
+	}
+	
+	public int x() {
+		return x;
+	}
+	
+	public int y() {
+		return y;
+	}
+	
+	public boolean rotated() {
+		return rotated;
+	}
+	
+	public Player target() {
+		return target;
+	}
+	
+	public BrokenToolCard brokenTool() {
+		return brokenTool;
+	}
+	
+	@Override
+	public String toString() {
+		switch (type) {
+			case PLACE:
+				return String.format("%s %s at (%d, %d)%s", type, card.getName(), x, y, rotated ? " rotated" : "");
+			case DESTROY:
+			case LOOK_AT_GOAL:
+				return String.format("%s (%d, %d)", type, x, y);
+			case BREAK_TOOL:
+			case FIX_TOOL:
+				return String.format("%s %s of %s", type, card.getName(), target.getName());
+			case DISCARD:
+				return String.format("%s %s", type, card.getName());
+			default:
+				return type.toString();
+		}
+	}
+	
+	/**
+	 *
+	 * Die möglichen Arten eines Zugs.
+	 *
+	 */
+	public enum Type {
+		PLACE, DESTROY, BREAK_TOOL, FIX_TOOL, LOOK_AT_GOAL, DISCARD, NOTHING;
+	}
+	
+}
@@ -0,0 +1,280 @@
+package fop.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import fop.controller.GameSession;
+import fop.model.board.FrontierCell;
+import fop.model.board.Gameboard;
+import fop.model.board.Position;
+import fop.model.cards.BrokenToolCard;
+import fop.model.cards.Card;
+import fop.model.cards.CardShape;
+import fop.model.cards.FixedToolCard;
+import fop.model.cards.GoalCard;
+import fop.model.cards.PathCard;
+import fop.model.cards.ToolType;
+
+/**
+ *
+ * Zählt alle nach den Spielregeln erlaubten Züge eines Spielers auf und speichert sie als {@code long}-Werte
+ * in einem wiederverwendbaren Puffer.<br>
+ * <br>
+ * Jeder Zug enthält seinen {@link Move.Type Typ}, den Index der Handkarte, die Drehung, den Index des Zielspielers
+ * in {@link GameSession#getPlayers()}, das Werkzeug und die Position im Wegelabyrinth. Die Werte können mit den
+ * statischen Methoden ausgelesen und mit {@link #toMove(long, Player, GameSession)} in einen {@link Move}
+ * umgewandelt werden. Solange der Puffer groß genug ist, wird beim Aufzählen kein Zug als Objekt erstellt.<br>
+ * <br>
+ * Gleiche Handkarten werden nur einmal berücksichtigt. Jede Handkarte kann abgelegt werden,
+ * Wegekarten werden in beiden Drehungen auf jedes passende Feld der {@link Gameboard#getFrontier() Grenze} gelegt,
+ * sofern der Spieler kein zerbrochenes Werkzeug hat; punktsymmetrische Wegekarten nur in ihrer aktuellen Drehung.
+ * Ein Generator darf nur von einem Thread verwendet werden.
+ *
+ */
+public final class MoveGenerator {
+	
+	private static final int TYPE_SHIFT = 0;
+	private static final int CARD_SHIFT = 4;
+	private static final int ROTATED_SHIFT = 12;
+	private static final int TOOL_SHIFT = 13;
+	private static final int TARGET_SHIFT = 16;
+	private static final int X_SHIFT = 32;
+	private static final int Y_SHIFT = 48;
+	
+	private static final Move.Type[] TYPES = Move.Type.values();
+	private static final ToolType[] TOOLS = ToolType.values();
+	
+	/** Die Züge der letzten Aufzählung, gefolgt von ungenutztem Platz. */
+	private long[] moves;
+	private int size;
+	
+	/** Die zerbrochenen Werkzeuge je Spieler als Bitmaske der {@link ToolType}-Ordinalzahlen. */
+	private int[] brokenTools = new int[0];
+	
+	/**
+	 * Erstellt einen Generator mit einem Puffer für 256 Züge, der bei Bedarf wächst.
+	 */
+	public MoveGenerator() {
+		this(256);
+	}
+	
+	/**
+	 * Erstellt einen Generator.
+	 * @param capacity die anfängliche Größe des Puffers
+	 */
+	public MoveGenerator(int capacity) {
+		moves = new long[Math.max(capacity, 1)];
+	}
+	
+	/**
+	 * Zählt alle erlaubten Züge des aktiven Spielers auf.
+	 * @param session die Sitzung, in der gespielt wird
+	 * @return die Anzahl der Züge
+	 */
+	public int generate(GameSession session) {
+		return generate(session, session.getActivePlayer());
+	}
+	
+	/**
+	 * Zählt alle erlaubten Züge des übergebenen Spielers auf und ersetzt damit die vorherigen Züge.
+	 * @param session die Sitzung, in der gespielt wird
+	 * @param player der Spieler
+	 * @return die Anzahl der Züge; {@code 0} wenn der Spieler keine Handkarten hat
+	 */
+	public int generate(GameSession session, Player player) {
+		size = 0;
+		List<Card> handCards = player.getAllHandCards();
+		Gameboard gameboard = session.getGameboard();
+		Player[] players = session.getPlayers();
+		
+		// the tools are looked up once instead of once per card
+		if (brokenTools.length < players.length) brokenTools = new int[players.length];
+		for (int p = 0; p < players.length; p++) {
+			brokenTools[p] = 0;
+			for (ToolType type : TOOLS)
+				if (players[p].hasBrokenTool(type)) brokenTools[p] |= 1 << type.ordinal();
+		}
+		boolean blocked = player.hasBrokenTool();
+		
+		for (int i = 0; i < handCards.size(); i++) {
+			Card card = handCards.get(i);
+			if (isDuplicate(handCards, i)) continue;
+			add(encode(Move.Type.DISCARD, i, 0, 0, false, 0, 0));
+			
+			if (card.isPathCard()) {
+				if (blocked) continue;
+				PathCard pathCard = (PathCard) card;
+				// a point-symmetric card describes the same maze when rotated
+				int rotations = pathCard.getShape().rotated() == pathCard.getShape() ? 1 : 2;
+				for (int rotation = 0; rotation < rotations; rotation++) {
+					boolean rotated = pathCard.isRotated() != (rotation == 1);
+					CardShape shape = rotation == 0 ? pathCard.getShape() : pathCard.getShape().rotated();
+					for (FrontierCell cell : gameboard.getFrontier().values())
+						if (cell.accepts(shape))
+							add(encode(Move.Type.PLACE, i, cell.position().x(), cell.position().y(), rotated, 0, 0));
+				}
+			} else if (card.isRockfall()) {
+				for (Map.Entry<Position, PathCard> entry : gameboard.getBoard().entrySet())
+					if (!entry.getValue().isStartCard() && !entry.getValue().isGoalCard())
+						add(encode(Move.Type.DESTROY, i, entry.getKey().x(), entry.getKey().y(), false, 0, 0));
+			} else if (card.isBrokenTool()) {
+				int tool = ((BrokenToolCard) card).getToolType().ordinal();
+				for (int p = 0; p < players.length; p++)
+					if ((brokenTools[p] & 1 << tool) == 0)
+						add(encode(Move.Type.BREAK_TOOL, i, 0, 0, false, p, tool));
+			} else if (card.isFixedTool()) {
+				for (int p = 0; p < players.length; p++)
+					for (ToolType type : TOOLS)
+						if ((brokenTools[p] & 1 << type.ordinal()) != 0 && ((FixedToolCard) card).canFix(type))
+							add(encode(Move.Type.FIX_TOOL, i, 0, 0, false, p, type.ordinal()));
+			} else if (card.isMap()) {
+				for (Position goal : gameboard.getGoalPositions())
+					if (((GoalCard) gameboard.cardAt(goal.x(), goal.y())).isCovered())
+						add(encode(Move.Type.LOOK_AT_GOAL, i, goal.x(), goal.y(), false, 0, 0));
+			}
+		}
+		return size;
+	}
+	
+	/**
+	 * Gibt an, ob eine gleiche Karte bereits weiter vorne auf der Hand liegt.
+	 * @param handCards die Handkarten
+	 * @param index der Index der Karte
+	 * @return {@code true} wenn die Züge der Karte schon aufgezählt wurden
+	 */
+	private static boolean isDuplicate(List<Card> handCards, int index) {
+		Card card = handCards.get(index);
+		for (int i = 0; i < index; i++)
+			if (card.equals(handCards.get(i))) return true;
+		return false;
+	}
+	
+	private void add(long move) {
+		if (size == moves.length) moves = Arrays.copyOf(moves, size * 2);
+		moves[size++] = move;
+	}
+	
+	
+	// get //
+	
+	/**
+	 * Liefert die Anzahl der Züge der letzten Aufzählung.
+	 * @return die Anzahl
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Liefert einen Zug der letzten Aufzählung.
+	 * @param index der Index zwischen {@code 0} und {@link #size()} (exklusive)
+	 * @return der kodierte Zug
+	 * @throws IndexOutOfBoundsException wenn der Index ungültig ist
+	 */
+	public long get(int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+		return moves[index];
+	}
+	
+	/**
+	 * Liefert den Puffer mit den Zügen der letzten Aufzählung in den ersten {@link #size()} Einträgen.<br>
+	 * Der Puffer wird bei der nächsten Aufzählung überschrieben.
+	 * @return der Puffer
+	 */
+	public long[] buffer() {
+		return moves;
+	}
+	
+	
+	// encoding //
+	
+	/**
+	 * Kodiert einen Zug.
+	 * @param type der Typ
+	 * @param card der Index der Handkarte zwischen {@code 0} und {@code 255}
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param rotated gibt an, ob eine Wegekarte gedreht gelegt wird
+	 * @param target der Index des Zielspielers zwischen {@code 0} und {@code 255}
+	 * @param tool die Ordinalzahl des Werkzeugs
+	 * @return der kodierte Zug
+	 */
+	public static long encode(Move.Type type, int card, int x, int y, boolean rotated, int target, int tool) {
+		return (long) type.ordinal() << TYPE_SHIFT
+				| (long) (card & 0xFF) << CARD_SHIFT
+				| (rotated ? 1L : 0L) << ROTATED_SHIFT
+				| (long) (tool & 0x3) << TOOL_SHIFT
+				| (long) (target & 0xFF) << TARGET_SHIFT
+				| (x & 0xFFFFL) << X_SHIFT
+				| (y & 0xFFFFL) << Y_SHIFT;
+	}
+	
+	/**
+	 * Ersetzt den Index der Handkarte eines kodierten Zugs, z.B. um gleiche Züge mit verschiedenen Handkarten zu vergleichen.
+	 * @param move der kodierte Zug
+	 * @param card der neue Index der Handkarte
+	 * @return der kodierte Zug mit dem neuen Index
+	 */
+	public static long withCard(long move, int card) {
+		return move & ~(0xFFL << CARD_SHIFT) | (long) (card & 0xFF) << CARD_SHIFT;
+	}
+	
+	public static Move.Type type(long move) {
+		return TYPES[(int) (move >>> TYPE_SHIFT) & 0xF];
+	}
+	
+	public static int card(long move) {
+		return (int) (move >>> CARD_SHIFT) & 0xFF;
+	}
+	
+	public static boolean rotated(long move) {
+		return (move >>> ROTATED_SHIFT & 1) != 0;
+	}
+	
+	public static ToolType tool(long move) {
+		return TOOLS[(int) (move >>> TOOL_SHIFT) & 0x3];
+	}
+	
+	public static int target(long move) {
+		return (int) (move >>> TARGET_SHIFT) & 0xFF;
+	}
+	
+	public static int x(long move) {
+		return (short) (move >>> X_SHIFT);
+	}
+	
+	public static int y(long move) {
+		return (short) (move >>> Y_SHIFT);
+	}
+	
+	/**
+	 * Wandelt einen kodierten Zug in einen {@link Move} um, den ein {@link ComputerPlayer} ausführen kann.
+	 * @param move der kodierte Zug
+	 * @param player der Spieler, für den der Zug aufgezählt wurde
+	 * @param session die Sitzung, in der gespielt wird
+	 * @return der Zug
+	 */
+	public static Move toMove(long move, Player player, GameSession session) {
+		if (type(move) == Move.Type.NOTHING) return Move.nothing();
+		Card card = player.getAllHandCards().get(card(move));
+		switch (type(move)) {
+			case PLACE:
+				return Move.place(card, x(move), y(move), rotated(move));
+			case DESTROY:
+				return Move.destroy(card, x(move), y(move));
+			case BREAK_TOOL:
+				return Move.breakTool(card, session.getPlayers()[target(move)]);
+			case FIX_TOOL:
+				Player target = session.getPlayers()[target(move)];
+				return Move.fixTool(card, target, target.getBrokenTool(tool(move)));
+			case LOOK_AT_GOAL:
+				return Move.lookAtGoal(card, x(move), y(move));
+			case DISCARD:
+				return Move.discard(card);
+			default:
+				return Move.nothing();
+		}
+	}
+	
+}
@@ -0,0 +1,27 @@
+package fop.model;
+
+import fop.controller.GameSession;
+
+/**
+ *
+ * Wählt die Züge eines {@link ComputerPlayer}s aus.<br>
+ * <br>
+ * Eine Strategie führt selbst keine Aktionen aus, sondern liefert einen {@link Move},
+ * den der Computerspieler anschließend über seine {@link GameSession} ausführt.
+ * Zufallsentscheidungen sollen den Generator {@link GameSession#getRandom()} verwenden,
+ * damit Spiele mit gleichem Startwert reproduzierbar bleiben.
+ *
+ */
+public interface Strategy {
+	
+	/**
+	 * Wählt den nächsten Zug des übergebenen Spielers aus.<br>
+	 * Der Zug muss nach den Spielregeln erlaubt sein und eine Handkarte des Spielers verwenden,
+	 * außer der Spieler hat keine Handkarten mehr.
+	 * @param player der aktive Spieler
+	 * @param session die Sitzung, in der gespielt wird
+	 * @return der auszuführende Zug
+	 */
+	Move chooseMove(ComputerPlayer player, GameSession session);
+	
+}
@@ -0,0 +1,236 @@
+package fop.model.board;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fop.model.cards.CardAnchor;
+import fop.model.cards.PathCard;
+
+/**
+ *
+ * Bestimmt, welche Karten des Wegelabyrinths auf jedem Weg von einer Startkarte zu einem Feld liegen.<br>
+ * <br>
+ * Jeder Knoten steht für eine zusammenhängende Teilform einer Karte (z.B. eine der beiden Kurven einer Doppelkurve),
+ * Kanten verbinden gegenüberliegende Ankerpunkte benachbarter Karten. Ein gemeinsamer künstlicher Wurzelknoten
+ * ist mit allen Startkarten verbunden. Nach jeder Änderung des Wegelabyrinths wird der Index verworfen und bei der
+ * nächsten Abfrage mit einer einzigen Tiefensuche nach Tarjan neu aufgebaut. Danach wird jede Abfrage
+ * beantwortet, indem der Suchbaum vom Ziel zur Wurzel hinaufgelaufen wird: Ein Vorfahre {@code v} trennt das Ziel
+ * genau dann von der Wurzel, wenn für sein Kind {@code c} auf diesem Weg {@code low[c] >= disc[v]} gilt.<br>
+ * Eine Karte mit mehreren erreichten Teilformen (z.B. ein Tunnel, durch den zwei Wege führen) kann das Ziel abtrennen,
+ * ohne dass eine ihrer Teilformen allein ein Artikulationspunkt ist. Für jede solche Karte wird beim Aufbau einmal
+ * bestimmt, welche Knoten ohne sie noch erreichbar sind.
+ *
+ */
+final class ArticulationIndex {
+	
+	/** Das Raster, dessen Karten untersucht werden. */
+	private final CardGrid board;
+	
+	/** Gibt an, ob der Suchbaum zum aktuellen Raster passt. */
+	private boolean valid = false;
+	
+	/** Ordnet jedem Ankerpunkt einer besuchten Karte den Knoten seiner Teilform zu. */
+	private final Map<BoardAnchor, Integer> vertexOf = new HashMap<>();
+	
+	/** Position und Ankerpunkte jedes Knotens. */
+	private int[] xs = new int[0], ys = new int[0], masks = new int[0];
+	
+	/** Entdeckungszeit, kleinste erreichbare Entdeckungszeit und Vorgänger im Suchbaum. */
+	private int[] disc = new int[0], low = new int[0], parent = new int[0];
+	
+	/** Der Index jedes Knotens in {@link #reachableWithout}; oder {@code -1}, wenn seine Karte nur eine erreichte Teilform hat. */
+	private int[] split = new int[0];
+	
+	/** Die ohne eine Karte mit mehreren erreichten Teilformen noch erreichbaren Knoten, je Karte. */
+	private final List<boolean[]> reachableWithout = new ArrayList<>();
+	
+	private int count;
+	private int time;
+	
+	/**
+	 * Erstellt einen Index für das übergebene Raster.
+	 * @param board das Raster
+	 */
+	ArticulationIndex(CardGrid board) {
+		this.board = board;
+	}
+	
+	/**
+	 * Verwirft den Suchbaum, z.B. nachdem eine Karte gelegt oder entfernt wurde.
+	 */
+	void invalidate() {
+		valid = false;
+	}
+	
+	/**
+	 * Liefert die Positionen aller Karten, die auf jedem Weg von einer Startkarte zum übergebenen Feld liegen.
+	 * @param x x-Position des Feldes
+	 * @param y y-Position des Feldes
+	 * @return die Positionen, von der Startkarte zum Feld sortiert; leer, wenn das Feld nicht erreichbar ist
+	 */
+	List<Position> separators(int x, int y) {
+		if (!valid) build();
+		
+		// every reachable anchor facing the position is an alternative entry
+		List<Position> result = null;
+		for (CardAnchor ca : CardAnchor.values()) {
+			Integer entry = vertexOf.get(BoardAnchor.of(x + ca.dx(), y + ca.dy(), ca.getOppositeAnchor()));
+			if (entry == null || disc[entry] == 0) continue;
+			List<Position> separators = separatorsOf(entry);
+			if (result == null) result = separators;
+			else result.retainAll(separators);
+		}
+		return result == null ? new ArrayList<>() : result;
+	}
+	
+	/**
+	 * Liefert die Positionen der Knoten, die den übergebenen Knoten von der Wurzel trennen, einschließlich des Knotens selbst.
+	 * @param target ein besuchter Knoten
+	 * @return die Positionen, von der Wurzel zum Knoten sortiert
+	 */
+	private List<Position> separatorsOf(int target) {
+		List<Position> separators = new ArrayList<>();
+		separators.add(Position.of(xs[target], ys[target]));
+		for (int child = target, v = parent[target]; v > 0; child = v, v = parent[v])
+			if (low[child] >= disc[v] || split[v] >= 0 && !reachableWithout.get(split[v])[target]) separators.add(Position.of(xs[v], ys[v]));
+		// a card with two separate paths may appear twice
+		List<Position> ordered = new ArrayList<>();
+		for (int i = separators.size() - 1; i >= 0; i--)
+			if (!ordered.contains(separators.get(i))) ordered.add(separators.get(i));
+		return ordered;
+	}
+	
+	/**
+	 * Baut den Suchbaum mit einer Tiefensuche von allen Startkarten aus neu auf.
+	 */
+	private void build() {
+		vertexOf.clear();
+		int capacity = board.size() * 4 + 1;
+		if (xs.length < capacity) {
+			xs = new int[capacity];
+			ys = new int[capacity];
+			masks = new int[capacity];
+			disc = new int[capacity];
+			low = new int[capacity];
+			parent = new int[capacity];
+			split = new int[capacity];
+		} else {
+			Arrays.fill(disc, 0);
+		}
+		reachableWithout.clear();
+		count = 0;
+		time = 0;
+		
+		// vertex 0 is the artificial root connected to every start card
+		int root = count++;
+		disc[root] = low[root] = ++time;
+		parent[root] = -1;
+		for (Map.Entry<Position, PathCard> entry : board.entrySet()) {
+			if (!entry.getValue().isStartCard()) continue;
+			Position pos = entry.getKey();
+			for (CardAnchor ca : CardAnchor.values()) {
+				if (!entry.getValue().getShape().hasAnchor(ca)) continue;
+				int v = vertex(pos.x(), pos.y(), entry.getValue(), ca);
+				if (disc[v] != 0) continue;
+				parent[v] = root;
+				visit(v);
+			}
+		}
+		
+		// cards whose removal cuts several reached sub-paths at once
+		Map<Position, List<Integer>> reached = new HashMap<>();
+		for (int v = 1; v < count; v++) {
+			split[v] = -1;
+			if (disc[v] != 0 && !board.cardAt(xs[v], ys[v]).isStartCard())
+				reached.computeIfAbsent(Position.of(xs[v], ys[v]), pos -> new ArrayList<>()).add(v);
+		}
+		for (Map.Entry<Position, List<Integer>> entry : reached.entrySet()) {
+			if (entry.getValue().size() < 2) continue;
+			for (int v : entry.getValue())
+				split[v] = reachableWithout.size();
+			reachableWithout.add(reachableWithout(entry.getKey().x(), entry.getKey().y()));
+		}
+		valid = true;
+	}
+	
+	/**
+	 * Bestimmt, welche besuchten Knoten von der Wurzel aus ohne die Karte an der übergebenen Position erreichbar sind.
+	 * @param x x-Position der Karte
+	 * @param y y-Position der Karte
+	 * @return je Knoten, ob er erreichbar ist
+	 */
+	private boolean[] reachableWithout(int x, int y) {
+		boolean[] seen = new boolean[count];
+		Deque<Integer> stack = new ArrayDeque<>();
+		for (int v = 1; v < count; v++)
+			if (disc[v] != 0 && parent[v] == 0) {
+				seen[v] = true;
+				stack.push(v);
+			}
+		while (!stack.isEmpty()) {
+			int v = stack.pop();
+			for (CardAnchor ca : CardAnchor.values()) {
+				if ((masks[v] & ca.mask()) == 0) continue;
+				int nx = xs[v] + ca.dx();
+				int ny = ys[v] + ca.dy();
+				if (nx == x && ny == y) continue;
+				Integer w = vertexOf.get(BoardAnchor.of(nx, ny, ca.getOppositeAnchor()));
+				if (w == null || seen[w] || disc[w] == 0) continue;
+				seen[w] = true;
+				stack.push(w);
+			}
+		}
+		return seen;
+	}
+	
+	/**
+	 * Besucht den übergebenen Knoten und alle von ihm aus erreichbaren unbesuchten Knoten.
+	 * @param v der Knoten
+	 */
+	private void visit(int v) {
+		disc[v] = low[v] = ++time;
+		for (CardAnchor ca : CardAnchor.values()) {
+			if ((masks[v] & ca.mask()) == 0) continue;
+			int nx = xs[v] + ca.dx();
+			int ny = ys[v] + ca.dy();
+			PathCard next = board.cardAt(nx, ny);
+			if (next == null || !next.getShape().hasAnchor(ca.getOppositeAnchor())) continue;
+			int w = vertex(nx, ny, next, ca.getOppositeAnchor());
+			if (disc[w] == 0) {
+				parent[w] = v;
+				visit(w);
+				low[v] = Math.min(low[v], low[w]);
+			} else if (w != parent[v]) {
+				// two cards share at most one side, so there are no parallel edges
+				low[v] = Math.min(low[v], disc[w]);
+			}
+		}
+	}
+	
+	/**
+	 * Liefert den Knoten der Teilform, zu der der übergebene Ankerpunkt gehört, und legt ihn bei Bedarf an.
+	 * @param x x-Position der Karte
+	 * @param y y-Position der Karte
+	 * @param card die Karte
+	 * @param anchor ein Ankerpunkt der Karte
+	 * @return der Knoten
+	 */
+	private int vertex(int x, int y, PathCard card, CardAnchor anchor) {
+		Integer v = vertexOf.get(BoardAnchor.of(x, y, anchor));
+		if (v != null) return v;
+		int mask = card.getShape().connectedMask(anchor);
+		int w = count++;
+		xs[w] = x;
+		ys[w] = y;
+		masks[w] = mask;
+		for (CardAnchor ca : CardAnchor.values())
+			if ((mask & ca.mask()) != 0) vertexOf.put(BoardAnchor.of(x, y, ca), w);
+		return w;
+	}
+	
+}
@@ -6,25 +6,46 @@ import fop.model.cards.CardAnchor;
  * 
  * Stellt die Knoten des Wegelabyrinth Graphen dar.<br>
  * Sie bestehen aus einer {@link Position} mit {@code x} und {@code y} Koordinaten
- * sowie einem {@link CardAnchor}.
+ * sowie einem {@link CardAnchor}.<br>
+ * <br>
+ * Wie bei {@link Position} werden Knoten im Bereich von {@link Position#MIN} bis {@link Position#MAX}
+ * einmalig erzeugt und wiederverwendet, sodass sie dort auch mit {@code ==} verglichen werden können.
  *
  */
 public final class BoardAnchor {
 	
+	/** Anzahl der Ankerpunkte je Position. */
+	private static final int ANCHORS = CardAnchor.values().length;
+	
+	/** Die wiederverwendeten Knoten, indiziert über Position und Ankerpunkt. */
+	private static final BoardAnchor[] CACHE = new BoardAnchor[Position.RANGE * Position.RANGE * ANCHORS];
+	static {
+		for (int y = Position.MIN; y < Position.MAX; y++)
+			for (int x = Position.MIN; x < Position.MAX; x++)
+				for (CardAnchor anchor : CardAnchor.values())
+					CACHE[Position.index(x, y) * ANCHORS + anchor.ordinal()] = new BoardAnchor(Position.of(x, y), anchor);
+	}
+	
 	private final Position pos;
 	private final CardAnchor anchor;
 	
 	protected BoardAnchor(int x, int y, CardAnchor anchor) {
-		pos = Position.of(x, y);
+		this(Position.of(x, y), anchor);
+	}
+	
+	private BoardAnchor(Position pos, CardAnchor anchor) {
+		this.pos = pos;
 		this.anchor = anchor;
 	}
 	
 	public static BoardAnchor of(int x, int y, CardAnchor anchor) {
+		if (Position.isCached(x, y)) return CACHE[Position.index(x, y) * ANCHORS + anchor.ordinal()];
 		return new BoardAnchor(x, y, anchor);
 	}
 	
 	public static BoardAnchor of(Position pos, CardAnchor anchor) {
-		return new BoardAnchor(pos.x(), pos.y(), anchor);
+		if (Position.isCached(pos.x(), pos.y())) return CACHE[Position.index(pos.x(), pos.y()) * ANCHORS + anchor.ordinal()];
+		return new BoardAnchor(pos, anchor);
 	}
 	
 	public int x() {
@@ -48,7 +69,8 @@ public final class BoardAnchor {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + (anchor == null ? 0 : anchor.hashCode());
+		// the ordinal keeps hash-ordered iteration the same in every run, unlike the identity hash of the enum
+		result = prime * result + (anchor == null ? 0 : anchor.ordinal());
 		result = prime * result + (pos == null ? 0 : pos.hashCode());
 		return result;
 	}
@@ -0,0 +1,232 @@
+package fop.model.board;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import fop.model.cards.PathCard;
+
+/**
+ *
+ * Speichert die Karten des Wegelabyrinths in einem zweidimensionalen Feld,
+ * das bei Bedarf in alle Richtungen wächst.<br>
+ * <br>
+ * Mit {@link #cardAt(int, int)} kann ohne Allokation auf eine Position zugegriffen werden.
+ * Zusätzlich kann das Raster wie eine {@link java.util.Map} von {@link Position}en auf Karten verwendet werden.
+ *
+ */
+final class CardGrid extends AbstractMap<Position, PathCard> {
+	
+	/** Der Abstand, um den das Raster beim Wachsen mindestens vergrößert wird. */
+	private static final int GROWTH = 8;
+	
+	/** Die Karten zeilenweise, beginnend bei {@code (minX, minY)}. */
+	private PathCard[] cells = new PathCard[0];
+	private int minX, minY;
+	private int width, height;
+	private int size;
+	
+	private final Set<Entry<Position, PathCard>> entrySet = new EntrySet();
+	
+	/**
+	 * Liefert die Karte an der übergebenen Position.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @return die Karte; oder {@code null} wenn die Position frei ist
+	 */
+	PathCard cardAt(int x, int y) {
+		int cx = x - minX;
+		int cy = y - minY;
+		if (cx < 0 || cy < 0 || cx >= width || cy >= height) return null;
+		return cells[cy * width + cx];
+	}
+	
+	/**
+	 * Setzt die Karte an der übergebenen Position und vergrößert das Raster falls nötig.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param card die neue Karte; oder {@code null} um die Position zu leeren
+	 * @return die Karte, die zuvor an der Position lag; oder {@code null}
+	 */
+	PathCard setCardAt(int x, int y, PathCard card) {
+		if (card == null) {
+			PathCard old = cardAt(x, y);
+			if (old != null) {
+				cells[(y - minY) * width + x - minX] = null;
+				size--;
+			}
+			return old;
+		}
+		ensureCapacity(x, y);
+		int index = (y - minY) * width + x - minX;
+		PathCard old = cells[index];
+		cells[index] = card;
+		if (old == null) size++;
+		return old;
+	}
+	
+	/**
+	 * Liefert die kleinste x-Position des Rasters. Alle Karten liegen im Bereich, den die Grenzen des Rasters beschreiben.
+	 * @return die kleinste x-Position
+	 */
+	int minX() {
+		return minX;
+	}
+	
+	/**
+	 * Liefert die kleinste y-Position des Rasters.
+	 * @return die kleinste y-Position
+	 */
+	int minY() {
+		return minY;
+	}
+	
+	/**
+	 * Liefert die Breite des Rasters.
+	 * @return die Breite; {@code 0} für ein leeres Raster
+	 */
+	int width() {
+		return width;
+	}
+	
+	/**
+	 * Liefert die Höhe des Rasters.
+	 * @return die Höhe; {@code 0} für ein leeres Raster
+	 */
+	int height() {
+		return height;
+	}
+	
+	/**
+	 * Vergrößert das Raster so, dass es die übergebene Position enthält.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 */
+	private void ensureCapacity(int x, int y) {
+		if (width == 0) {
+			minX = x - GROWTH;
+			minY = y - GROWTH;
+			width = height = 2 * GROWTH + 1;
+			cells = new PathCard[width * height];
+			return;
+		}
+		if (x >= minX && y >= minY && x < minX + width && y < minY + height) return;
+		// grow at least by the current size in the needed direction
+		int newMinX = x < minX ? Math.min(x, minX - Math.max(width, GROWTH)) : minX;
+		int newMinY = y < minY ? Math.min(y, minY - Math.max(height, GROWTH)) : minY;
+		int newMaxX = x >= minX + width ? Math.max(x, minX + 2 * width + GROWTH) : minX + width - 1;
+		int newMaxY = y >= minY + height ? Math.max(y, minY + 2 * height + GROWTH) : minY + height - 1;
+		int newWidth = newMaxX - newMinX + 1;
+		int newHeight = newMaxY - newMinY + 1;
+		PathCard[] newCells = new PathCard[newWidth * newHeight];
+		for (int row = 0; row < height; row++)
+			System.arraycopy(cells, row * width, newCells, (row + minY - newMinY) * newWidth + minX - newMinX, width);
+		cells = newCells;
+		minX = newMinX;
+		minY = newMinY;
+		width = newWidth;
+		height = newHeight;
+	}
+	
+	
+	// Map //
+	
+	@Override
+	public PathCard get(Object key) {
+		if (!(key instanceof Position)) return null;
+		Position pos = (Position) key;
+		return cardAt(pos.x(), pos.y());
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+	
+	@Override
+	public PathCard put(Position key, PathCard value) {
+		if (value == null) throw new NullPointerException("The grid cannot store null cards.");
+		return setCardAt(key.x(), key.y(), value);
+	}
+	
+	@Override
+	public PathCard remove(Object key) {
+		if (!(key instanceof Position)) return null;
+		Position pos = (Position) key;
+		return setCardAt(pos.x(), pos.y(), null);
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public void clear() {
+		cells = new PathCard[0];
+		minX = minY = 0;
+		width = height = 0;
+		size = 0;
+	}
+	
+	@Override
+	public Set<Entry<Position, PathCard>> entrySet() {
+		return entrySet;
+	}
+	
+	/**
+	 *
+	 * Die Menge aller belegten Positionen mit ihren Karten.
+	 *
+	 */
+	private final class EntrySet extends AbstractSet<Entry<Position, PathCard>> {
+		
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		@Override
+		public Iterator<Entry<Position, PathCard>> iterator() {
+			return new Iterator<>() {
+				
+				private final PathCard[] iterCells = cells;
+				private final int iterMinX = minX, iterMinY = minY, iterWidth = width;
+				private int next = advance(0);
+				private int last = -1;
+				
+				private int advance(int index) {
+					while (index < iterCells.length && iterCells[index] == null)
+						index++;
+					return index;
+				}
+				
+				@Override
+				public boolean hasNext() {
+					return next < iterCells.length;
+				}
+				
+				@Override
+				public Entry<Position, PathCard> next() {
+					if (!hasNext()) throw new NoSuchElementException();
+					last = next;
+					next = advance(next + 1);
+					Position pos = Position.of(iterMinX + last % iterWidth, iterMinY + last / iterWidth);
+					return new SimpleImmutableEntry<>(pos, iterCells[last]);
+				}
+				
+				@Override
+				public void remove() {
+					if (last < 0) throw new IllegalStateException();
+					setCardAt(iterMinX + last % iterWidth, iterMinY + last / iterWidth, null);
+					last = -1;
+				}
+			
+			};
+		}
+		
+	}
+	
+}
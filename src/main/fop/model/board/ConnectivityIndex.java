@@ -0,0 +1,159 @@
+package fop.model.board;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import fop.model.graph.Graph;
+
+/**
+ *
+ * Verwaltet die Zusammenhangskomponenten des Wegelabyrinth Graphen inkrementell.<br>
+ * <br>
+ * Beim Hinzufügen von Kanten werden Komponenten vereinigt (Union-Find mit expliziten Mitgliedermengen),
+ * beim Entfernen von Knoten werden nur die betroffenen Komponenten neu berechnet.<br>
+ * Damit kann in konstanter Zeit abgefragt werden, ob ein Knoten von einer Startkarte aus erreichbar ist.<br>
+ * Ändert sich die Erreichbarkeit eines Knotens, wird der übergebene Listener mit diesem Knoten aufgerufen.
+ *
+ */
+final class ConnectivityIndex {
+	
+	/** Ordnet jedem Knoten seine Zusammenhangskomponente zu. */
+	private final Map<BoardAnchor, Component> components = new HashMap<>();
+	
+	/** Alle Knoten, die zu einer Startkarte gehören. */
+	private final Set<BoardAnchor> startAnchors = new HashSet<>();
+	
+	/** Wird für jeden Knoten aufgerufen, dessen Erreichbarkeit sich geändert hat. */
+	private final Consumer<BoardAnchor> reachabilityListener;
+	
+	/**
+	 * Erstellt einen leeren Index.
+	 * @param reachabilityListener wird für jeden Knoten aufgerufen, dessen Erreichbarkeit sich geändert hat
+	 */
+	ConnectivityIndex(Consumer<BoardAnchor> reachabilityListener) {
+		this.reachabilityListener = reachabilityListener;
+	}
+	
+	/**
+	 * Entfernt alle Knoten und Komponenten.
+	 */
+	void clear() {
+		components.clear();
+		startAnchors.clear();
+	}
+	
+	/**
+	 * Fügt den übergebenen Knoten als eigene Komponente hinzu, sofern er noch nicht existiert.
+	 * @param anchor der neue Knoten
+	 * @param start gibt an, ob der Knoten zu einer Startkarte gehört
+	 */
+	void addVertex(BoardAnchor anchor, boolean start) {
+		if (components.containsKey(anchor)) return;
+		Component component = new Component();
+		component.members.add(anchor);
+		if (start) {
+			startAnchors.add(anchor);
+			component.starts++;
+		}
+		components.put(anchor, component);
+		if (start) reachabilityListener.accept(anchor);
+	}
+	
+	/**
+	 * Vereinigt die Komponenten der beiden übergebenen Knoten.<br>
+	 * Dabei wird immer die kleinere in die größere Komponente übernommen.
+	 * @param x der erste Knoten
+	 * @param y der zweite Knoten
+	 */
+	void union(BoardAnchor x, BoardAnchor y) {
+		Component cx = components.get(x);
+		Component cy = components.get(y);
+		if (cx == null || cy == null || cx == cy) return;
+		if (cx.members.size() < cy.members.size()) {
+			Component tmp = cx;
+			cx = cy;
+			cy = tmp;
+		}
+		// remember the members that become reachable by this union
+		List<BoardAnchor> changed = List.of();
+		if ((cx.starts > 0) != (cy.starts > 0))
+			changed = new ArrayList<>(cx.starts == 0 ? cx.members : cy.members);
+		for (BoardAnchor member : cy.members)
+			components.put(member, cx);
+		cx.members.addAll(cy.members);
+		cx.starts += cy.starts;
+		changed.forEach(reachabilityListener);
+	}
+	
+	/**
+	 * Entfernt die übergebenen Knoten und berechnet die Komponenten neu, in denen sie lagen.<br>
+	 * Die Knoten müssen zuvor bereits aus dem Graphen entfernt worden sein.
+	 * @param removed die entfernten Knoten
+	 * @param graph der Graph des Wegelabyrinths ohne die entfernten Knoten
+	 */
+	void removeVertices(Collection<BoardAnchor> removed, Graph<BoardAnchor> graph) {
+		// collect all members of affected components
+		Set<BoardAnchor> affected = new HashSet<>();
+		Set<BoardAnchor> wasReachable = new HashSet<>();
+		for (BoardAnchor anchor : removed) {
+			Component component = components.remove(anchor);
+			if (component != null) {
+				affected.addAll(component.members);
+				if (component.starts > 0) wasReachable.addAll(component.members);
+			}
+			startAnchors.remove(anchor);
+		}
+		affected.removeAll(removed);
+		
+		// rebuild components by traversing the remaining members
+		Deque<BoardAnchor> queue = new ArrayDeque<>();
+		Set<BoardAnchor> visited = new HashSet<>();
+		for (BoardAnchor anchor : affected) {
+			if (!visited.add(anchor)) continue;
+			Component component = new Component();
+			queue.add(anchor);
+			while (!queue.isEmpty()) {
+				BoardAnchor current = queue.poll();
+				component.members.add(current);
+				if (startAnchors.contains(current)) component.starts++;
+				components.put(current, component);
+				for (BoardAnchor next : graph.getAdjacentVertices(current))
+					if (visited.add(next)) queue.add(next);
+			}
+		}
+		
+		// notify anchors that lost their connection to a start card
+		for (BoardAnchor anchor : affected)
+			if (wasReachable.contains(anchor) && !isReachable(anchor))
+				reachabilityListener.accept(anchor);
+	}
+	
+	/**
+	 * Gibt genau dann {@code true} zurück, wenn der übergebene Knoten mit einer Startkarte verbunden ist.
+	 * @param anchor der zu prüfende Knoten
+	 * @return {@code true} wenn der Knoten erreichbar ist; sonst {@code false}
+	 */
+	boolean isReachable(BoardAnchor anchor) {
+		Component component = components.get(anchor);
+		return component != null && component.starts > 0;
+	}
+	
+	/**
+	 *
+	 * Eine Zusammenhangskomponente mit ihren Knoten und der Anzahl enthaltener Startknoten.
+	 *
+	 */
+	private static final class Component {
+		private final Set<BoardAnchor> members = new HashSet<>();
+		private int starts;
+	}
+	
+}
@@ -0,0 +1,289 @@
+package fop.model.board;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *
+ * Speichert für jede Zielkarte, wie viele Karten von einem freien Feld aus mindestens noch gelegt werden müssen,
+ * bis die Zielkarte erreicht ist.<br>
+ * <br>
+ * Für jede Zielkarte gibt es eine Ebene mit den Abständen einer Breitensuche von der Zielkarte aus über freie Felder;
+ * belegte Felder sind nicht passierbar. Die Ebenen umfassen nur das {@link CardGrid Raster} und einen freien Rand
+ * von einem Feld. Jeder kürzeste Weg, der diesen Bereich verlässt, lässt sich auf den Rand verschieben, ohne länger
+ * zu werden; der Abstand eines Feldes außerhalb ist daher der Abstand des nächsten Randfeldes plus der Abstand zu diesem.<br>
+ * Die Ebenen werden bei der ersten Abfrage und nach dem Wachsen des Rasters neu aufgebaut und sonst bei jeder
+ * Änderung eines Feldes inkrementell angepasst: Wird ein Feld frei, breiten sich kürzere Abstände von dort aus.
+ * Wird ein Feld belegt, werden zuerst die Felder bestimmt, deren kürzester Weg nur über dieses Feld führte,
+ * und nur deren Abstände neu berechnet.
+ *
+ */
+final class DistanceField {
+	
+	/** Der Abstand eines belegten oder von der Zielkarte abgeschnittenen Feldes. */
+	static final int UNREACHABLE = Integer.MAX_VALUE;
+	
+	/** Das Raster, dessen belegte Felder nicht passierbar sind. */
+	private final CardGrid board;
+	
+	/** Die Positionen der Zielkarten, ebenfalls vom Wegelabyrinth verwaltet. */
+	private final List<Position> goals;
+	
+	/** Gibt an, ob die Ebenen zum aktuellen Raster passen. */
+	private boolean valid = false;
+	
+	/** Die Zielkarten, für die die Ebenen aufgebaut wurden. */
+	private Position[] sources = new Position[0];
+	
+	/** Die Grenzen des Rasters beim Aufbau der Ebenen. */
+	private int gridX, gridY, gridWidth, gridHeight;
+	
+	/** Die linke obere Ecke und die Größe des Bereichs der Ebenen, also das Raster mit Rand. */
+	private int minX, minY, width, height;
+	
+	/** Die Abstände je Zielkarte, zeilenweise beginnend bei {@code (minX, minY)}. */
+	private int[][] layers = new int[0][];
+	
+	/** Arbeitsspeicher für die Warteschlange, die alten Abstände und die sortierten Kandidaten. */
+	private int[] queue, previous, sorted;
+	
+	/**
+	 * Erstellt die Abstände für das übergebene Raster.
+	 * @param board das Raster
+	 * @param goals die Positionen der Zielkarten
+	 */
+	DistanceField(CardGrid board, List<Position> goals) {
+		this.board = board;
+		this.goals = goals;
+	}
+	
+	/**
+	 * Verwirft alle Ebenen, z.B. nachdem eine Zielkarte hinzugekommen ist.
+	 */
+	void invalidate() {
+		valid = false;
+	}
+	
+	/**
+	 * Liefert die Anzahl der Karten, die vom übergebenen Feld aus mindestens bis zur Zielkarte gelegt werden müssen.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param goal die Position der Zielkarte
+	 * @return der Abstand; {@code 0} für die Zielkarte selbst; {@link #UNREACHABLE} für belegte oder abgeschnittene Felder;
+	 *         oder {@code -1} wenn an der Position keine Zielkarte liegt
+	 */
+	int distance(int x, int y, Position goal) {
+		if (!valid || !fitsGrid()) build();
+		for (int g = 0; g < sources.length; g++) {
+			if (!sources[g].equals(goal)) continue;
+			// cells outside are reached over the closest cell of the free border
+			int cx = Math.max(minX, Math.min(x, minX + width - 1));
+			int cy = Math.max(minY, Math.min(y, minY + height - 1));
+			int distance = layers[g][(cy - minY) * width + cx - minX];
+			if (distance == UNREACHABLE) return UNREACHABLE;
+			return distance + Math.abs(x - cx) + Math.abs(y - cy);
+		}
+		return -1;
+	}
+	
+	/**
+	 * Passt alle Ebenen an, nachdem an der übergebenen Position eine Karte gelegt oder entfernt wurde.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 */
+	void update(int x, int y) {
+		if (!valid) return;
+		// a grown grid needs a larger border, the layers are rebuilt on the next query
+		if (!fitsGrid()) {
+			valid = false;
+			return;
+		}
+		int cell = (y - minY) * width + x - minX;
+		boolean blocked = board.cardAt(x, y) != null;
+		for (int g = 0; g < sources.length; g++) {
+			int[] dist = layers[g];
+			// the goal card itself stays the source of its layer
+			if (dist[cell] == 0) continue;
+			int value = blocked ? UNREACHABLE : nearest(dist, cell);
+			if (value < dist[cell]) {
+				dist[cell] = value;
+				lower(dist, cell);
+			} else if (value > dist[cell]) {
+				raise(dist, cell);
+			}
+		}
+	}
+	
+	/**
+	 * Baut alle Ebenen mit je einer Breitensuche von ihrer Zielkarte aus neu auf.
+	 */
+	private void build() {
+		gridX = board.minX();
+		gridY = board.minY();
+		gridWidth = board.width();
+		gridHeight = board.height();
+		minX = gridX - 1;
+		minY = gridY - 1;
+		width = gridWidth + 2;
+		height = gridHeight + 2;
+		int cells = width * height;
+		if (queue == null || queue.length < cells) {
+			queue = new int[cells];
+			previous = new int[cells];
+			sorted = new int[cells];
+		}
+		sources = goals.toArray(new Position[0]);
+		if (layers.length != sources.length || layers.length > 0 && layers[0].length != cells)
+			layers = new int[sources.length][cells];
+		for (int g = 0; g < sources.length; g++) {
+			int[] dist = layers[g];
+			Arrays.fill(dist, UNREACHABLE);
+			int cell = (sources[g].y() - minY) * width + sources[g].x() - minX;
+			dist[cell] = 0;
+			lower(dist, cell);
+		}
+		valid = true;
+	}
+	
+	/**
+	 * Gibt an, ob das Raster seit dem Aufbau der Ebenen gleich groß geblieben ist.
+	 * @return {@code true} wenn die Ebenen das Raster mit Rand umfassen
+	 */
+	private boolean fitsGrid() {
+		return board.minX() == gridX && board.minY() == gridY && board.width() == gridWidth && board.height() == gridHeight;
+	}
+	
+	/**
+	 * Breitet einen gesunkenen Abstand vom übergebenen Feld aus über alle freien Felder aus.
+	 * @param dist die Ebene
+	 * @param start das Feld, dessen Abstand gesunken ist
+	 */
+	private void lower(int[] dist, int start) {
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = start;
+		while (head < tail) {
+			int cell = queue[head++];
+			int next = dist[cell] + 1;
+			for (int d = 0; d < 4; d++) {
+				int neighbor = neighbor(cell, d);
+				if (neighbor < 0 || next >= dist[neighbor] || isBlocked(neighbor)) continue;
+				dist[neighbor] = next;
+				queue[tail++] = neighbor;
+			}
+		}
+	}
+	
+	/**
+	 * Berechnet die Abstände neu, nachdem das übergebene Feld belegt wurde.<br>
+	 * Ein Feld verliert seinen Abstand nur, wenn kein Nachbar mit einem um eins kleineren Abstand übrig bleibt.
+	 * Da die betroffenen Felder in der Reihenfolge ihrer alten Abstände untersucht werden,
+	 * sind dabei alle Nachbarn mit kleinerem Abstand bereits entschieden.
+	 * @param dist die Ebene
+	 * @param start das belegte Feld
+	 */
+	private void raise(int[] dist, int start) {
+		// collect the cells that lost every shortest route
+		int count = 0;
+		queue[count] = start;
+		previous[count++] = dist[start];
+		dist[start] = UNREACHABLE;
+		for (int i = 0; i < count; i++) {
+			int cell = queue[i];
+			for (int d = 0; d < 4; d++) {
+				int neighbor = neighbor(cell, d);
+				if (neighbor < 0 || dist[neighbor] != previous[i] + 1 || hasSupport(dist, neighbor)) continue;
+				queue[count] = neighbor;
+				previous[count++] = dist[neighbor];
+				dist[neighbor] = UNREACHABLE;
+			}
+		}
+		
+		// seed them from their unaffected neighbors in the order of the new distances
+		int cells = width * height;
+		int candidates = 0;
+		for (int i = 1; i < count; i++) {
+			int cell = queue[i];
+			int value = nearest(dist, cell);
+			if (value == UNREACHABLE) continue;
+			dist[cell] = value;
+			sorted[candidates++] = value * cells + cell;
+		}
+		Arrays.sort(sorted, 0, candidates);
+		
+		// merge the sorted seeds with the cells they lower, like a breadth-first search with several sources
+		int head = 0;
+		int tail = 0;
+		int next = 0;
+		while (next < candidates || head < tail) {
+			int cell;
+			if (head == tail || next < candidates && sorted[next] / cells <= dist[queue[head]]) cell = sorted[next++] % cells;
+			else cell = queue[head++];
+			int value = dist[cell] + 1;
+			for (int d = 0; d < 4; d++) {
+				int neighbor = neighbor(cell, d);
+				if (neighbor < 0 || value >= dist[neighbor] || isBlocked(neighbor)) continue;
+				dist[neighbor] = value;
+				queue[tail++] = neighbor;
+			}
+		}
+	}
+	
+	/**
+	 * Gibt an, ob ein Nachbar des Feldes einen um eins kleineren Abstand hat.
+	 * @param dist die Ebene
+	 * @param cell das Feld
+	 * @return {@code true} wenn der Abstand des Feldes noch über einen Nachbarn erreicht wird
+	 */
+	private boolean hasSupport(int[] dist, int cell) {
+		for (int d = 0; d < 4; d++) {
+			int neighbor = neighbor(cell, d);
+			if (neighbor >= 0 && dist[neighbor] != UNREACHABLE && dist[neighbor] + 1 == dist[cell]) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Berechnet den Abstand eines freien Feldes aus seinen Nachbarn.
+	 * @param dist die Ebene
+	 * @param cell das Feld
+	 * @return der kleinste Abstand eines Nachbarn plus eins; oder {@link #UNREACHABLE}
+	 */
+	private int nearest(int[] dist, int cell) {
+		int value = UNREACHABLE;
+		for (int d = 0; d < 4; d++) {
+			int neighbor = neighbor(cell, d);
+			if (neighbor >= 0 && dist[neighbor] != UNREACHABLE) value = Math.min(value, dist[neighbor] + 1);
+		}
+		return value;
+	}
+	
+	/**
+	 * Gibt an, ob auf dem Feld eine Karte liegt.
+	 * @param cell das Feld
+	 * @return {@code true} wenn das Feld belegt ist
+	 */
+	private boolean isBlocked(int cell) {
+		return board.cardAt(cell % width + minX, cell / width + minY) != null;
+	}
+	
+	/**
+	 * Liefert einen der vier Nachbarn eines Feldes.
+	 * @param cell das Feld
+	 * @param direction die Richtung von {@code 0} bis {@code 3}
+	 * @return der Nachbar; oder {@code -1} wenn er außerhalb des Bereichs liegt
+	 */
+	private int neighbor(int cell, int direction) {
+		switch (direction) {
+			case 0:
+				return cell % width + 1 < width ? cell + 1 : -1;
+			case 1:
+				return cell % width > 0 ? cell - 1 : -1;
+			case 2:
+				return cell + width < width * height ? cell + width : -1;
+			default:
+				return cell >= width ? cell - width : -1;
+		}
+	}
+	
+}
@@ -0,0 +1,89 @@
+package fop.model.board;
+
+import fop.model.cards.CardShape;
+
+/**
+ * 
+ * Stellt ein freies Feld am Rand des erreichbaren Wegelabyrinths dar.<br>
+ * Ein Feld gehört zur Grenze, wenn eine benachbarte Karte einen von einer Startkarte aus
+ * erreichbaren Ankerpunkt besitzt, der auf dieses Feld zeigt.<br>
+ * <br>
+ * Die Bitmasken verwenden für jede Seite das Bit {@link fop.model.cards.CardAnchor#mask()}:
+ * {@link #requiredMask()} enthält alle Seiten, an denen eine neue Karte einen Ankerpunkt besitzen muss,
+ * {@link #forbiddenMask()} alle Seiten, an denen sie keinen Ankerpunkt besitzen darf.
+ * Seiten ohne Nachbarn oder mit einer Zielkarte als Nachbarn sind in keiner der beiden Masken enthalten.
+ * {@link #reachableMask()} enthält alle Seiten, deren Nachbar dort einen erreichbaren Ankerpunkt besitzt.
+ *
+ */
+public final class FrontierCell {
+	
+	private final Position pos;
+	private final int requiredMask;
+	private final int forbiddenMask;
+	private final int reachableMask;
+	
+	FrontierCell(Position pos, int requiredMask, int forbiddenMask, int reachableMask) {
+		this.pos = pos;
+		this.requiredMask = requiredMask;
+		this.forbiddenMask = forbiddenMask;
+		this.reachableMask = reachableMask;
+	}
+	
+	public Position position() {
+		return pos;
+	}
+	
+	public int requiredMask() {
+		return requiredMask;
+	}
+	
+	public int forbiddenMask() {
+		return forbiddenMask;
+	}
+	
+	public int reachableMask() {
+		return reachableMask;
+	}
+	
+	/**
+	 * Gibt genau dann {@code true} zurück, wenn eine Karte mit der übergebenen Form auf dieses Feld passt.
+	 * @param shape die zu testende Form
+	 * @return {@code true} wenn die Form zu allen Nachbarn passt; sonst {@code false}
+	 */
+	public boolean accepts(CardShape shape) {
+		return shape.matches(requiredMask, forbiddenMask);
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("(%d, %d, required=%s, forbidden=%s, reachable=%s)", pos.x(), pos.y(),
+				Integer.toBinaryString(requiredMask), Integer.toBinaryString(forbiddenMask), Integer.toBinaryString(reachableMask));
+	}
+	
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + forbiddenMask;
+		result = prime * result + (pos == null ? 0 : pos.hashCode());
+		result = prime * result + reachableMask;
+		result = prime * result + requiredMask;
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		FrontierCell other = (FrontierCell) obj;
+		if (forbiddenMask != other.forbiddenMask) return false;
+		if (reachableMask != other.reachableMask) return false;
+		if (requiredMask != other.requiredMask) return false;
+		if (pos == null) {
+			if (other.pos != null) return false;
+		} else if (!pos.equals(other.pos)) return false;
+		return true;
+	}
+	
+}
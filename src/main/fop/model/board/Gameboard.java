@@ -1,17 +1,19 @@
 package fop.model.board;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import fop.model.cards.CardAnchor;
+import fop.model.cards.CardShape;
 import fop.model.cards.GoalCard;
 import fop.model.cards.PathCard;
-import fop.model.graph.Edge;
 import fop.model.graph.Graph;
+import fop.model.graph.IndexedGraph;
 
 /**
  * 
@@ -20,8 +22,35 @@ import fop.model.graph.Graph;
  */
 public class Gameboard {
 	
-	protected final Map<Position, PathCard> board = new HashMap<>();
-	protected final Graph<BoardAnchor> graph = new Graph<>();
+	/** Die Karten des Wegelabyrinths in einem wachsenden Raster. */
+	protected final CardGrid board = new CardGrid();
+	protected final Graph<BoardAnchor> graph = new IndexedGraph<>();
+	
+	/** Speichert inkrementell, welche Knoten von einer Startkarte aus erreichbar sind. */
+	protected final ConnectivityIndex connectivity = new ConnectivityIndex(this::onReachabilityChanged);
+	
+	/** Bestimmt die Karten, die auf jedem Weg von einer Startkarte zu einem Feld liegen. */
+	protected final ArticulationIndex articulation = new ArticulationIndex(board);
+	
+	/** Alle freien Felder, die an einen erreichbaren Ankerpunkt grenzen. */
+	protected final Map<Position, FrontierCell> frontier = new HashMap<>();
+	private final Map<Position, FrontierCell> frontierView = Collections.unmodifiableMap(frontier);
+	
+	/** Die Positionen aller Zielkarten. */
+	protected final List<Position> goalPositions = new ArrayList<>();
+	private final List<Position> goalPositionsView = Collections.unmodifiableList(goalPositions);
+	
+	/** Speichert inkrementell die Abstände aller freien Felder zu den Zielkarten. */
+	protected final DistanceField distances = new DistanceField(board, goalPositions);
+	
+	/** Die XOR-Verknüpfung der {@link Zobrist}-Schlüssel aller Karten. */
+	private long hash;
+	
+	/** Alle Änderungen seit dem ältesten offenen Schnappschuss, siehe {@link #snapshot()}. */
+	private final List<Change> undoLog = new ArrayList<>();
+	
+	/** Die offenen Schnappschüsse, vom ältesten zum jüngsten. */
+	private final List<Snapshot> openSnapshots = new ArrayList<>();
 	
 	/**
 	 * Erstellt ein leeres Wegelabyrinth und platziert Start- sowie Zielkarten.
@@ -44,6 +73,14 @@ public class Gameboard {
 	public void clear() {
 		board.clear();
 		graph.clear();
+		connectivity.clear();
+		articulation.invalidate();
+		frontier.clear();
+		goalPositions.clear();
+		distances.invalidate();
+		hash = 0;
+		undoLog.clear();
+		openSnapshots.clear();
 	}
 	
 	// add, remove //
@@ -58,58 +95,85 @@ public class Gameboard {
 	 */
 	public void placeCard(int x, int y, PathCard card) {
 		// TODO Aufgabe 4.1.4
-		Position pos = new Position(x,y);
-		Set<CardAnchor> cardAnchors = card.getGraph().vertices();
+		record(Change.Kind.PLACED, x, y, board.cardAt(x, y), card);
+		connectCard(x, y, card);
+		// check for goal cards
+		checkGoalCards();
+	}
+	
+	/**
+	 * Legt die Karte in das Raster und verbindet ihren Graphen mit den benachbarten Karten,
+	 * ohne die Änderung aufzuzeichnen oder Zielkarten aufzudecken.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param card die zu platzierende Wegekarte
+	 */
+	private void connectCard(int x, int y, PathCard card) {
+		CardShape shape = card.getShape();
+		articulation.invalidate();
+		hash ^= Zobrist.key(x, y, card);
 		// put the new card into the board
-		board.put(pos,card);
-		//put all nodes from the card's graph to the board's graph
-		for(CardAnchor cardAnchor1 : cardAnchors) {
-			Position nextPos = cardAnchor1.getAdjacentPosition(pos);
-			BoardAnchor boardAnchor1 = BoardAnchor.of(pos, cardAnchor1);
+		if (board.setCardAt(x, y, card) == null && card.isGoalCard()) {
+			goalPositions.add(Position.of(x, y));
+			distances.invalidate();
+		} else {
+			distances.update(x, y);
+		}
+		//put all nodes from the card's shape to the board's graph
+		for (CardAnchor cardAnchor1 : CardAnchor.values()) {
+			if (!shape.hasAnchor(cardAnchor1))
+				continue;
+			BoardAnchor boardAnchor1 = BoardAnchor.of(x, y, cardAnchor1);
 			graph.addVertex(boardAnchor1);
-
-			//put all edges from the card's graph to the board's graph
-			for (CardAnchor cardAnchor2 : card.getGraph().getAdjacentVertices(cardAnchor1)) {
-				BoardAnchor boardAnchor2;
-				//check if there is an edge between cardAnchor 1 and 2
-				if (card.getGraph().hasEdge(cardAnchor1,cardAnchor2)) {
-					boardAnchor2 = BoardAnchor.of(pos, cardAnchor2);
+			connectivity.addVertex(boardAnchor1, card.isStartCard());
+		}
+		for (CardAnchor cardAnchor1 : CardAnchor.values()) {
+			if (!shape.hasAnchor(cardAnchor1))
+				continue;
+			BoardAnchor boardAnchor1 = BoardAnchor.of(x, y, cardAnchor1);
+			//put all edges from the card's shape to the board's graph
+			for (CardAnchor cardAnchor2 : CardAnchor.values()) {
+				if (cardAnchor1.ordinal() < cardAnchor2.ordinal() && shape.hasEdge(cardAnchor1, cardAnchor2)) {
+					BoardAnchor boardAnchor2 = BoardAnchor.of(x, y, cardAnchor2);
 					graph.addEdge(boardAnchor1, boardAnchor2);
-				} else {
+					connectivity.union(boardAnchor1, boardAnchor2);
 				}
 			}
-			//check if there is no card next to the processing cardAnchor 1
-			if(isPositionEmpty(nextPos.x(), nextPos.y()))
-				continue;
-			//connect edges from nodes within the card with nodes from board's graph around them
-			for(CardAnchor cardAnchor3 : board.get(nextPos).getGraph().vertices()){
-				if(cardAnchor3.equals(cardAnchor1.getOppositeAnchor())){
-					BoardAnchor boardAnchor3 = BoardAnchor.of(nextPos, cardAnchor3);
-					graph.addEdge(boardAnchor1,boardAnchor3);
-					break;
-				}
+			//connect the anchor with the opposite anchor of the card next to it
+			PathCard nextCard = getNeighbor(x, y, cardAnchor1);
+			if (nextCard != null && nextCard.getShape().hasAnchor(cardAnchor1.getOppositeAnchor())) {
+				BoardAnchor boardAnchor3 = BoardAnchor.of(x + cardAnchor1.dx(), y + cardAnchor1.dy(), cardAnchor1.getOppositeAnchor());
+				graph.addEdge(boardAnchor1, boardAnchor3);
+				connectivity.union(boardAnchor1, boardAnchor3);
 			}
 		}
-		// check for goal cards
-		checkGoalCards();
+		// the position and its neighbors have new constraints
+		updateFrontierAround(x, y);
 	}
 	
 	/**
 	 * Prüft, ob eine Zielkarte erreichbar ist und dreht diese gegebenenfalls um.
 	 */
 	private void checkGoalCards() {
-		for (Entry<Position, PathCard> goal : board.entrySet().stream().filter(e -> e.getValue().isGoalCard()).collect(Collectors.toList())) {
-			int x = goal.getKey().x();
-			int y = goal.getKey().y();
+		for (Position goal : new ArrayList<>(goalPositions)) {
+			int x = goal.x();
+			int y = goal.y();
 			if (existsPathFromStartCard(x, y)) {
-				GoalCard goalCard = (GoalCard) goal.getValue();
+				GoalCard goalCard = (GoalCard) board.cardAt(x, y);
 				if (goalCard.isCovered()) {
+					record(Change.Kind.REVEALED, x, y, goalCard, goalCard);
+					// the covered card is replaced by the revealed one in the hash
+					hash ^= Zobrist.key(x, y, goalCard);
 					// turn card
 					goalCard.showFront();
 					// generate graph to match all neighbor cards
-					goalCard.generateGraph(card -> doesCardMatchItsNeighbors(x, y, card));
+					int constraints = neighborConstraints(x, y);
+					goalCard.generateGraph(constraints >> 4, constraints & 0xF);
 					// connect graph of card
-					placeCard(x, y, goalCard);
+					connectCard(x, y, goalCard);
+					// the revealed card may connect further goal cards
+					checkGoalCards();
+					return;
 				}
 			}
 		}
@@ -124,18 +188,225 @@ public class Gameboard {
 	 */
 	public PathCard removeCard(int x, int y) {
 		// TODO Aufgabe 4.1.5
-		Position pos = new Position(x,y);
-		PathCard toRemoveCard = board.get(pos);
-		board.remove(pos);
-		Arrays.stream(CardAnchor.values()).map(cardAnchor -> BoardAnchor.of(x, y, cardAnchor)).forEach(boardAnchor -> {
-			if (graph.hasVertex(boardAnchor))
-				graph.removeVertex(boardAnchor);
-			else {
-			}
-		});
+		PathCard toRemoveCard = disconnectCard(x, y);
+		if (toRemoveCard != null) record(Change.Kind.REMOVED, x, y, toRemoveCard, null);
 		return toRemoveCard;
 	}
 	
+	/**
+	 * Entfernt die Karte aus dem Raster und ihre Knoten aus dem Graphen, ohne die Änderung aufzuzeichnen.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @return die Karte, die an der Position lag
+	 */
+	private PathCard disconnectCard(int x, int y) {
+		PathCard toRemoveCard = board.setCardAt(x, y, null);
+		articulation.invalidate();
+		if (toRemoveCard != null) hash ^= Zobrist.key(x, y, toRemoveCard);
+		if (toRemoveCard != null && toRemoveCard.isGoalCard()) {
+			goalPositions.remove(Position.of(x, y));
+			distances.invalidate();
+		} else {
+			distances.update(x, y);
+		}
+		List<BoardAnchor> removedAnchors = Arrays.stream(CardAnchor.values()).map(cardAnchor -> BoardAnchor.of(x, y, cardAnchor))
+				.filter(graph::removeVertex).collect(Collectors.toList());
+		// only the components of the removed anchors have to be recomputed
+		connectivity.removeVertices(removedAnchors, graph);
+		updateFrontierAround(x, y);
+		return toRemoveCard;
+	}
+	
+	
+	// snapshot //
+	
+	/**
+	 * Erstellt einen Schnappschuss des aktuellen Zustands.<br>
+	 * Bis der Schnappschuss mit {@link #rollback(Snapshot)} oder {@link #commit(Snapshot)} abgeschlossen wird,
+	 * werden alle Änderungen am Wegelabyrinth einschließlich aufgedeckter Zielkarten aufgezeichnet.
+	 * Schnappschüsse können verschachtelt werden, müssen aber in umgekehrter Reihenfolge abgeschlossen werden.
+	 * @return der Schnappschuss
+	 */
+	public Snapshot snapshot() {
+		Snapshot snapshot = new Snapshot(openSnapshots.size(), undoLog.size());
+		openSnapshots.add(snapshot);
+		return snapshot;
+	}
+	
+	/**
+	 * Erstellt einen Schnappschuss und platziert danach die übergebene Karte.<br>
+	 * Damit kann z.B. ein Zug ausprobiert und anschließend mit {@link #rollback(Snapshot)} zurückgenommen werden.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param card die zu platzierende Wegekarte
+	 * @return der Schnappschuss vor dem Platzieren der Karte
+	 */
+	public Snapshot withCard(int x, int y, PathCard card) {
+		Snapshot snapshot = snapshot();
+		placeCard(x, y, card);
+		return snapshot;
+	}
+	
+	/**
+	 * Stellt den Zustand zum Zeitpunkt des übergebenen Schnappschusses wieder her.<br>
+	 * Dabei werden nur die aufgezeichneten Änderungen in umgekehrter Reihenfolge rückgängig gemacht.
+	 * Der Schnappschuss und alle danach erstellten Schnappschüsse werden geschlossen.
+	 * @param snapshot ein offener Schnappschuss dieses Wegelabyrinths
+	 * @throws IllegalStateException wenn der Schnappschuss nicht mehr offen ist
+	 */
+	public void rollback(Snapshot snapshot) {
+		close(snapshot);
+		while (undoLog.size() > snapshot.logSize) {
+			Change change = undoLog.remove(undoLog.size() - 1);
+			switch (change.kind) {
+				case PLACED:
+					disconnectCard(change.x, change.y);
+					if (change.previous != null) connectCard(change.x, change.y, change.previous);
+					break;
+				case REMOVED:
+					connectCard(change.x, change.y, change.previous);
+					break;
+				case REVEALED:
+					int index = goalPositions.indexOf(Position.of(change.x, change.y));
+					disconnectCard(change.x, change.y);
+					((GoalCard) change.card).cover();
+					connectCard(change.x, change.y, change.card);
+					// reconnecting appends the goal, but its order drives the seeded play
+					goalPositions.add(index, goalPositions.remove(goalPositions.size() - 1));
+					break;
+			}
+		}
+	}
+	
+	/**
+	 * Übernimmt alle Änderungen seit dem übergebenen Schnappschuss und schließt ihn sowie alle danach erstellten.<br>
+	 * Ist noch ein älterer Schnappschuss offen, können die Änderungen mit diesem weiterhin zurückgenommen werden.
+	 * @param snapshot ein offener Schnappschuss dieses Wegelabyrinths
+	 * @throws IllegalStateException wenn der Schnappschuss nicht mehr offen ist
+	 */
+	public void commit(Snapshot snapshot) {
+		close(snapshot);
+		if (openSnapshots.isEmpty()) undoLog.clear();
+	}
+	
+	/**
+	 * Schließt den übergebenen Schnappschuss und alle danach erstellten.
+	 * @param snapshot ein offener Schnappschuss dieses Wegelabyrinths
+	 */
+	private void close(Snapshot snapshot) {
+		if (snapshot.depth >= openSnapshots.size() || openSnapshots.get(snapshot.depth) != snapshot)
+			throw new IllegalStateException("The snapshot is not open on this gameboard.");
+		openSnapshots.subList(snapshot.depth, openSnapshots.size()).clear();
+	}
+	
+	/**
+	 * Zeichnet eine Änderung auf, sofern ein Schnappschuss offen ist.
+	 * @param kind die Art der Änderung
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param previous die Karte, die vor der Änderung an der Position lag
+	 * @param card die Karte, die nach der Änderung an der Position liegt
+	 */
+	private void record(Change.Kind kind, int x, int y, PathCard previous, PathCard card) {
+		if (!openSnapshots.isEmpty()) undoLog.add(new Change(kind, x, y, previous, card));
+	}
+	
+	/**
+	 *
+	 * Ein Schnappschuss eines Wegelabyrinths, siehe {@link Gameboard#snapshot()}.
+	 *
+	 */
+	public static final class Snapshot {
+		
+		/** Die Anzahl der zuvor offenen Schnappschüsse. */
+		private final int depth;
+		
+		/** Die Länge der Änderungsliste beim Erstellen. */
+		private final int logSize;
+		
+		private Snapshot(int depth, int logSize) {
+			this.depth = depth;
+			this.logSize = logSize;
+		}
+		
+	}
+	
+	/**
+	 *
+	 * Eine aufgezeichnete Änderung an einer Position des Wegelabyrinths.
+	 *
+	 */
+	private static final class Change {
+		
+		private enum Kind {
+			PLACED, REMOVED, REVEALED;
+		}
+		
+		private final Kind kind;
+		private final int x, y;
+		private final PathCard previous;
+		private final PathCard card;
+		
+		private Change(Kind kind, int x, int y, PathCard previous, PathCard card) {
+			this.kind = kind;
+			this.x = x;
+			this.y = y;
+			this.previous = previous;
+			this.card = card;
+		}
+		
+	}
+	
+	
+	// frontier //
+	
+	/**
+	 * Wird aufgerufen, wenn ein Knoten mit einer Startkarte verbunden oder von ihr getrennt wurde.<br>
+	 * Aktualisiert das Feld, auf das der Knoten zeigt.
+	 * @param anchor der Knoten, dessen Erreichbarkeit sich geändert hat
+	 */
+	private void onReachabilityChanged(BoardAnchor anchor) {
+		updateFrontier(anchor.x() + anchor.anchor().dx(), anchor.y() + anchor.anchor().dy());
+	}
+	
+	/**
+	 * Aktualisiert die übergebene Position und ihre vier Nachbarn in der Grenze.
+	 * @param x x-Position, an der sich eine Karte geändert hat
+	 * @param y y-Position, an der sich eine Karte geändert hat
+	 */
+	private void updateFrontierAround(int x, int y) {
+		updateFrontier(x, y);
+		for (CardAnchor ca : CardAnchor.values())
+			updateFrontier(x + ca.dx(), y + ca.dy());
+	}
+	
+	/**
+	 * Berechnet, ob die übergebene Position zur Grenze gehört und welche Ankerpunkte dort benötigt werden.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 */
+	private void updateFrontier(int x, int y) {
+		Position pos = Position.of(x, y);
+		if (!isPositionEmpty(x, y)) {
+			frontier.remove(pos);
+			return;
+		}
+		int reachableMask = 0;
+		int requiredMask = 0;
+		int forbiddenMask = 0;
+		for (CardAnchor ca : CardAnchor.values()) {
+			PathCard nextCard = getNeighbor(x, y, ca);
+			if (nextCard == null) continue;
+			if (connectivity.isReachable(BoardAnchor.of(x + ca.dx(), y + ca.dy(), ca.getOppositeAnchor()))) reachableMask |= ca.mask();
+			// goal cards do not constrain their neighbors
+			if (nextCard.isGoalCard()) continue;
+			if (nextCard.getShape().hasAnchor(ca.getOppositeAnchor())) requiredMask |= ca.mask();
+			else forbiddenMask |= ca.mask();
+		}
+		if (reachableMask != 0) frontier.put(pos, new FrontierCell(pos, requiredMask, forbiddenMask, reachableMask));
+		else frontier.remove(pos);
+	}
+	
 	
 	// can //
 	
@@ -147,7 +418,9 @@ public class Gameboard {
 	 * @return {@code true}, wenn die Karte dort platziert werden kann; sonst {@code false}
 	 */
 	public boolean canCardBePlacedAt(int x, int y, PathCard card) {
-		return isPositionEmpty(x, y) && existsPathFromStartCard(x, y) && doesCardMatchItsNeighbors(x, y, card);
+		// the frontier contains exactly the empty positions reachable from a start card
+		FrontierCell cell = frontier.get(Position.of(x, y));
+		return cell != null && cell.accepts(card.getShape());
 	}
 	
 	/**
@@ -158,8 +431,7 @@ public class Gameboard {
 	 */
 	private boolean isPositionEmpty(int x, int y) {
 		// TODO Aufgabe 4.1.6
-		Position pos = new Position(x, y);
-		return !board.containsKey(pos);
+		return board.cardAt(x, y) == null;
 	}
 	
 	/**
@@ -170,30 +442,12 @@ public class Gameboard {
 	 */
 	private boolean existsPathFromStartCard(int x, int y) {
 		// TODO Aufgabe 4.1.7
-		try {
-
-			for (Entry<Position, PathCard> startCard : board.entrySet().stream().filter(e -> e.getValue().isStartCard()).collect(Collectors.toList())) {
-				for (CardAnchor cardAnchorInPos : CardAnchor.values()) {
-					Position pos = cardAnchorInPos.getAdjacentPosition(new Position(x, y));
-					if (isPositionEmpty(pos.x(), pos.y()))
-						continue;
-					CardAnchor oppositeAnchor = cardAnchorInPos.getOppositeAnchor();
-					BoardAnchor boardAnchorInPos = BoardAnchor.of(pos, oppositeAnchor);
-					Set<CardAnchor> startCardAnchors = startCard.getValue().getGraph().vertices();
-					for (CardAnchor cardAnchorFromStartCard : startCardAnchors) {
-						Position startCardPos = startCard.getKey();
-						BoardAnchor boardAnchorFromStartBoard = BoardAnchor.of(startCardPos, cardAnchorFromStartCard);
-						if (graph.hasPath(boardAnchorFromStartBoard, boardAnchorInPos))
-							return true;
-					}
-				}
-			}
-
+		for (CardAnchor cardAnchorInPos : CardAnchor.values()) {
+			// the anchor of the neighbor card pointing to this position must be connected to a start card
+			BoardAnchor facing = BoardAnchor.of(x + cardAnchorInPos.dx(), y + cardAnchorInPos.dy(), cardAnchorInPos.getOppositeAnchor());
+			if (connectivity.isReachable(facing))
+				return true;
 		}
-		catch (IllegalStateException exp){
-			exp.printStackTrace();
-		}
-
 		return false;
 	}
 	
@@ -206,44 +460,163 @@ public class Gameboard {
 	 */
 	private boolean doesCardMatchItsNeighbors(int x, int y, PathCard card) {
 		// TODO Aufgabe 4.1.8
-		Position pos = new Position(x,y);
+		int constraints = neighborConstraints(x, y);
+		return card.getShape().matches(constraints >> 4, constraints & 0xF);
+	}
+	
+	/**
+	 * Bestimmt, an welchen Ankerpunkten eine Karte an der übergebenen Position einen Weg haben muss und an welchen nicht.<br>
+	 * Zielkarten als Nachbarn werden dabei nicht berücksichtigt.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @return die benötigten Ankerpunkte um vier Bit verschoben, verknüpft mit den verbotenen Ankerpunkten
+	 */
+	private int neighborConstraints(int x, int y) {
+		int requiredMask = 0;
+		int forbiddenMask = 0;
 		for (CardAnchor ca : CardAnchor.values()) {
-			Position nextpos = ca.getAdjacentPosition(pos);
+			PathCard nextCard = getNeighbor(x, y, ca);
 			// skip if no card or goal card is in next position
-			if (isPositionEmpty(nextpos.x(), nextpos.y()) || board.get(nextpos).isGoalCard()) {
+			if (nextCard == null || nextCard.isGoalCard())
 				continue;
-			}
-			if ((card.getGraph().hasVertex(ca) || !graph.hasVertex(BoardAnchor.of(nextpos, ca.getOppositeAnchor()))) && (!card.getGraph().hasVertex(ca) || graph.hasVertex(BoardAnchor.of(nextpos, ca.getOppositeAnchor()))))
-				return false;
-
+			// the card needs an anchor exactly where the neighbor has the opposite one
+			if (nextCard.getShape().hasAnchor(ca.getOppositeAnchor()))
+				requiredMask |= ca.mask();
+			else forbiddenMask |= ca.mask();
 		}
-
-		return true;
+		return requiredMask << 4 | forbiddenMask;
 	}
+	
 	/**
 	 * Gibt genau dann {@code true} zurück, wenn eine aufgedeckte Goldkarte im Wegelabyrinth liegt.
 	 * @return {@code true} wenn eine Goldkarte aufgedeckt ist; sonst {@code false}
 	 */
 	public boolean isGoldCardVisible() {
-		return board.values().stream().anyMatch(c -> c.isGoalCard() && ((GoalCard) c).getType() == GoalCard.Type.Gold && !((GoalCard) c).isCovered());
+		return goalPositions.stream().map(board::get).anyMatch(c -> ((GoalCard) c).getType() == GoalCard.Type.Gold && !((GoalCard) c).isCovered());
 	}
 	/**
 	 * Gibt genau dann {@code true} zurück, wenn eine aufgedeckte Steinkarte im Wegelabyrinth liegt.
 	 * @return {@code true} wenn eine Steinkarte aufgedeckt ist; sonst {@code false}
 	 */
 	public boolean isStoneCardVisible(){
-		return board.values().stream().anyMatch(c -> c.isGoalCard() && ((GoalCard) c).getType() == GoalCard.Type.Stone && !((GoalCard) c).isCovered());
+		return goalPositions.stream().map(board::get).anyMatch(c -> ((GoalCard) c).getType() == GoalCard.Type.Stone && !((GoalCard) c).isCovered());
 	}
 	
 	// get //
 	
+	/**
+	 * Liefert das Wegelabyrinth als Abbildung von Positionen auf Karten.<br>
+	 * Die Abbildung ist eine Sicht auf das interne Raster.
+	 * @return alle Karten mit ihren Positionen
+	 */
 	public Map<Position, PathCard> getBoard() {
 		return board;
 	}
 	
+	/**
+	 * Liefert die Karte an der übergebenen Position, ohne dafür ein Objekt zu erstellen.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @return die Karte; oder {@code null} wenn die Position frei ist
+	 */
+	public PathCard cardAt(int x, int y) {
+		return board.cardAt(x, y);
+	}
+	
+	/**
+	 * Liefert die benachbarte Karte in Richtung des übergebenen Ankerpunkts.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param side die Seite, auf der der Nachbar liegt
+	 * @return die benachbarte Karte; oder {@code null} wenn dort keine Karte liegt
+	 */
+	public PathCard getNeighbor(int x, int y, CardAnchor side) {
+		return board.cardAt(x + side.dx(), y + side.dy());
+	}
+	
+	/**
+	 * Liefert alle freien Felder, die an einen von einer Startkarte aus erreichbaren Ankerpunkt grenzen.<br>
+	 * Nur auf diesen Feldern kann eine Wegekarte platziert werden.
+	 * Die Grenze wird beim Platzieren und Entfernen von Karten inkrementell aktualisiert.
+	 * @return eine nicht veränderbare Sicht auf die Grenze
+	 * @see FrontierCell
+	 */
+	public Map<Position, FrontierCell> getFrontier() {
+		return frontierView;
+	}
+	
+	/**
+	 * Liefert die Positionen aller Zielkarten.
+	 * @return eine nicht veränderbare Sicht auf die Positionen der Zielkarten
+	 */
+	public List<Position> getGoalPositions() {
+		return goalPositionsView;
+	}
+	
+	/**
+	 * Liefert die Positionen aller Karten, die auf jedem Weg von einer Startkarte zum übergebenen Feld liegen.<br>
+	 * Wird eine dieser Karten entfernt, z.B. mit einem Steinschlag, ist das Feld nicht mehr erreichbar.
+	 * Start- und Zielkarten sind nicht enthalten, da sie nicht entfernt werden können.<br>
+	 * Die Artikulationspunkte werden nur nach einer Änderung einmalig bestimmt, siehe {@link ArticulationIndex}.
+	 * @param x x-Position des Feldes, z.B. eines Feldes der {@link #getFrontier() Grenze}
+	 * @param y y-Position des Feldes
+	 * @return die Positionen, von der Startkarte zum Feld sortiert; leer, wenn das Feld nicht erreichbar ist
+	 */
+	public List<Position> getCriticalPositions(int x, int y) {
+		List<Position> positions = articulation.separators(x, y);
+		positions.removeIf(pos -> {
+			PathCard card = board.cardAt(pos.x(), pos.y());
+			return card.isStartCard() || card.isGoalCard();
+		});
+		return positions;
+	}
+	
+	/**
+	 * Liefert die Anzahl der Karten, die vom übergebenen freien Feld aus mindestens noch gelegt werden müssen,
+	 * bis die Zielkarte erreicht ist. Gezählt werden nur Wege über freie Felder.<br>
+	 * Die Abstände werden bei jeder Änderung inkrementell angepasst, siehe {@link DistanceField}.
+	 * @param x x-Position des Feldes, z.B. eines Feldes der {@link #getFrontier() Grenze}
+	 * @param y y-Position des Feldes
+	 * @param goal die Position einer Zielkarte
+	 * @return der Abstand; {@code 0} für die Zielkarte selbst;
+	 *         oder {@link Integer#MAX_VALUE} wenn das Feld belegt ist oder kein freier Weg zur Zielkarte führt
+	 * @throws IllegalArgumentException wenn an der Position keine Zielkarte liegt
+	 */
+	public int getGoalDistance(int x, int y, Position goal) {
+		int distance = distances.distance(x, y, goal);
+		if (distance < 0) throw new IllegalArgumentException("There is no goal card at " + goal + ".");
+		return distance;
+	}
+	
+	/**
+	 * Liefert den {@link #getGoalDistance(int, int, Position) Abstand} des übergebenen Feldes zur nächsten verdeckten Zielkarte.
+	 * @param x x-Position des Feldes
+	 * @param y y-Position des Feldes
+	 * @return der Abstand; oder {@link Integer#MAX_VALUE} wenn keine verdeckte Zielkarte über freie Felder erreichbar ist
+	 */
+	public int getGoalDistance(int x, int y) {
+		int distance = Integer.MAX_VALUE;
+		for (Position goal : goalPositions)
+			if (((GoalCard) board.cardAt(goal.x(), goal.y())).isCovered())
+				distance = Math.min(distance, getGoalDistance(x, y, goal));
+		return distance;
+	}
+	
+	/**
+	 * Liefert den Zobrist-Hashwert des Wegelabyrinths.<br>
+	 * Gleiche Wegelabyrinthe haben unabhängig von der Reihenfolge, in der die Karten gelegt wurden, denselben Hashwert.
+	 * Er wird beim Legen, Entfernen und Aufdecken von Karten in konstanter Zeit angepasst, siehe {@link Zobrist}.
+	 * @return der Hashwert
+	 */
+	public long getZobristHash() {
+		return hash;
+	}
+	
 	public int getNumberOfAdjacentCards(int x, int y) {
-		Set<Position> neighborPositions = Set.of(Position.of(x - 1, y), Position.of(x + 1, y), Position.of(x, y - 1), Position.of(x, y + 1));
-		return (int) board.keySet().stream().filter(pos -> neighborPositions.contains(pos)).count();
+		int count = 0;
+		for (CardAnchor ca : CardAnchor.values())
+			if (getNeighbor(x, y, ca) != null) count++;
+		return count;
 	}
 	
 }
@@ -2,11 +2,32 @@ package fop.model.board;
 
 /**
  * 
- * Stellt die Position einer Karte im Wegelabyrinth dar.
+ * Stellt die Position einer Karte im Wegelabyrinth dar.<br>
+ * <br>
+ * Positionen mit Koordinaten zwischen {@link #MIN} (inklusive) und {@link #MAX} (exklusive)
+ * werden beim Laden der Klasse einmalig erzeugt und von {@link #of(int, int)} wiederverwendet.
+ * Innerhalb dieses Bereichs können Positionen daher auch mit {@code ==} verglichen werden.
  *
  */
 public final class Position {
 	
+	/** Kleinste Koordinate, für die Positionen wiederverwendet werden. */
+	public static final int MIN = -24;
+	
+	/** Größte Koordinate (exklusive), für die Positionen wiederverwendet werden. */
+	public static final int MAX = 24;
+	
+	/** Anzahl der Koordinaten je Achse im wiederverwendeten Bereich. */
+	static final int RANGE = MAX - MIN;
+	
+	/** Die wiederverwendeten Positionen, indiziert über {@link #index(int, int)}. */
+	private static final Position[] CACHE = new Position[RANGE * RANGE];
+	static {
+		for (int y = MIN; y < MAX; y++)
+			for (int x = MIN; x < MAX; x++)
+				CACHE[index(x, y)] = new Position(x, y);
+	}
+	
 	private final int x;
 	private final int y;
 	
@@ -15,10 +36,39 @@ public final class Position {
 		this.y = y;
 	}
 	
+	/**
+	 * Liefert die Position mit den übergebenen Koordinaten.<br>
+	 * Im Bereich von {@link #MIN} bis {@link #MAX} wird dabei keine neue Position erzeugt.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @return die Position
+	 */
 	public static Position of(int x, int y) {
+		if (isCached(x, y)) return CACHE[index(x, y)];
 		return new Position(x, y);
 	}
 	
+	/**
+	 * Gibt genau dann {@code true} zurück, wenn die Koordinaten im wiederverwendeten Bereich liegen.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @return {@code true} wenn die Koordinaten im Bereich liegen; sonst {@code false}
+	 */
+	static boolean isCached(int x, int y) {
+		// a single unsigned comparison per axis covers both bounds
+		return Integer.compareUnsigned(x - MIN, RANGE) < 0 && Integer.compareUnsigned(y - MIN, RANGE) < 0;
+	}
+	
+	/**
+	 * Liefert den Index der Koordinaten im wiederverwendeten Bereich.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @return der Index zwischen {@code 0} und {@code RANGE * RANGE}
+	 */
+	static int index(int x, int y) {
+		return (y - MIN) * RANGE + x - MIN;
+	}
+	
 	public int x() {
 		return x;
 	}
@@ -0,0 +1,50 @@
+package fop.model.board;
+
+import fop.model.cards.GoalCard;
+import fop.model.cards.PathCard;
+
+/**
+ *
+ * Berechnet die Zobrist-Schlüssel der Karten im Wegelabyrinth.<br>
+ * <br>
+ * Jede Kombination aus Position, {@link fop.model.cards.CardShape Form} und Art der Karte erhält einen
+ * pseudozufälligen 64-Bit-Schlüssel; der Hashwert eines Wegelabyrinths ist die XOR-Verknüpfung der Schlüssel
+ * aller Karten und kann daher beim Legen und Entfernen einer Karte in konstanter Zeit angepasst werden.
+ * Die Drehung einer Karte steckt in ihrer Form; symmetrische Karten ergeben gedreht denselben Schlüssel,
+ * da sie dasselbe Wegelabyrinth beschreiben. Statt einer Tabelle wird jeder Schlüssel mit dem Mischschritt
+ * von SplitMix64 berechnet, sodass er für jede Position ohne Speicher verfügbar und in jedem Lauf gleich ist.
+ *
+ */
+final class Zobrist {
+	
+	private Zobrist() {}
+	
+	/**
+	 * Liefert den Schlüssel der Karte an der übergebenen Position.<br>
+	 * Aufgedeckte Zielkarten unterscheiden sich zusätzlich nach ihrer Art, verdeckte nicht.
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param card die Karte
+	 * @return der Schlüssel
+	 */
+	static long key(int x, int y, PathCard card) {
+		int variant = 0;
+		if (card.isStartCard()) variant = 1;
+		else if (card.isGoalCard()) variant = ((GoalCard) card).isCovered() ? 2 : 3 + ((GoalCard) card).getType().ordinal();
+		long seed = (long) x << 40 ^ (long) (y & 0xFFFFF) << 20 ^ card.getShape().id() << 4 ^ variant;
+		return mix(seed);
+	}
+	
+	/**
+	 * Der Mischschritt von SplitMix64.
+	 * @param z der Eingabewert
+	 * @return der gemischte Wert
+	 */
+	private static long mix(long z) {
+		z += 0x9E3779B97F4A7C15L;
+		z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+		return z ^ z >>> 31;
+	}
+	
+}
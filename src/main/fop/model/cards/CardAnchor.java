@@ -10,6 +10,8 @@ import fop.model.board.Position;
  * Die Methode {@link #getOppositeAnchor()} liefert den gegenüberliegenden Ankerpunkt zurück.<br>
  * Die Methode {@link #getAdjacentPosition(Position)} liefert für eine übergebene Position die
  * Position der Karte zurück, zu der dieser Ankerpunkt zeigt.<br>
+ * Die Methoden {@link #dx()} und {@link #dy()} liefern diese Verschiebung ohne eine neue Position zu erstellen.<br>
+ * Die Methode {@link #mask()} liefert das Bit dieses Ankerpunkts für Bitmasken über alle vier Seiten.<br>
  * <br>
  * <i>Beispiel:</i>
  * Eine Karte an Position {@code (4, 0)}, die eine Ankerpunkt an der rechten Seite ({@link #right}) besitzt,
@@ -37,6 +39,32 @@ public enum CardAnchor {
 		}
 	}
 	
+	public int dx() {
+		switch (this) {
+			case left:
+				return -1;
+			case right:
+				return 1;
+			default:
+				return 0;
+		}
+	}
+	
+	public int dy() {
+		switch (this) {
+			case bottom:
+				return 1;
+			case top:
+				return -1;
+			default:
+				return 0;
+		}
+	}
+	
+	public int mask() {
+		return 1 << ordinal();
+	}
+	
 	public Position getAdjacentPosition(Position pos) {
 		switch (this) {
 			case left:
@@ -0,0 +1,211 @@
+package fop.model.cards;
+
+import fop.model.graph.Graph;
+
+/**
+ *
+ * Stellt die Wege einer Wegekarte kompakt als Bitmasken dar.<br>
+ * <br>
+ * Die Knotenmaske besitzt für jeden {@link CardAnchor} das Bit {@link CardAnchor#mask()}.<br>
+ * Die Kantenmaske besitzt für jedes der sechs ungeordneten Paare von Ankerpunkten ein Bit,
+ * siehe {@link #edgeBit(CardAnchor, CardAnchor)}.<br>
+ * <br>
+ * Alle möglichen Formen werden beim Laden der Klasse einmalig erzeugt, daher sind Formen
+ * unveränderlich und können mit {@code ==} verglichen werden.
+ * Die um 180° gedrehte Form ist vorberechnet und kann mit {@link #rotated()} ohne Allokation abgerufen werden.
+ *
+ */
+public final class CardShape {
+	
+	/** Anzahl der möglichen Kombinationen aus Knoten- und Kantenmaske. */
+	public static final int COUNT = 1 << 10;
+	
+	/** Alle Formen, indiziert über {@link #id()}. */
+	private static final CardShape[] SHAPES = new CardShape[COUNT];
+	static {
+		for (int id = 0; id < COUNT; id++)
+			SHAPES[id] = new CardShape(id & 0xF, id >>> 4);
+		for (CardShape shape : SHAPES)
+			shape.rotated = SHAPES[rotateId(shape.id())];
+	}
+	
+	/** Die Form ohne Ankerpunkte, z.B. einer verdeckten Zielkarte. */
+	public static final CardShape EMPTY = SHAPES[0];
+	
+	private final int vertexMask;
+	private final int edgeMask;
+	private CardShape rotated;
+	
+	private CardShape(int vertexMask, int edgeMask) {
+		this.vertexMask = vertexMask;
+		this.edgeMask = edgeMask;
+	}
+	
+	/**
+	 * Liefert die Form mit den übergebenen Masken.<br>
+	 * Die Endpunkte aller Kanten werden dabei der Knotenmaske hinzugefügt.
+	 * @param vertexMask die Maske der Ankerpunkte
+	 * @param edgeMask die Maske der Kanten
+	 * @return die Form
+	 */
+	public static CardShape of(int vertexMask, int edgeMask) {
+		edgeMask &= 0x3F;
+		for (CardAnchor x : CardAnchor.values())
+			for (CardAnchor y : CardAnchor.values())
+				if (x.ordinal() < y.ordinal() && (edgeMask & edgeBit(x, y)) != 0)
+					vertexMask |= x.mask() | y.mask();
+		return SHAPES[(vertexMask & 0xF) | edgeMask << 4];
+	}
+	
+	/**
+	 * Liefert die zum übergebenen Graphen passende Form.
+	 * @param graph der Graph einer Wegekarte
+	 * @return die Form
+	 */
+	public static CardShape of(Graph<CardAnchor> graph) {
+		int vertexMask = 0;
+		int edgeMask = 0;
+		for (CardAnchor x : graph.vertices()) {
+			vertexMask |= x.mask();
+			for (CardAnchor y : graph.getAdjacentVertices(x))
+				edgeMask |= edgeBit(x, y);
+		}
+		return of(vertexMask, edgeMask);
+	}
+	
+	/**
+	 * Liefert die Form, in der alle übergebenen Ankerpunkte untereinander verbunden sind.
+	 * @param anchors die Ankerpunkte
+	 * @return die Form
+	 */
+	public static CardShape connected(CardAnchor... anchors) {
+		int vertexMask = 0;
+		int edgeMask = 0;
+		for (CardAnchor x : anchors) {
+			vertexMask |= x.mask();
+			for (CardAnchor y : anchors)
+				if (x != y) edgeMask |= edgeBit(x, y);
+		}
+		return of(vertexMask, edgeMask);
+	}
+	
+	/**
+	 * Liefert die Form mit der übergebenen Nummer.
+	 * @param id die Nummer der Form
+	 * @return die Form
+	 * @see #id()
+	 */
+	public static CardShape byId(int id) {
+		return SHAPES[id];
+	}
+	
+	/**
+	 * Liefert das Bit der Kante zwischen den beiden Ankerpunkten in der Kantenmaske.
+	 * @param x der erste Ankerpunkt
+	 * @param y der zweite Ankerpunkt
+	 * @return das Bit der Kante; oder {@code 0} wenn beide Ankerpunkte gleich sind
+	 */
+	public static int edgeBit(CardAnchor x, CardAnchor y) {
+		int i = Math.min(x.ordinal(), y.ordinal());
+		int j = Math.max(x.ordinal(), y.ordinal());
+		if (i == j) return 0;
+		// pairs (0,1) (0,2) (0,3) (1,2) (1,3) (2,3)
+		return 1 << (i == 0 ? j - 1 : i + j);
+	}
+	
+	private static int rotateId(int id) {
+		int vertexMask = 0;
+		int edgeMask = 0;
+		for (CardAnchor x : CardAnchor.values()) {
+			if ((id & x.mask()) != 0) vertexMask |= x.getOppositeAnchor().mask();
+			for (CardAnchor y : CardAnchor.values())
+				if (x.ordinal() < y.ordinal() && (id >>> 4 & edgeBit(x, y)) != 0)
+					edgeMask |= edgeBit(x.getOppositeAnchor(), y.getOppositeAnchor());
+		}
+		return vertexMask | edgeMask << 4;
+	}
+	
+	
+	// get //
+	
+	/**
+	 * Liefert die eindeutige Nummer der Form zwischen {@code 0} und {@link #COUNT}.
+	 * @return die Nummer der Form
+	 */
+	public int id() {
+		return vertexMask | edgeMask << 4;
+	}
+	
+	public int vertexMask() {
+		return vertexMask;
+	}
+	
+	public int edgeMask() {
+		return edgeMask;
+	}
+	
+	/**
+	 * Liefert die um 180° gedrehte Form.
+	 * @return die gedrehte Form
+	 */
+	public CardShape rotated() {
+		return rotated;
+	}
+	
+	public boolean hasAnchor(CardAnchor anchor) {
+		return (vertexMask & anchor.mask()) != 0;
+	}
+	
+	public boolean hasEdge(CardAnchor x, CardAnchor y) {
+		return (edgeMask & edgeBit(x, y)) != 0;
+	}
+	
+	/**
+	 * Liefert die Maske aller Ankerpunkte, die über Kanten mit dem übergebenen Ankerpunkt verbunden sind,
+	 * einschließlich des Ankerpunkts selbst.
+	 * @param anchor der Ankerpunkt
+	 * @return die Maske der verbundenen Ankerpunkte; oder {@code 0} wenn die Form den Ankerpunkt nicht besitzt
+	 */
+	public int connectedMask(CardAnchor anchor) {
+		if (!hasAnchor(anchor)) return 0;
+		int mask = anchor.mask();
+		// at most three steps are needed to reach every anchor
+		for (int step = 0; step < 3; step++)
+			for (CardAnchor x : CardAnchor.values())
+				if ((mask & x.mask()) != 0)
+					for (CardAnchor y : CardAnchor.values())
+						if (hasEdge(x, y)) mask |= y.mask();
+		return mask;
+	}
+	
+	/**
+	 * Gibt genau dann {@code true} zurück, wenn die Form alle geforderten und keinen der verbotenen Ankerpunkte besitzt.
+	 * @param requiredMask die Maske der Ankerpunkte, die vorhanden sein müssen
+	 * @param forbiddenMask die Maske der Ankerpunkte, die nicht vorhanden sein dürfen
+	 * @return {@code true} wenn die Form passt; sonst {@code false}
+	 */
+	public boolean matches(int requiredMask, int forbiddenMask) {
+		return (vertexMask & (requiredMask | forbiddenMask)) == requiredMask;
+	}
+	
+	/**
+	 * Erstellt einen neuen Graphen, der dieser Form entspricht.
+	 * @return der Graph
+	 */
+	public Graph<CardAnchor> toGraph() {
+		Graph<CardAnchor> graph = new Graph<>();
+		for (CardAnchor x : CardAnchor.values()) {
+			if (!hasAnchor(x)) continue;
+			graph.addVertex(x);
+			for (CardAnchor y : CardAnchor.values())
+				if (hasEdge(x, y)) graph.addEdge(x, y);
+		}
+		return graph;
+	}
+	
+	@Override
+	public String toString() {
+		return toGraph().toString();
+	}
+	
+}
@@ -17,6 +17,48 @@ import java.util.stream.Collectors;
  */
 public final class GoalCard extends PathCard {
 	
+	/** Die möglichen Wege einer Steinkarte in der Reihenfolge, in der sie ausprobiert werden. */
+	private static final CardAnchor[][] STONE_POSSIBILITIES = {
+			{left, top},
+			{left, bottom},
+			{top, bottom},
+			{left, right},
+			{top},
+			{left},
+			{left, top, bottom},
+			{left, right, bottom},
+			{left, top, right, bottom}};
+	
+	/** Die Form und der Name jeder Möglichkeit; die gedrehte Variante {@code 2 * i + 1} folgt auf {@code 2 * i}. */
+	private static final CardShape[] STONE_SHAPES = new CardShape[2 * STONE_POSSIBILITIES.length];
+	private static final String[] STONE_NAMES = new String[STONE_POSSIBILITIES.length];
+	
+	/**
+	 * Die erste passende Variante für jede Kombination aus benötigten und verbotenen Ankerpunkten,
+	 * indiziert mit {@code requiredMask << 4 | forbiddenMask}.
+	 */
+	private static final byte[] STONE_LOOKUP = new byte[1 << 8];
+	
+	static {
+		for (int i = 0; i < STONE_POSSIBILITIES.length; i++) {
+			STONE_SHAPES[2 * i] = CardShape.connected(STONE_POSSIBILITIES[i]);
+			STONE_SHAPES[2 * i + 1] = STONE_SHAPES[2 * i].rotated();
+			STONE_NAMES[i] = String.format("goal_%s_%s", Type.Stone.name().toLowerCase(),
+					Arrays.stream(STONE_POSSIBILITIES[i]).map(CardAnchor::name).map(String::toLowerCase).sorted().collect(Collectors.joining("_")));
+		}
+		for (int constraints = 0; constraints < STONE_LOOKUP.length; constraints++) {
+			// without a match the last variant is kept, like the search in generateGraph
+			int variant = STONE_SHAPES.length - 1;
+			for (int v = 0; v < STONE_SHAPES.length; v++) {
+				if (STONE_SHAPES[v].matches(constraints >> 4, constraints & 0xF)) {
+					variant = v;
+					break;
+				}
+			}
+			STONE_LOOKUP[constraints] = (byte) variant;
+		}
+	}
+	
 	/** Der Typ der Zielkarte. */
 	private final Type type;
 	
@@ -29,6 +71,17 @@ public final class GoalCard extends PathCard {
 		covered = true;
 	}
 	
+	private GoalCard(GoalCard card) {
+		super(card);
+		type = card.type;
+		covered = card.covered;
+	}
+	
+	@Override
+	public GoalCard copy() {
+		return new GoalCard(this);
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 * @see fop.model.cards.Card#isGoalCard()
@@ -57,48 +110,52 @@ public final class GoalCard extends PathCard {
 	}
 	
 	/**
-	 * Generiert einen zur Zielkarte und ihren Nachbarn passenden Graphen.
+	 * Generiert einen zur Zielkarte und ihren Nachbarn passenden Graphen.<br>
+	 * Die Varianten der Steinkarte werden der Reihe nach ausprobiert, ohne dafür Graphen oder Namen neu zu erstellen.
+	 * Sind die Ankerpunkte der Nachbarn bekannt, ist {@link #generateGraph(int, int)} schneller.
 	 * @param doesCardMatchItsNeighbors gibt an, ob die übergebene Karte zu ihren Nachbarn passt
 	 */
 	public void generateGraph(Predicate<GoalCard> doesCardMatchItsNeighbors) {
 		switch (type) {
 			case Stone:
-				List<CardAnchor[]> possibilities = List.of(
-						new CardAnchor[] {left, top},
-						new CardAnchor[] {left, bottom},
-						new CardAnchor[] {top, bottom},
-						new CardAnchor[] {left, right},
-						new CardAnchor[] {top},
-						new CardAnchor[] {left},
-						new CardAnchor[] {left, top, bottom},
-						new CardAnchor[] {left, right, bottom},
-						new CardAnchor[] {left, top, right, bottom});
-				// try all possibilities
-				for (CardAnchor[] possibility : possibilities) {
-					// normal rotation
-					if (isRotated()) rotate();
-					setFullyConnectedGraph(possibility);
-					name = String.format("goal_%s_%s", type.name().toLowerCase(),
-							Arrays.stream(possibility).map(CardAnchor::name).map(String::toLowerCase).sorted().collect(Collectors.joining("_")));
-					if (doesCardMatchItsNeighbors.test(this)) break;
-					// rotated card
-					rotate();
+				for (int variant = 0; variant < STONE_SHAPES.length; variant++) {
+					setStoneVariant(variant);
 					if (doesCardMatchItsNeighbors.test(this)) break;
 				}
 				break;
 			default:
-				setFullyConnectedGraph(CardAnchor.values());
+				setShape(CardShape.connected(CardAnchor.values()));
 				break;
 		}
 	}
 	
-	private void setFullyConnectedGraph(CardAnchor... anchors) {
-		graph.clear();
-		for (CardAnchor anchor : anchors)
-			graph.addVertex(anchor);
-		for (int i = 0; i < anchors.length - 1; i++)
-			for (int j = i + 1; j < anchors.length; j++)
-				graph.addEdge(anchors[i], anchors[j]);
+	/**
+	 * Generiert einen Graphen, der zu den übergebenen Ankerpunkten der Nachbarn passt.<br>
+	 * Die passende Variante der Steinkarte ist für jede Kombination vorberechnet und wird nur nachgeschlagen.
+	 * @param requiredMask die Ankerpunkte, an denen ein Nachbar einen Weg hat
+	 * @param forbiddenMask die Ankerpunkte, an denen ein Nachbar keinen Weg hat
+	 * @see CardShape#matches(int, int)
+	 */
+	public void generateGraph(int requiredMask, int forbiddenMask) {
+		switch (type) {
+			case Stone:
+				setStoneVariant(STONE_LOOKUP[(requiredMask & 0xF) << 4 | forbiddenMask & 0xF]);
+				break;
+			default:
+				setShape(CardShape.connected(CardAnchor.values()));
+				break;
+		}
+	}
+	
+	/**
+	 * Setzt Form, Drehung und Namen einer Variante der Steinkarte.
+	 * @param variant der Index in {@link #STONE_SHAPES}
+	 */
+	private void setStoneVariant(int variant) {
+		if (isRotated()) rotate();
+		setShape(STONE_SHAPES[variant & ~1]);
+		if ((variant & 1) != 0) rotate();
+		name = STONE_NAMES[variant / 2];
 	}
 	
 	
@@ -110,6 +167,17 @@ public final class GoalCard extends PathCard {
 		name = String.format("goal_%s", type.name().toLowerCase());
 	}
 	
+	/**
+	 * Dreht die Karte wieder auf die Rückseite und entfernt ihre Wege.<br>
+	 * Damit kann das Aufdecken beim Zurücksetzen des Wegelabyrinths rückgängig gemacht werden.
+	 */
+	public void cover() {
+		covered = true;
+		name = "goal";
+		if (isRotated()) rotate();
+		setShape(CardShape.EMPTY);
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("GoalCard (%s, covered=%s)", type, covered);
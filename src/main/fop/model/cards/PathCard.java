@@ -2,23 +2,25 @@ package fop.model.cards;
 
 import java.util.List;
 
-import fop.model.graph.Edge;
 import fop.model.graph.Graph;
 
 /**
  * 
  * Stellt eine Wegekarte dar.
- * @see #graph
+ * @see #shape
  *
  */
 public class PathCard extends Card {
 	
 	/**
-	 * Der Graph der Wegekarte.<br>
-	 * Ein Knoten im Graphen zeigt an, dass die Karte an dieser Stelle eine Verbindung nach außen hat.<br>
-	 * Eine Kante im Graphen zeigt an, dass zwischen den beiden Knoten eine Verbindung besteht.
+	 * Die Form der Wegekarte.<br>
+	 * Ein Ankerpunkt der Form zeigt an, dass die Karte an dieser Stelle eine Verbindung nach außen hat.<br>
+	 * Eine Kante der Form zeigt an, dass zwischen den beiden Ankerpunkten eine Verbindung besteht.
 	 */
-	protected Graph<CardAnchor> graph = new Graph<>();
+	protected CardShape shape = CardShape.EMPTY;
+	
+	/** Der Graph der Wegekarte, wird erst bei Bedarf aus {@link #shape} erstellt. */
+	private Graph<CardAnchor> graph;
 	
 	/** Gibt an, ob die Karte gedreht wurde oder nicht. */
 	private boolean rotated = false;
@@ -27,11 +29,11 @@ public class PathCard extends Card {
 	 * Erstellt eine Wegekarte mit dem übergebenen Graphen.
 	 * @param name der Name der Karte
 	 * @param graph der Graph der Karte
-	 * @see #graph
+	 * @see #shape
 	 */
 	public PathCard(String name, Graph<CardAnchor> graph) {
 		super(name);
-		this.graph = graph;
+		shape = CardShape.of(graph);
 	}
 	
 	/**
@@ -43,10 +45,31 @@ public class PathCard extends Card {
 	 */
 	public PathCard(String name, List<List<CardAnchor>> edges) {
 		super(name);
+		int edgeMask = 0;
 		for (List<CardAnchor> edgeList : edges)
 			for (int i = 0; i < edgeList.size() - 1; i++)
 				for (int j = i + 1; j < edgeList.size(); j++)
-					graph.addEdge(edgeList.get(i), edgeList.get(j));
+					edgeMask |= CardShape.edgeBit(edgeList.get(i), edgeList.get(j));
+		shape = CardShape.of(0, edgeMask);
+	}
+	
+	/**
+	 * Erstellt eine Kopie der übergebenen Wegekarte mit gleichem Namen, gleicher Form und Drehung.
+	 * @param card die zu kopierende Karte
+	 */
+	protected PathCard(PathCard card) {
+		super(card.name);
+		shape = card.shape;
+		rotated = card.rotated;
+	}
+	
+	/**
+	 * Erstellt eine unabhängige Kopie dieser Karte, z.B. für eine Kopie einer Spielsitzung.<br>
+	 * Das Drehen der Kopie wirkt sich nicht auf diese Karte aus.
+	 * @return die Kopie
+	 */
+	public PathCard copy() {
+		return new PathCard(this);
 	}
 	
 	/**
@@ -59,31 +82,44 @@ public class PathCard extends Card {
 	}
 	
 	/**
-	 * Dreht den Graphen und ändert den Wert von {@link #rotated}.
-	 * @see #graph
+	 * Dreht die Form und ändert den Wert von {@link #rotated}.<br>
+	 * Die gedrehte Form ist vorberechnet, daher wird dabei nichts neu erstellt.
+	 * @see #shape
 	 */
 	public void rotate() {
 		// switch rotated state
 		rotated = !rotated;
 		
-		// create new rotated graph
-		Graph<CardAnchor> rotatedGraph = new Graph<>();
-		// add vertices
-		for (CardAnchor anchor : graph.vertices())
-			rotatedGraph.addVertex(anchor.getOppositeAnchor());
-		// add edges
-		for (Edge<CardAnchor> edges : graph.edges())
-			rotatedGraph.addEdge(edges.x().getOppositeAnchor(), edges.y().getOppositeAnchor());
-		
-		// update graph
-		graph = rotatedGraph;
+		// update shape
+		setShape(shape.rotated());
+	}
+	
+	/**
+	 * Liefert die Form, die die möglichen Wege der Karte beschreibt.
+	 * @return die Form der Karte
+	 */
+	public CardShape getShape() {
+		return shape;
+	}
+	
+	/**
+	 * Setzt die Form der Karte.
+	 * @param shape die neue Form
+	 */
+	protected void setShape(CardShape shape) {
+		this.shape = shape;
+		graph = null;
 	}
 	
 	/**
-	 * Liefert den Graphen, der die möglichen Wege der Karte beschreibt.
+	 * Liefert den Graphen, der die möglichen Wege der Karte beschreibt.<br>
+	 * Der Graph wird bei Bedarf aus der Form der Karte erstellt.
+	 * Änderungen am Graphen wirken sich nicht auf die Karte aus.
 	 * @return den Graphen der Karte
+	 * @see #getShape()
 	 */
 	public Graph<CardAnchor> getGraph() {
+		if (graph == null) graph = shape.toGraph();
 		return graph;
 	}
 	
@@ -97,14 +133,14 @@ public class PathCard extends Card {
 	
 	@Override
 	public String toString() {
-		return String.format("PathCard (%s, %s)", name, graph.toString());
+		return String.format("PathCard (%s, %s)", name, shape.toString());
 	}
 	
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
-		result = prime * result + (graph == null ? 0 : graph.hashCode());
+		result = prime * result + (shape == null ? 0 : shape.id());
 		result = prime * result + (rotated ? 1231 : 1237);
 		return result;
 	}
@@ -115,9 +151,7 @@ public class PathCard extends Card {
 		if (!super.equals(obj)) return false;
 		if (getClass() != obj.getClass()) return false;
 		PathCard other = (PathCard) obj;
-		if (graph == null) {
-			if (other.graph != null) return false;
-		} else if (!graph.equals(other.graph)) return false;
+		if (shape != other.shape) return false;
 		if (rotated != other.rotated) return false;
 		return true;
 	}
@@ -28,6 +28,15 @@ public final class StartCard extends PathCard {
 	 * {@inheritDoc}
 	 * @see fop.model.cards.Card#isStartCard()
 	 */
+	private StartCard(StartCard card) {
+		super(card);
+	}
+	
+	@Override
+	public StartCard copy() {
+		return new StartCard(this);
+	}
+	
 	@Override
 	public boolean isStartCard() {
 		return true;
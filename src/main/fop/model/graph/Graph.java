@@ -14,6 +14,16 @@ public class Graph<V> {
 	/** Die Adjazenzliste des Graphen. */
 	protected Map<V, Set<V>> G = new HashMap<>();
 	
+	/**
+	 * Die Markierungen der Knoten für die Pfadsuche.<br>
+	 * Sie werden zwischen Suchen wiederverwendet und über {@link #epoch} zurückgesetzt,
+	 * daher darf ein Graph nicht von mehreren Threads gleichzeitig durchsucht werden.
+	 */
+	private final Map<V, Mark> marks = new HashMap<>();
+	private final Deque<V> forwardQueue = new ArrayDeque<>();
+	private final Deque<V> backwardQueue = new ArrayDeque<>();
+	private int epoch;
+	
 	/**
 	 * Erstellt einen leeren ungerichteten Graphen.
 	 */
@@ -24,6 +34,7 @@ public class Graph<V> {
 	 */
 	public void clear() {
 		G.clear();
+		marks.clear();
 	}
 	
 	
@@ -69,9 +80,10 @@ public class Graph<V> {
 	public boolean removeVertex(V v) {
 		// TODO Aufgabe 4.1.1
 		if (hasVertex(v)) {
-			for (V e : G.get(v))
+			for (V e : new ArrayList<>(G.get(v)))
 				removeEdge(v, e);
 			G.remove(v);
+			marks.remove(v);
 			return true;
 		}
 		return false;
@@ -123,24 +135,177 @@ public class Graph<V> {
 	 * @return {@code true} wenn ein Pfad existiert; sonst {@code false}
 	 */
 	public boolean hasPath(V x, V y) {
-		return hasPath(x, y, new HashSet<>());
+		if (!hasVertex(x) || !hasVertex(y)) return false;
+		if (x.equals(y)) return true;
+		int epoch = nextEpoch();
+		mark(y).target = epoch;
+		return search(epoch, x);
 	}
-
+	
+	/**
+	 * Prüft, ob ein Pfad vom Knoten {@code x} zum Knoten {@code y} existiert,
+	 * der keinen der bereits besuchten Knoten verwendet.<br>
+	 * Alle während der Suche besuchten Knoten werden der übergebenen Menge hinzugefügt.
+	 * @param x der Startknoten des Pfads
+	 * @param y der Endknoten des Pfads
+	 * @param alreadyVisited die Knoten, die nicht verwendet werden dürfen
+	 * @return {@code true} wenn ein Pfad existiert; sonst {@code false}
+	 */
 	public boolean hasPath(V x, V y, HashSet<V> alreadyVisited) {
-		if (alreadyVisited.contains(x))
-			return false;
-		alreadyVisited.add(x);
-		if (hasVertex(x) && hasVertex(y)) {
-			if (x == y)
-				return true;
-			if (getAdjacentVertices(x).contains(y))
-				return true;
-			for (V v : getAdjacentVertices(x))
-				return hasPath(v, y, alreadyVisited);
+		if (!hasVertex(x) || !hasVertex(y) || !alreadyVisited.add(x)) return false;
+		Deque<V> queue = new ArrayDeque<>();
+		queue.add(x);
+		while (!queue.isEmpty()) {
+			V v = queue.poll();
+			if (v.equals(y)) return true;
+			for (V next : getAdjacentVertices(v))
+				if (alreadyVisited.add(next)) queue.add(next);
+		}
+		return false;
+	}
+	
+	/**
+	 * Prüft wie {@link #hasPath(Object, Object)}, ob ein Pfad vom Knoten {@code x} zum Knoten {@code y} existiert.<br>
+	 * Dabei wird gleichzeitig von beiden Knoten aus gesucht und immer die kleinere Seite erweitert,
+	 * sodass in großen Graphen meist deutlich weniger Knoten besucht werden.
+	 * @param x der Startknoten des Pfads
+	 * @param y der Endknoten des Pfads
+	 * @return {@code true} wenn ein Pfad existiert; sonst {@code false}
+	 */
+	public boolean hasPathBidirectional(V x, V y) {
+		if (!hasVertex(x) || !hasVertex(y)) return false;
+		if (x.equals(y)) return true;
+		int epoch = nextEpoch();
+		// the forward side uses the visited stamp, the backward side the target stamp
+		mark(x).visited = epoch;
+		mark(y).target = epoch;
+		forwardQueue.clear();
+		backwardQueue.clear();
+		forwardQueue.add(x);
+		backwardQueue.add(y);
+		while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+			boolean forward = forwardQueue.size() <= backwardQueue.size();
+			Deque<V> queue = forward ? forwardQueue : backwardQueue;
+			// expand one complete level of the smaller side
+			for (int level = queue.size(); level > 0; level--) {
+				for (V next : G.get(queue.poll())) {
+					Mark mark = mark(next);
+					if ((forward ? mark.target : mark.visited) == epoch) return true;
+					if (forward && mark.visited != epoch) {
+						mark.visited = epoch;
+						queue.add(next);
+					} else if (!forward && mark.target != epoch) {
+						mark.target = epoch;
+						queue.add(next);
+					}
+				}
+			}
 		}
 		return false;
 	}
 	
+	/**
+	 * Prüft mit einer einzigen Suche, ob von einem der Startknoten aus einer der Zielknoten erreichbar ist.<br>
+	 * Knoten, die nicht im Graphen liegen, werden ignoriert.
+	 * @param sources die Startknoten
+	 * @param targets die Zielknoten
+	 * @return {@code true} wenn ein Pfad von einem Start- zu einem Zielknoten existiert; sonst {@code false}
+	 */
+	public boolean hasPathToAny(Collection<? extends V> sources, Collection<? extends V> targets) {
+		int epoch = nextEpoch();
+		boolean anyTarget = false;
+		for (V target : targets) {
+			if (!hasVertex(target)) continue;
+			mark(target).target = epoch;
+			anyTarget = true;
+		}
+		if (!anyTarget) return false;
+		forwardQueue.clear();
+		for (V source : sources) {
+			if (!hasVertex(source)) continue;
+			Mark mark = mark(source);
+			if (mark.target == epoch) return true;
+			if (mark.visited != epoch) {
+				mark.visited = epoch;
+				forwardQueue.add(source);
+			}
+		}
+		return search(epoch);
+	}
+	
+	/**
+	 * Durchsucht den Graphen in der Breite ausgehend vom übergebenen Knoten,
+	 * bis ein Knoten mit der Zielmarkierung der aktuellen Epoche gefunden wird.
+	 * @param epoch die aktuelle Epoche
+	 * @param source der Startknoten
+	 * @return {@code true} wenn ein Zielknoten erreicht wurde; sonst {@code false}
+	 */
+	private boolean search(int epoch, V source) {
+		forwardQueue.clear();
+		mark(source).visited = epoch;
+		forwardQueue.add(source);
+		return search(epoch);
+	}
+	
+	/**
+	 * Durchsucht den Graphen in der Breite ausgehend von allen Knoten in {@link #forwardQueue},
+	 * bis ein Knoten mit der Zielmarkierung der aktuellen Epoche gefunden wird.
+	 * @param epoch die aktuelle Epoche
+	 * @return {@code true} wenn ein Zielknoten erreicht wurde; sonst {@code false}
+	 */
+	private boolean search(int epoch) {
+		while (!forwardQueue.isEmpty()) {
+			for (V next : G.get(forwardQueue.poll())) {
+				Mark mark = mark(next);
+				if (mark.target == epoch) return true;
+				if (mark.visited != epoch) {
+					mark.visited = epoch;
+					forwardQueue.add(next);
+				}
+			}
+		}
+		return false;
+	}
+	
+	
+	// search marks //
+	
+	/**
+	 * Liefert die Markierung des übergebenen Knotens und legt sie bei Bedarf an.
+	 * @param v ein Knoten des Graphen
+	 * @return die Markierung des Knotens
+	 */
+	private Mark mark(V v) {
+		Mark mark = marks.get(v);
+		if (mark == null) marks.put(v, mark = new Mark());
+		return mark;
+	}
+	
+	/**
+	 * Beginnt eine neue Suche, wodurch alle bisherigen Markierungen ungültig werden.
+	 * @return die neue Epoche
+	 */
+	private int nextEpoch() {
+		if (epoch == Integer.MAX_VALUE) {
+			// stamps of old searches could collide after the overflow
+			for (Mark mark : marks.values())
+				mark.visited = mark.target = 0;
+			epoch = 0;
+		}
+		return ++epoch;
+	}
+	
+	/**
+	 *
+	 * Die Markierung eines Knotens während einer Suche.<br>
+	 * Ein Knoten gilt nur als besucht bzw. als Ziel, wenn der Stempel der aktuellen Epoche entspricht.
+	 *
+	 */
+	private static final class Mark {
+		private int visited;
+		private int target;
+	}
+	
 	
 	// Collections //
 	
@@ -167,7 +332,7 @@ public class Graph<V> {
 	 */
 	public Set<Edge<V>> edges() {
 		Set<Edge<V>> edges = new HashSet<>();
-		G.forEach((x, m) -> m.forEach(y -> {
+		vertices().forEach(x -> getAdjacentVertices(x).forEach(y -> {
 			edges.add(Edge.of(x, y));
 		}));
 		return edges;
@@ -181,7 +346,7 @@ public class Graph<V> {
 	 */
 	private Set<Edge<V>> singleEdges() {
 		Set<Edge<V>> edges = new HashSet<>();
-		G.forEach((x, m) -> m.forEach(y -> {
+		vertices().forEach(x -> getAdjacentVertices(x).forEach(y -> {
 			if (!edges.contains(Edge.of(x, y)) && !edges.contains(Edge.of(y, x))) edges.add(Edge.of(x, y));
 		}));
 		return edges;
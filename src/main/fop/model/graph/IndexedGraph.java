@@ -0,0 +1,254 @@
+package fop.model.graph;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *
+ * Ein {@link Graph}, der seine Kanten in einem {@link IntGraph} speichert.<br>
+ * <br>
+ * Jeder Knoten erhält beim Hinzufügen eine dichte Nummer, die nach dem Entfernen wiederverwendet wird.
+ * Nur die Zuordnung von Knoten zu Nummern verwendet noch eine {@link HashMap},
+ * Kanten und Pfadsuche arbeiten dagegen ausschließlich auf {@code int} Feldern.
+ *
+ * @param <V> Typ der Knoten des Graphen
+ */
+public class IndexedGraph<V> extends Graph<V> {
+	
+	/** Der Graph über den Nummern der Knoten. */
+	private final IntGraph graph = new IntGraph();
+	
+	/** Ordnet jedem Knoten seine Nummer zu. */
+	private final Map<V, Integer> ids = new HashMap<>();
+	private final Set<V> vertexView = Collections.unmodifiableSet(ids.keySet());
+	
+	/** Die Knoten, indiziert über ihre Nummer; freie Nummern enthalten {@code null}. */
+	private final List<V> vertexById = new ArrayList<>();
+	
+	/** Die Nummern entfernter Knoten, die wiederverwendet werden können. */
+	private int[] freeIds = new int[16];
+	private int freeCount;
+	
+	/**
+	 * Erstellt einen leeren ungerichteten Graphen.
+	 */
+	public IndexedGraph() {}
+	
+	@Override
+	public void clear() {
+		graph.clear();
+		ids.clear();
+		vertexById.clear();
+		freeCount = 0;
+	}
+	
+	/**
+	 * Liefert die Nummer des übergebenen Knotens.
+	 * @param v der Knoten
+	 * @return die Nummer; oder {@code -1} wenn der Knoten nicht existiert
+	 */
+	public int idOf(V v) {
+		Integer id = ids.get(v);
+		return id == null ? -1 : id;
+	}
+	
+	/**
+	 * Liefert den Knoten mit der übergebenen Nummer.
+	 * @param id die Nummer des Knotens
+	 * @return der Knoten; oder {@code null} wenn die Nummer nicht vergeben ist
+	 */
+	public V vertexOf(int id) {
+		return id >= 0 && id < vertexById.size() ? vertexById.get(id) : null;
+	}
+	
+	/**
+	 * Liefert den Graphen über den Nummern der Knoten, z.B. für Suchen ohne Boxing.
+	 * @return der zugrunde liegende Graph
+	 */
+	public IntGraph intGraph() {
+		return graph;
+	}
+	
+	
+	// add //
+	
+	@Override
+	public void addVertex(V v) {
+		idOrAdd(v);
+	}
+	
+	@Override
+	public boolean addEdge(V x, V y) {
+		return graph.addEdge(idOrAdd(x), idOrAdd(y));
+	}
+	
+	/**
+	 * Liefert die Nummer des übergebenen Knotens und fügt ihn bei Bedarf hinzu.
+	 * @param v der Knoten
+	 * @return die Nummer des Knotens
+	 */
+	private int idOrAdd(V v) {
+		Integer id = ids.get(v);
+		if (id != null) return id;
+		int newId;
+		if (freeCount > 0) {
+			newId = freeIds[--freeCount];
+			vertexById.set(newId, v);
+		} else {
+			newId = vertexById.size();
+			vertexById.add(v);
+		}
+		ids.put(v, newId);
+		graph.addVertex(newId);
+		return newId;
+	}
+	
+	
+	// remove //
+	
+	@Override
+	public boolean removeVertex(V v) {
+		Integer id = ids.remove(v);
+		if (id == null) return false;
+		graph.removeVertex(id);
+		vertexById.set(id, null);
+		if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, 2 * freeCount);
+		freeIds[freeCount++] = id;
+		return true;
+	}
+	
+	@Override
+	public boolean removeEdge(V x, V y) {
+		return graph.removeEdge(idOf(x), idOf(y));
+	}
+	
+	
+	// has //
+	
+	@Override
+	public boolean hasVertex(V v) {
+		return ids.containsKey(v);
+	}
+	
+	@Override
+	public boolean hasEdge(V x, V y) {
+		return graph.hasEdge(idOf(x), idOf(y));
+	}
+	
+	@Override
+	public boolean hasPath(V x, V y) {
+		return graph.hasPath(idOf(x), idOf(y));
+	}
+	
+	@Override
+	public boolean hasPathBidirectional(V x, V y) {
+		// a search over int arrays is cheap enough in both directions
+		return graph.hasPath(idOf(x), idOf(y));
+	}
+	
+	@Override
+	public boolean hasPathToAny(Collection<? extends V> sources, Collection<? extends V> targets) {
+		return graph.hasPathToAny(idsOf(sources), idsOf(targets));
+	}
+	
+	private int[] idsOf(Collection<? extends V> vertices) {
+		int[] result = new int[vertices.size()];
+		int i = 0;
+		for (V v : vertices)
+			result[i++] = idOf(v);
+		return result;
+	}
+	
+	
+	// Collections //
+	
+	@Override
+	public Set<V> vertices() {
+		return vertexView;
+	}
+	
+	@Override
+	public Set<V> getAdjacentVertices(V v) {
+		int id = idOf(v);
+		return id < 0 ? null : new Neighbors(id);
+	}
+	
+	/**
+	 *
+	 * Eine Sicht auf die aktuellen Nachbarn eines Knotens.
+	 *
+	 */
+	private final class Neighbors extends AbstractSet<V> {
+		
+		private final int id;
+		
+		private Neighbors(int id) {
+			this.id = id;
+		}
+		
+		@Override
+		public int size() {
+			return graph.degree(id);
+		}
+		
+		@Override
+		public boolean contains(Object o) {
+			Integer other = ids.get(o);
+			return other != null && graph.hasEdge(id, other);
+		}
+		
+		@Override
+		public Iterator<V> iterator() {
+			return new Iterator<>() {
+				
+				private int next;
+				
+				@Override
+				public boolean hasNext() {
+					return next < graph.degree(id);
+				}
+				
+				@Override
+				public V next() {
+					if (!hasNext()) throw new NoSuchElementException();
+					return vertexById.get(graph.neighbor(id, next++));
+				}
+			
+			};
+		}
+		
+	}
+	
+	
+	// Object //
+	
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + vertices().hashCode();
+		result = prime * result + edges().hashCode();
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		IndexedGraph<?> other = (IndexedGraph<?>) obj;
+		if (!vertices().equals(other.vertices())) return false;
+		if (!edges().equals(other.edges())) return false;
+		return true;
+	}
+	
+}
@@ -0,0 +1,338 @@
+package fop.model.graph;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ *
+ * Modelliert einen ungerichteten Graph, dessen Knoten nicht-negative {@code int} Nummern sind.<br>
+ * <br>
+ * Im Gegensatz zu {@link Graph} werden die Nachbarn jedes Knotens in einem {@code int[]} gespeichert,
+ * das über die Nummer des Knotens adressiert wird. Dadurch kommen Hinzufügen, Entfernen und
+ * die Pfadsuche ohne Boxing und ohne Hashing aus. Die Nummern sollten daher möglichst dicht vergeben werden.<br>
+ * Die Pfadsuche verwendet interne Puffer und darf nicht von mehreren Threads gleichzeitig aufgerufen werden.
+ *
+ */
+public class IntGraph {
+	
+	/** Anfangsgröße der Felder für Knoten und Nachbarn. */
+	private static final int INITIAL_CAPACITY = 16;
+	
+	/** Gibt für jede Nummer an, ob der Knoten existiert. */
+	private boolean[] present = new boolean[INITIAL_CAPACITY];
+	
+	/** Die Nachbarn jedes Knotens; die Felder bleiben nach dem Entfernen zur Wiederverwendung erhalten. */
+	private int[][] adjacency = new int[INITIAL_CAPACITY][];
+	
+	/** Die Anzahl der Nachbarn jedes Knotens. */
+	private int[] degree = new int[INITIAL_CAPACITY];
+	
+	private int vertexCount;
+	
+	/** Die Stempel der Pfadsuche, siehe {@link #nextEpoch()}. */
+	private int[] visited = new int[INITIAL_CAPACITY];
+	private int[] target = new int[INITIAL_CAPACITY];
+	private int[] queue = new int[INITIAL_CAPACITY];
+	private int epoch;
+	
+	/**
+	 * Erstellt einen leeren ungerichteten Graphen.
+	 */
+	public IntGraph() {}
+	
+	/**
+	 * Entfernt alle Knoten und Kanten des Graphen.
+	 */
+	public void clear() {
+		Arrays.fill(present, false);
+		Arrays.fill(degree, 0);
+		vertexCount = 0;
+	}
+	
+	
+	// add //
+	
+	/**
+	 * Fügt den übergebenen Knoten hinzu.
+	 * @param v der Knoten, der hinzugefügt werden soll
+	 * @return {@code true} wenn der Knoten hinzugefügt wurde;
+	 *         {@code false} wenn er bereits existiert hat
+	 */
+	public boolean addVertex(int v) {
+		if (v < 0) throw new IllegalArgumentException("Vertex ids must not be negative: " + v);
+		ensureCapacity(v + 1);
+		if (present[v]) return false;
+		present[v] = true;
+		degree[v] = 0;
+		vertexCount++;
+		return true;
+	}
+	
+	/**
+	 * Fügt eine Kante von Knoten {@code x} nach Knoten {@code y} hinzu.<br>
+	 * Fehlende Knoten werden dabei ebenfalls hinzugefügt.
+	 * @param x der Startknoten der Kante
+	 * @param y der Endknoten der Kante
+	 * @return {@code true} wenn die Kante hinzugefügt wurde;
+	 *         {@code false} wenn sie bereits existiert hat
+	 */
+	public boolean addEdge(int x, int y) {
+		if (hasEdge(x, y)) return false;
+		addVertex(x);
+		addVertex(y);
+		addNeighbor(x, y);
+		if (x != y) addNeighbor(y, x);
+		return true;
+	}
+	
+	private void addNeighbor(int v, int neighbor) {
+		int[] neighbors = adjacency[v];
+		if (neighbors == null) neighbors = adjacency[v] = new int[4];
+		else if (degree[v] == neighbors.length) neighbors = adjacency[v] = Arrays.copyOf(neighbors, 2 * neighbors.length);
+		neighbors[degree[v]++] = neighbor;
+	}
+	
+	/**
+	 * Vergrößert alle Felder, sodass sie mindestens die übergebene Anzahl an Knoten fassen.
+	 * @param capacity die benötigte Anzahl an Knoten
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity <= present.length) return;
+		int newCapacity = Math.max(capacity, 2 * present.length);
+		present = Arrays.copyOf(present, newCapacity);
+		adjacency = Arrays.copyOf(adjacency, newCapacity);
+		degree = Arrays.copyOf(degree, newCapacity);
+		visited = Arrays.copyOf(visited, newCapacity);
+		target = Arrays.copyOf(target, newCapacity);
+		queue = new int[newCapacity];
+	}
+	
+	
+	// remove //
+	
+	/**
+	 * Entfernt den Knoten {@code v} und alle mit ihm verbundenen Kanten.
+	 * @param v der Knoten, der entfernt werden soll
+	 * @return {@code true} wenn der Knoten entfernt wurde;
+	 *         {@code false} wenn er nicht existiert hat
+	 */
+	public boolean removeVertex(int v) {
+		if (!hasVertex(v)) return false;
+		int[] neighbors = adjacency[v];
+		for (int i = 0; i < degree[v]; i++)
+			if (neighbors[i] != v) removeNeighbor(neighbors[i], v);
+		degree[v] = 0;
+		present[v] = false;
+		vertexCount--;
+		return true;
+	}
+	
+	/**
+	 * Entfernt die Kante von Knoten {@code x} nach Knoten {@code y}.
+	 * @param x der Startknoten der Kante
+	 * @param y der Endknoten der Kante
+	 * @return {@code true} wenn die Kante entfernt wurde;
+	 *         {@code false} wenn die Kante nicht existiert hat
+	 */
+	public boolean removeEdge(int x, int y) {
+		if (!hasEdge(x, y)) return false;
+		removeNeighbor(x, y);
+		if (x != y) removeNeighbor(y, x);
+		return true;
+	}
+	
+	private void removeNeighbor(int v, int neighbor) {
+		int[] neighbors = adjacency[v];
+		for (int i = 0; i < degree[v]; i++) {
+			if (neighbors[i] == neighbor) {
+				// the order of the neighbors does not matter
+				neighbors[i] = neighbors[--degree[v]];
+				return;
+			}
+		}
+	}
+	
+	
+	// has //
+	
+	/**
+	 * Prüft, ob der Graph den Knoten {@code v} besitzt.
+	 * @param v der zu überprüfende Knoten
+	 * @return {@code true} wenn der Knoten existiert; sonst {@code false}
+	 */
+	public boolean hasVertex(int v) {
+		return v >= 0 && v < present.length && present[v];
+	}
+	
+	/**
+	 * Prüft, ob der Graph eine Kante vom Knoten {@code x} zum Knoten {@code y} besitzt.
+	 * @param x der Startknoten der Kante
+	 * @param y der Endknoten der Kante
+	 * @return {@code true} wenn die Kante existiert; sonst {@code false}
+	 */
+	public boolean hasEdge(int x, int y) {
+		if (!hasVertex(x) || !hasVertex(y)) return false;
+		// scan the shorter neighbor list
+		if (degree[y] < degree[x]) {
+			int tmp = x;
+			x = y;
+			y = tmp;
+		}
+		int[] neighbors = adjacency[x];
+		for (int i = 0; i < degree[x]; i++)
+			if (neighbors[i] == y) return true;
+		return false;
+	}
+	
+	/**
+	 * Prüft, ob ein Pfad vom Knoten {@code x} zum Knoten {@code y} existiert.
+	 * @param x der Startknoten des Pfads
+	 * @param y der Endknoten des Pfads
+	 * @return {@code true} wenn ein Pfad existiert; sonst {@code false}
+	 */
+	public boolean hasPath(int x, int y) {
+		if (!hasVertex(x) || !hasVertex(y)) return false;
+		if (x == y) return true;
+		int epoch = nextEpoch();
+		target[y] = epoch;
+		visited[x] = epoch;
+		queue[0] = x;
+		return search(epoch, 1);
+	}
+	
+	/**
+	 * Prüft mit einer einzigen Suche, ob von einem der Startknoten aus einer der Zielknoten erreichbar ist.<br>
+	 * Knoten, die nicht im Graphen liegen, werden ignoriert.
+	 * @param sources die Startknoten
+	 * @param targets die Zielknoten
+	 * @return {@code true} wenn ein Pfad von einem Start- zu einem Zielknoten existiert; sonst {@code false}
+	 */
+	public boolean hasPathToAny(int[] sources, int[] targets) {
+		int epoch = nextEpoch();
+		boolean anyTarget = false;
+		for (int t : targets) {
+			if (!hasVertex(t)) continue;
+			target[t] = epoch;
+			anyTarget = true;
+		}
+		if (!anyTarget) return false;
+		int tail = 0;
+		for (int s : sources) {
+			if (!hasVertex(s)) continue;
+			if (target[s] == epoch) return true;
+			if (visited[s] != epoch) {
+				visited[s] = epoch;
+				queue[tail++] = s;
+			}
+		}
+		return search(epoch, tail);
+	}
+	
+	/**
+	 * Durchsucht den Graphen in der Breite ausgehend von den ersten {@code tail} Knoten in {@link #queue},
+	 * bis ein Knoten mit der Zielmarkierung der aktuellen Epoche gefunden wird.
+	 * @param epoch die aktuelle Epoche
+	 * @param tail die Anzahl der Startknoten in der Warteschlange
+	 * @return {@code true} wenn ein Zielknoten erreicht wurde; sonst {@code false}
+	 */
+	private boolean search(int epoch, int tail) {
+		// every vertex is queued at most once, so the queue never overflows
+		for (int head = 0; head < tail; head++) {
+			int v = queue[head];
+			int[] neighbors = adjacency[v];
+			for (int i = 0; i < degree[v]; i++) {
+				int next = neighbors[i];
+				if (target[next] == epoch) return true;
+				if (visited[next] != epoch) {
+					visited[next] = epoch;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Beginnt eine neue Suche, wodurch alle bisherigen Markierungen ungültig werden.
+	 * @return die neue Epoche
+	 */
+	private int nextEpoch() {
+		if (epoch == Integer.MAX_VALUE) {
+			// stamps of old searches could collide after the overflow
+			Arrays.fill(visited, 0);
+			Arrays.fill(target, 0);
+			epoch = 0;
+		}
+		return ++epoch;
+	}
+	
+	
+	// get //
+	
+	/**
+	 * Gibt die Anzahl der Knoten zurück.
+	 * @return die Anzahl der Knoten
+	 */
+	public int vertexCount() {
+		return vertexCount;
+	}
+	
+	/**
+	 * Gibt die Anzahl der Nachbarn des Knotens {@code v} zurück.
+	 * @param v der Knoten
+	 * @return die Anzahl der Nachbarn; oder {@code 0} wenn der Knoten nicht existiert
+	 */
+	public int degree(int v) {
+		return hasVertex(v) ? degree[v] : 0;
+	}
+	
+	/**
+	 * Gibt den {@code i}-ten Nachbarn des Knotens {@code v} zurück.<br>
+	 * Die Reihenfolge der Nachbarn ist beliebig und kann sich beim Entfernen von Kanten ändern.
+	 * @param v der Knoten
+	 * @param i der Index des Nachbarn zwischen {@code 0} und {@link #degree(int)}
+	 * @return der Nachbar
+	 */
+	public int neighbor(int v, int i) {
+		if (i < 0 || i >= degree(v)) throw new IndexOutOfBoundsException(i);
+		return adjacency[v][i];
+	}
+	
+	/**
+	 * Führt die übergebene Aktion für alle Nachbarn des Knotens {@code v} aus.
+	 * @param v der Knoten
+	 * @param action die Aktion
+	 */
+	public void forEachNeighbor(int v, IntConsumer action) {
+		if (!hasVertex(v)) return;
+		int[] neighbors = adjacency[v];
+		for (int i = 0; i < degree[v]; i++)
+			action.accept(neighbors[i]);
+	}
+	
+	/**
+	 * Führt die übergebene Aktion für alle Knoten aus.
+	 * @param action die Aktion
+	 */
+	public void forEachVertex(IntConsumer action) {
+		for (int v = 0; v < present.length; v++)
+			if (present[v]) action.accept(v);
+	}
+	
+	
+	// Collections //
+	
+	/**
+	 * Gibt die Menge aller Kanten zurück.<br>
+	 * Wie bei {@link Graph#edges()} ist jede Kante in beide Richtungen enthalten.
+	 * @return die Menge aller Kanten
+	 */
+	public Set<Edge<Integer>> edges() {
+		Set<Edge<Integer>> edges = new HashSet<>();
+		forEachVertex(x -> forEachNeighbor(x, y -> edges.add(Edge.of(x, y))));
+		return edges;
+	}
+	
+}
@@ -0,0 +1,56 @@
+package fop.model.strategy;
+
+import fop.controller.GameSession;
+import fop.model.ComputerPlayer;
+import fop.model.Player;
+import fop.model.Player.Role;
+
+/**
+ *
+ * Spielt wie die {@link RoleStrategy}, entscheidet aber mit einem {@link BeliefTracker}, wer Verbündeter und wer Gegner ist.<br>
+ * <br>
+ * Ein anderer Spieler gilt als Verbündeter, wenn er wahrscheinlich dieselbe Rolle hat, und als Gegner,
+ * wenn er wahrscheinlich Saboteur ist (aus Sicht eines Suchers) beziehungsweise kein Saboteur ist (aus Sicht eines Saboteurs).
+ *
+ */
+public class BeliefStrategy extends RoleStrategy {
+	
+	/** Ab dieser Wahrscheinlichkeit gilt eine Einschätzung als sicher genug, um danach zu handeln. */
+	private static final double THRESHOLD = 0.5;
+	
+	/** Der Tracker, der die Züge der Sitzung verfolgt. */
+	private final BeliefTracker beliefs;
+	
+	/**
+	 * Erstellt eine Strategie, die alle folgenden Züge der übergebenen Sitzung verfolgt.<br>
+	 * Sie muss vor dem Start des Spiels erstellt werden, damit ihr kein Zug entgeht.
+	 * @param session die Sitzung
+	 */
+	public BeliefStrategy(GameSession session) {
+		this(new BeliefTracker(session));
+	}
+	
+	/**
+	 * Erstellt eine Strategie mit dem übergebenen Tracker, z.B. einem Tracker, den mehrere Spieler teilen.
+	 * @param beliefs der Tracker
+	 */
+	public BeliefStrategy(BeliefTracker beliefs) {
+		this.beliefs = beliefs;
+	}
+	
+	public BeliefTracker getBeliefs() {
+		return beliefs;
+	}
+	
+	@Override
+	protected boolean isAlly(ComputerPlayer player, Player other, GameSession session) {
+		return beliefs.probability(other, player.getRole(), player) > THRESHOLD;
+	}
+	
+	@Override
+	protected boolean isOpponent(ComputerPlayer player, Player other, GameSession session) {
+		double saboteur = beliefs.probability(other, Role.SABOTEUR, player);
+		return player.getRole() == Role.SABOTEUR ? 1 - saboteur > THRESHOLD : saboteur > THRESHOLD;
+	}
+	
+}
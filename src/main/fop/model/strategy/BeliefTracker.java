@@ -0,0 +1,373 @@
+package fop.model.strategy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import fop.controller.GameSession;
+import fop.model.Move;
+import fop.model.Player;
+import fop.model.Player.Role;
+import fop.model.board.FrontierCell;
+import fop.model.board.Gameboard;
+import fop.model.board.Position;
+import fop.model.cards.CardShape;
+import fop.model.cards.PathCard;
+
+/**
+ *
+ * Schätzt aus den Zügen aller Spieler, welche Rolle jeder Spieler hat.<br>
+ * <br>
+ * Der Tracker hört auf {@link GameSession#MOVE} und multipliziert für jeden Zug die Gewichte des ziehenden Spielers
+ * mit der Wahrscheinlichkeit des Zugs unter jeder Rolle. Die A-priori-Verteilung ist die von
+ * {@link GameSession#assignRoles()}: Die Rollen werden aus den {@link GameSession#getDealtRoles() verteilten Rollen}
+ * gezogen, sodass nur Zuordnungen mit passenden Anzahlen möglich sind. Die Randverteilungen der a-posteriori-Verteilung
+ * über alle Zuordnungen werden erst bei einer Abfrage mit Vorwärts- und Rückwärtsrechnung über die Anzahlen der
+ * bereits vergebenen Rollen bestimmt und je Beobachter bis zum nächsten Zug zwischengespeichert.
+ * Jeder Zug kostet damit nur eine Multiplikation pro Rolle, jede Neuberechnung ist linear in der Spieleranzahl und der Anzahl der Rollenanzahl-Kombinationen,
+ * ohne die Zuordnungen selbst aufzuzählen.<br>
+ * <br>
+ * Abgelegte Karten liegen offen auf dem Ablagestapel und werden ebenfalls bewertet. Das Ansehen einer Zielkarte
+ * hilft jeder Rolle und ändert die Gewichte nicht.<br>
+ * Werkzeugkarten hängen von der Rolle beider Spieler ab. Dafür wird die aktuelle Schätzung für den Zielspieler
+ * eingesetzt (Mean-Field-Näherung), sodass die Gewichte der Spieler unabhängig bleiben.
+ *
+ */
+public final class BeliefTracker {
+	
+	/** Wahrscheinlichkeit eines Zugs gegen einen Spieler einer anderen beziehungsweise derselben Rolle. */
+	private static final double OTHER_ROLE = 0.8, SAME_ROLE = 0.2;
+	
+	private static final Role[] ROLES = Role.values();
+	
+	private final GameSession session;
+	
+	/** Die Spieler in der Reihenfolge der Sitzung; erst nach dem Verteilen der Rollen bekannt. */
+	private Player[] players;
+	
+	/** Die Anzahl jeder Rolle unter den verteilten Rollen. */
+	private int[] roleCounts;
+	
+	/** Das Produkt der Wahrscheinlichkeiten aller Züge eines Spielers unter jeder Rolle, pro Spieler auf 1 normiert. */
+	private double[][] weights;
+	
+	/**
+	 * Die zwischengespeicherten Randverteilungen je Beobachter, an der Stelle der Spieleranzahl ohne Beobachter;
+	 * ein Eintrag ist {@code null}, bis er nach dem letzten Zug abgefragt wird.
+	 */
+	private double[][][] marginals;
+	
+	/**
+	 * Erstellt einen Tracker, der alle folgenden Züge der übergebenen Sitzung verfolgt.
+	 * @param session die Sitzung
+	 */
+	public BeliefTracker(GameSession session) {
+		this.session = session;
+		session.addPropertyChangeListener(GameSession.MOVE, evt -> observe(session.getActivePlayer(), (Move) evt.getNewValue()));
+	}
+	
+	/**
+	 * Liefert die Wahrscheinlichkeit, dass der Spieler die übergebene Rolle hat, aus Sicht eines Zuschauers.
+	 * @param player der Spieler
+	 * @param role die Rolle
+	 * @return die Wahrscheinlichkeit
+	 */
+	public double probability(Player player, Role role) {
+		return probability(player, role, null);
+	}
+	
+	/**
+	 * Liefert die Wahrscheinlichkeit, dass der Spieler die übergebene Rolle hat,
+	 * aus Sicht eines Beobachters, der seine eigene Rolle kennt.
+	 * @param player der Spieler
+	 * @param role die Rolle
+	 * @param observer der Beobachter; oder {@code null} für einen Zuschauer ohne eigene Rolle
+	 * @return die Wahrscheinlichkeit
+	 */
+	public double probability(Player player, Role role, Player observer) {
+		if (!init()) return 0;
+		int index = indexOf(player);
+		int observerIndex = observer == null ? players.length : indexOf(observer);
+		if (marginals[observerIndex] == null)
+			marginals[observerIndex] = observer == null ? marginals(-1, null) : marginals(observerIndex, observer.getRole());
+		return marginals[observerIndex][index][role.ordinal()];
+	}
+	
+	/**
+	 * Übernimmt die Spieler und Rollen der Sitzung, sobald die Rollen verteilt sind.
+	 * @return {@code true} wenn die Rollen verteilt sind; sonst {@code false}
+	 */
+	private boolean init() {
+		if (players != null) return true;
+		List<Role> dealtRoles = session.getDealtRoles();
+		if (dealtRoles.isEmpty()) return false;
+		players = session.getPlayers();
+		roleCounts = new int[ROLES.length];
+		for (Role role : dealtRoles)
+			roleCounts[role.ordinal()]++;
+		weights = new double[players.length][ROLES.length];
+		for (double[] w : weights)
+			Arrays.fill(w, 1);
+		marginals = new double[players.length + 1][][];
+		return true;
+	}
+	
+	/**
+	 * Liefert das Produkt der Wahrscheinlichkeiten aller bisherigen Züge des Spielers unter der übergebenen Rolle,
+	 * bis auf einen gemeinsamen Faktor je Spieler. Damit lassen sich die Randverteilungen unabhängig nachrechnen.
+	 * @param player der Spieler
+	 * @param role die Rolle
+	 * @return das Gewicht; {@code 1} solange die Rollen nicht verteilt sind
+	 */
+	double weight(Player player, Role role) {
+		if (!init()) return 1;
+		return weights[indexOf(player)][role.ordinal()];
+	}
+	
+	
+	// update //
+	
+	/**
+	 * Verrechnet einen Zug mit den Gewichten des ziehenden Spielers.
+	 * @param player der ziehende Spieler
+	 * @param move der Zug, bevor er ausgeführt wird
+	 */
+	private void observe(Player player, Move move) {
+		if (player == null || !init()) return;
+		double[] likelihood = new double[ROLES.length];
+		Arrays.fill(likelihood, 1);
+		switch (move.type()) {
+			case PLACE:
+				place(move, likelihood);
+				break;
+			case DESTROY:
+				destroy(move, likelihood);
+				break;
+			case BREAK_TOOL:
+				if (move.target() != player) againstTarget(move.target(), OTHER_ROLE, SAME_ROLE, likelihood);
+				break;
+			case FIX_TOOL:
+				if (move.target() != player) againstTarget(move.target(), SAME_ROLE, OTHER_ROLE, likelihood);
+				break;
+			case DISCARD:
+				discard(player, move, likelihood);
+				break;
+			default:
+				// looking at a goal card helps every role
+				return;
+		}
+		
+		double[] w = weights[indexOf(player)];
+		double max = 0;
+		for (int r = 0; r < w.length; r++)
+			max = Math.max(max, w[r] *= likelihood[r]);
+		// keep the weights in range, a common factor does not change the posterior
+		if (max > 0)
+			for (int r = 0; r < w.length; r++)
+				w[r] /= max;
+		Arrays.fill(marginals, null);
+	}
+	
+	/**
+	 * Bewertet das Legen einer Wegekarte: Sucher verlängern den Weg zu den Zielkarten, Saboteure legen dort Sackgassen.
+	 * @param move der Zug
+	 * @param likelihood die Wahrscheinlichkeiten des Zugs je Rolle
+	 */
+	private void place(Move move, double[] likelihood) {
+		Gameboard gameboard = session.getGameboard();
+		FrontierCell cell = gameboard.getFrontier().get(Position.of(move.x(), move.y()));
+		if (cell == null) return;
+		PathCard card = (PathCard) move.card();
+		CardShape shape = card.isRotated() == move.rotated() ? card.getShape() : card.getShape().rotated();
+		List<Position> goals = GreedyStrategy.coveredGoals(gameboard);
+		
+		int front = Integer.MAX_VALUE;
+		for (FrontierCell other : gameboard.getFrontier().values())
+			front = Math.min(front, GreedyStrategy.distanceToGoal(gameboard, other.position().x(), other.position().y(), goals));
+		int openEnd = GreedyStrategy.openEndDistance(gameboard, cell, shape, goals);
+		int distance = GreedyStrategy.distanceToGoal(gameboard, move.x(), move.y(), goals);
+		
+		double digging, sabotage;
+		if (openEnd == Integer.MAX_VALUE) {
+			// a dead end at the front is the typical saboteur move, the front is never farther than the cell itself
+			digging = distance - 1 <= front ? 0.1 : 0.3;
+			sabotage = distance - 1 <= front ? 0.6 : 0.4;
+		} else if (openEnd < front) {
+			// the path gets closer to a goal
+			digging = 0.6;
+			sabotage = 0.25;
+		} else {
+			digging = 0.3;
+			sabotage = 0.35;
+		}
+		for (Role role : ROLES)
+			likelihood[role.ordinal()] = role == Role.SABOTEUR ? sabotage : digging;
+	}
+	
+	/**
+	 * Bewertet einen Steinschlag: Das Zerstören einer Karte, ohne die ein Teil der Grenze unerreichbar wird,
+	 * spricht für einen Saboteur, das Zerstören einer Sackgasse für einen Sucher.
+	 * @param move der Zug
+	 * @param likelihood die Wahrscheinlichkeiten des Zugs je Rolle
+	 */
+	private void destroy(Move move, double[] likelihood) {
+		Gameboard gameboard = session.getGameboard();
+		PathCard card = gameboard.cardAt(move.x(), move.y());
+		if (card == null) return;
+		boolean deadEnd = card.getShape().edgeMask() == 0;
+		boolean critical = false;
+		for (FrontierCell cell : gameboard.getFrontier().values())
+			if (gameboard.getCriticalPositions(cell.position().x(), cell.position().y()).contains(Position.of(move.x(), move.y()))) {
+				critical = true;
+				break;
+			}
+		double sabotage = deadEnd ? 0.1 : critical ? 0.8 : 0.5;
+		for (Role role : ROLES)
+			likelihood[role.ordinal()] = role == Role.SABOTEUR ? sabotage : 1 - sabotage;
+	}
+	
+	/**
+	 * Bewertet das Ablegen einer Karte: Sucher legen keine Wegekarte ab, die den Weg den Zielkarten näher bringt,
+	 * Saboteure keine, die sie als Sackgasse an die Grenze legen könnten, und selten einen Steinschlag.
+	 * Kann der Spieler wegen eines zerbrochenen Werkzeugs keine Wegekarte legen, sagt das Ablegen nichts aus.
+	 * @param player der ziehende Spieler
+	 * @param move der Zug
+	 * @param likelihood die Wahrscheinlichkeiten des Zugs je Rolle
+	 */
+	private void discard(Player player, Move move, double[] likelihood) {
+		double digging, sabotage;
+		if (move.card().isRockfall()) {
+			// saboteurs use it to cut the path, diggers only to clear dead ends
+			digging = 0.5;
+			sabotage = 0.35;
+		} else {
+			if (!move.card().isPathCard() || player.hasBrokenTool()) return;
+			Gameboard gameboard = session.getGameboard();
+			PathCard card = (PathCard) move.card();
+			List<Position> goals = GreedyStrategy.coveredGoals(gameboard);
+			int front = Integer.MAX_VALUE;
+			for (FrontierCell other : gameboard.getFrontier().values())
+				front = Math.min(front, GreedyStrategy.distanceToGoal(gameboard, other.position().x(), other.position().y(), goals));
+			
+			boolean advances = false, blocks = false;
+			for (int rotation = 0; rotation < 2; rotation++) {
+				CardShape shape = rotation == 0 ? card.getShape() : card.getShape().rotated();
+				for (FrontierCell cell : gameboard.getFrontier().values()) {
+					if (!cell.accepts(shape)) continue;
+					int openEnd = GreedyStrategy.openEndDistance(gameboard, cell, shape, goals);
+					if (openEnd < front) advances = true;
+					else if (openEnd == Integer.MAX_VALUE
+							&& GreedyStrategy.distanceToGoal(gameboard, cell.position().x(), cell.position().y(), goals) - 1 <= front) blocks = true;
+				}
+			}
+			if (!advances && !blocks) return;
+			digging = advances ? 0.2 : 0.4;
+			sabotage = advances ? 0.5 : 0.2;
+		}
+		for (Role role : ROLES)
+			likelihood[role.ordinal()] = role == Role.SABOTEUR ? sabotage : digging;
+	}
+	
+	/**
+	 * Bewertet eine Werkzeugkarte gegen oder für einen anderen Spieler mit der aktuellen Schätzung seiner Rolle.
+	 * @param target der Zielspieler
+	 * @param otherRole die Wahrscheinlichkeit des Zugs, wenn der Zielspieler eine andere Rolle hat
+	 * @param sameRole die Wahrscheinlichkeit des Zugs, wenn der Zielspieler dieselbe Rolle hat
+	 * @param likelihood die Wahrscheinlichkeiten des Zugs je Rolle
+	 */
+	private void againstTarget(Player target, double otherRole, double sameRole, double[] likelihood) {
+		for (Role role : ROLES) {
+			double same = probability(target, role);
+			likelihood[role.ordinal()] = same * sameRole + (1 - same) * otherRole;
+		}
+	}
+	
+	
+	// posterior //
+	
+	/**
+	 * Berechnet die Randverteilungen aller Spieler über alle Zuordnungen mit passenden Rollenanzahlen.<br>
+	 * Ein Zustand ist die Anzahl der bereits vergebenen Rollen jeder Art, gemischt zur Basis {@code roleCounts[r] + 1} kodiert.
+	 * Eine Zuordnung mit den Anzahlen {@code c} hat die A-priori-Wahrscheinlichkeit
+	 * {@code prod_r roleCounts[r]! / (roleCounts[r] - c[r])!} (bis auf einen gemeinsamen Faktor).
+	 * @param observerIndex der Spieler, dessen Rolle feststeht; oder {@code -1}
+	 * @param observerRole die Rolle des Beobachters
+	 * @return die Randverteilungen je Spieler und Rolle
+	 */
+	private double[][] marginals(int observerIndex, Role observerRole) {
+		int n = players.length;
+		int[] radix = new int[ROLES.length];
+		int states = 1;
+		for (int r = 0; r < ROLES.length; r++) {
+			radix[r] = states;
+			states *= roleCounts[r] + 1;
+		}
+		
+		// forward[i][c]: weight of all assignments of the first i players using the role counts c
+		double[][] forward = new double[n + 1][states];
+		forward[0][0] = 1;
+		for (int i = 0; i < n; i++)
+			for (int c = 0; c < states; c++) {
+				if (forward[i][c] == 0) continue;
+				for (int r = 0; r < ROLES.length; r++)
+					if (count(c, r, radix) < roleCounts[r])
+						forward[i + 1][c + radix[r]] += forward[i][c] * weight(i, r, observerIndex, observerRole);
+			}
+		
+		// backward[i][c]: weight of all completions of players i.. starting from the role counts c, including the prior
+		double[][] backward = new double[n + 1][states];
+		for (int c = 0; c < states; c++)
+			if (forward[n][c] != 0) backward[n][c] = prior(c, radix);
+		for (int i = n - 1; i >= 0; i--)
+			for (int c = 0; c < states; c++)
+				for (int r = 0; r < ROLES.length; r++)
+					if (count(c, r, radix) < roleCounts[r] && backward[i + 1][c + radix[r]] != 0)
+						backward[i][c] += weight(i, r, observerIndex, observerRole) * backward[i + 1][c + radix[r]];
+		
+		double[][] result = new double[n][ROLES.length];
+		for (int i = 0; i < n; i++) {
+			double total = 0;
+			for (int c = 0; c < states; c++) {
+				if (forward[i][c] == 0) continue;
+				for (int r = 0; r < ROLES.length; r++)
+					if (count(c, r, radix) < roleCounts[r])
+						result[i][r] += forward[i][c] * weight(i, r, observerIndex, observerRole) * backward[i + 1][c + radix[r]];
+			}
+			for (int r = 0; r < ROLES.length; r++)
+				total += result[i][r];
+			if (total > 0)
+				for (int r = 0; r < ROLES.length; r++)
+					result[i][r] /= total;
+		}
+		return result;
+	}
+	
+	private double weight(int player, int role, int observerIndex, Role observerRole) {
+		if (player == observerIndex) return role == observerRole.ordinal() ? 1 : 0;
+		return weights[player][role];
+	}
+	
+	private static int count(int state, int role, int[] radix) {
+		return state / radix[role] % (role + 1 < radix.length ? radix[role + 1] / radix[role] : Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Die A-priori-Wahrscheinlichkeit einer Zuordnung mit den übergebenen Rollenanzahlen, bis auf einen gemeinsamen Faktor.
+	 * @param state die kodierten Rollenanzahlen
+	 * @param radix die Basen der Kodierung
+	 * @return das Produkt der fallenden Faktoriellen
+	 */
+	private double prior(int state, int[] radix) {
+		double prior = 1;
+		for (int r = 0; r < ROLES.length; r++)
+			for (int k = 0; k < count(state, r, radix); k++)
+				prior *= roleCounts[r] - k;
+		return prior;
+	}
+	
+	private int indexOf(Player player) {
+		for (int i = 0; i < players.length; i++)
+			if (players[i] == player) return i;
+		throw new IllegalArgumentException("The player does not play in this session.");
+	}
+	
+}
@@ -0,0 +1,147 @@
+package fop.model.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fop.controller.GameSession;
+import fop.model.ComputerPlayer;
+import fop.model.Move;
+import fop.model.Strategy;
+import fop.model.board.FrontierCell;
+import fop.model.board.Gameboard;
+import fop.model.board.Position;
+import fop.model.cards.Card;
+import fop.model.cards.CardAnchor;
+import fop.model.cards.CardShape;
+import fop.model.cards.GoalCard;
+import fop.model.cards.PathCard;
+
+/**
+ *
+ * Verlängert den erreichbaren Weg möglichst weit in Richtung der verdeckten Zielkarten.<br>
+ * <br>
+ * Bewertet wird jede erlaubte Kombination aus Wegekarte, Drehung und Feld der {@link Gameboard#getFrontier() Grenze}.
+ * Von den Ankerpunkten, über die die Karte an den erreichbaren Weg anschließt, werden mit
+ * {@link CardShape#connectedMask(CardAnchor)} alle offenen Enden der Karte bestimmt.
+ * Die Bewertung ist der kleinste {@link Gameboard#getGoalDistance(int, int, Position) Abstand} eines offenen Endes
+ * über freie Felder zur nächsten verdeckten Zielkarte;
+ * Karten ohne offenes Ende (Sackgassen) werden nie gelegt.
+ * Kann keine andere Wegekarte gelegt werden, wird eine zufällige Handkarte abgelegt.<br>
+ * Da nur Bitmasken verglichen werden, wird für die Bewertung einer Möglichkeit kein Objekt erstellt.
+ *
+ */
+public final class GreedyStrategy implements Strategy {
+	
+	/** Die Bewertung einer Karte ohne offenes Ende. */
+	static final int DEAD_END = -1_000_000;
+	
+	/** Die Gewichtung des Abstands gegenüber den Punkten für benachbarte Karten. */
+	private static final int DISTANCE_WEIGHT = 16;
+	
+	@Override
+	public Move chooseMove(ComputerPlayer player, GameSession session) {
+		List<Card> handCards = player.getAllHandCards();
+		if (handCards.isEmpty()) return Move.nothing();
+		Gameboard gameboard = session.getGameboard();
+		List<Position> targets = coveredGoals(gameboard);
+		
+		// players with a broken tool cannot place path cards; dead ends only block the own path
+		Move best = null;
+		int bestScore = DEAD_END + 4;
+		if (!player.hasBrokenTool()) {
+			for (Card card : handCards) {
+				if (!card.isPathCard()) continue;
+				PathCard pathCard = (PathCard) card;
+				for (int rotation = 0; rotation < 2; rotation++) {
+					boolean rotated = pathCard.isRotated() != (rotation == 1);
+					CardShape shape = rotation == 0 ? pathCard.getShape() : pathCard.getShape().rotated();
+					for (FrontierCell cell : gameboard.getFrontier().values()) {
+						if (!cell.accepts(shape)) continue;
+						int score = evaluate(gameboard, cell, shape, targets);
+						if (score > bestScore) {
+							bestScore = score;
+							best = Move.place(pathCard, cell.position().x(), cell.position().y(), rotated);
+						}
+					}
+				}
+			}
+		}
+		if (best != null) return best;
+		return Move.discard(handCards.get(session.getRandom().nextInt(handCards.size())));
+	}
+	
+	/**
+	 * Bewertet eine Karte mit der übergebenen Form auf dem übergebenen Feld der Grenze.<br>
+	 * Offene Enden, die auf eine verdeckte Zielkarte außerhalb der Ziele zeigen, werden nicht gezählt.
+	 * @param gameboard das Wegelabyrinth
+	 * @param cell das Feld, auf das die Karte passt
+	 * @param shape die Form der Karte
+	 * @param targets die Positionen der verdeckten Zielkarten, die erreicht werden sollen
+	 * @return die Bewertung; je größer desto besser, höchstens {@link #DEAD_END} plus vier für Sackgassen
+	 */
+	static int evaluate(Gameboard gameboard, FrontierCell cell, CardShape shape, List<Position> targets) {
+		int points = gameboard.getNumberOfAdjacentCards(cell.position().x(), cell.position().y());
+		int distance = openEndDistance(gameboard, cell, shape, targets);
+		if (distance == Integer.MAX_VALUE) return DEAD_END + points;
+		return -distance * DISTANCE_WEIGHT + points;
+	}
+	
+	/**
+	 * Berechnet den kleinsten Abstand eines offenen Endes der Karte zum nächsten Ziel.
+	 * @param gameboard das Wegelabyrinth
+	 * @param cell das Feld, auf das die Karte passt
+	 * @param shape die Form der Karte
+	 * @param targets die Positionen der verdeckten Zielkarten, die erreicht werden sollen
+	 * @return der Abstand; {@code 0} wenn ein Ziel aufgedeckt wird; oder {@link Integer#MAX_VALUE} für Sackgassen
+	 */
+	static int openEndDistance(Gameboard gameboard, FrontierCell cell, CardShape shape, List<Position> targets) {
+		int x = cell.position().x();
+		int y = cell.position().y();
+		// the anchors reachable through the card once it is placed
+		int reach = 0;
+		for (CardAnchor ca : CardAnchor.values())
+			if ((shape.vertexMask() & cell.reachableMask() & ca.mask()) != 0)
+				reach |= shape.connectedMask(ca);
+		
+		int bestDistance = Integer.MAX_VALUE;
+		for (CardAnchor ca : CardAnchor.values()) {
+			if ((reach & ca.mask()) == 0) continue;
+			int nx = x + ca.dx();
+			int ny = y + ca.dy();
+			PathCard next = gameboard.cardAt(nx, ny);
+			if (next == null) bestDistance = Math.min(bestDistance, distanceToGoal(gameboard, nx, ny, targets));
+			// an open end pointing at a covered goal card reveals it
+			else if (next.isGoalCard() && ((GoalCard) next).isCovered() && targets.contains(Position.of(nx, ny))) bestDistance = 0;
+		}
+		return bestDistance;
+	}
+	
+	/**
+	 * Berechnet den Abstand der übergebenen freien Position über freie Felder zum nächsten Ziel.
+	 * @param gameboard das Wegelabyrinth
+	 * @param x x-Position im Wegelabyrinth
+	 * @param y y-Position im Wegelabyrinth
+	 * @param targets die Positionen der Ziele
+	 * @return der Abstand; {@code 0} wenn es kein Ziel gibt; oder {@link Integer#MAX_VALUE} wenn kein Ziel erreichbar ist
+	 */
+	static int distanceToGoal(Gameboard gameboard, int x, int y, List<Position> targets) {
+		if (targets.isEmpty()) return 0;
+		int distance = Integer.MAX_VALUE;
+		for (int i = 0; i < targets.size(); i++)
+			distance = Math.min(distance, gameboard.getGoalDistance(x, y, targets.get(i)));
+		return distance;
+	}
+	
+	/**
+	 * Liefert die Positionen aller verdeckten Zielkarten.
+	 * @param gameboard das Wegelabyrinth
+	 * @return die Positionen
+	 */
+	static List<Position> coveredGoals(Gameboard gameboard) {
+		List<Position> goals = new ArrayList<>(3);
+		for (Position goal : gameboard.getGoalPositions())
+			if (((GoalCard) gameboard.cardAt(goal.x(), goal.y())).isCovered()) goals.add(goal);
+		return goals;
+	}
+	
+}
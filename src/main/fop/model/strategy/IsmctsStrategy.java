@@ -0,0 +1,341 @@
+package fop.model.strategy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import fop.controller.GameSession;
+import fop.model.ComputerPlayer;
+import fop.model.Move;
+import fop.model.MoveGenerator;
+import fop.model.Player;
+import fop.model.Strategy;
+import fop.model.cards.Card;
+
+/**
+ *
+ * Wählt Züge mit einer Monte-Carlo-Baumsuche über Informationsmengen (ISMCTS).<br>
+ * <br>
+ * Jede Iteration spielt in einer neuen {@link GameSession#determinize(Player, long, Strategy) Determinisierung}
+ * der Sitzung, in der die verborgenen Handkarten, Rollen und Zielkarten zufällig neu bestimmt sind.
+ * Der Baum enthält die Züge aller Spieler; ein Kindknoten wird nur ausgewählt, wenn sein Zug in der
+ * aktuellen Determinisierung erlaubt ist, und seine Auswahl wird nach UCB mit der Anzahl bewertet,
+ * wie oft er erlaubt war. Nach dem ersten neuen Knoten wird mit der Strategie für Simulationen
+ * zu Ende gespielt; die Gewinner ({@link GameSession#getWinners()}) bestimmen die Bewertung.<br>
+ * <br>
+ * Die Suche läuft bis zum Ablauf der Bedenkzeit parallel in mehreren unabhängigen Bäumen (Wurzelparallelisierung).
+ * Gewählt wird der Zug, der über alle Bäume am häufigsten besucht wurde.<br>
+ * <br>
+ * Mit einer {@link TranspositionTable} teilen die Bäume ihre Ergebnisse auch untereinander und über mehrere Züge:
+ * Jeder Knoten wird unter dem {@link fop.model.board.Gameboard#getZobristHash() Hashwert} des Wegelabyrinths
+ * nach seinem Zug und dem Spieler, der ihn gemacht hat, bewertet. Ein neuer Knoten übernimmt die dort
+ * gespeicherten Ergebnisse als Vorwissen, höchstens aber {@link #PRIOR_VISITS} Besuche.
+ *
+ */
+public final class IsmctsStrategy implements Strategy {
+	
+	/** Die Gewichtung der Erkundung in der UCB-Formel. */
+	private static final double EXPLORATION = 0.7;
+	
+	/** Die höchste Anzahl an Besuchen, die ein neuer Knoten aus der Transpositionstabelle übernimmt. */
+	private static final int PRIOR_VISITS = 8;
+	
+	/** Die Bedenkzeit pro Zug in Nanosekunden. */
+	private final long budgetNanos;
+	
+	/** Die Anzahl der parallel durchsuchten Bäume. */
+	private final int threads;
+	
+	/** Die Strategie aller Spieler nach dem Verlassen des Baums. */
+	private final Strategy playout;
+	
+	/** Die gemeinsamen Ergebnisse aller Bäume; oder {@code null}. */
+	private final TranspositionTable table;
+	
+	/**
+	 * Erstellt eine Suche, die alle Prozessoren verwendet und mit der {@link GreedyStrategy} simuliert.
+	 * @param budgetMillis die Bedenkzeit pro Zug in Millisekunden
+	 */
+	public IsmctsStrategy(long budgetMillis) {
+		this(budgetMillis, Runtime.getRuntime().availableProcessors(), new GreedyStrategy());
+	}
+	
+	/**
+	 * Erstellt eine Suche ohne Transpositionstabelle.
+	 * @param budgetMillis die Bedenkzeit pro Zug in Millisekunden
+	 * @param threads die Anzahl der parallel durchsuchten Bäume
+	 * @param playout die Strategie aller Spieler nach dem Verlassen des Baums; muss von mehreren Threads benutzbar sein
+	 */
+	public IsmctsStrategy(long budgetMillis, int threads, Strategy playout) {
+		this(budgetMillis, threads, playout, null);
+	}
+	
+	/**
+	 * Erstellt eine Suche.
+	 * @param budgetMillis die Bedenkzeit pro Zug in Millisekunden
+	 * @param threads die Anzahl der parallel durchsuchten Bäume
+	 * @param playout die Strategie aller Spieler nach dem Verlassen des Baums; muss von mehreren Threads benutzbar sein
+	 * @param table die Tabelle, über die die Bäume ihre Ergebnisse teilen, auch mit anderen Suchen; oder {@code null}
+	 */
+	public IsmctsStrategy(long budgetMillis, int threads, Strategy playout, TranspositionTable table) {
+		if (budgetMillis <= 0) throw new IllegalArgumentException("The time budget must be positive.");
+		if (threads <= 0) throw new IllegalArgumentException("At least one thread is required.");
+		this.budgetNanos = budgetMillis * 1_000_000;
+		this.threads = threads;
+		this.playout = Objects.requireNonNull(playout);
+		this.table = table;
+	}
+	
+	@Override
+	public Move chooseMove(ComputerPlayer player, GameSession session) {
+		MoveGenerator generator = new MoveGenerator();
+		int count = generator.generate(session, player);
+		if (count == 0) return Move.nothing();
+		if (count == 1) return MoveGenerator.toMove(generator.get(0), player, session);
+		
+		long deadline = System.nanoTime() + budgetNanos;
+		List<Search> searches = new ArrayList<>();
+		for (int i = 0; i < threads; i++)
+			searches.add(new Search(session, player, session.getRandom().nextLong(), deadline));
+		ForkJoinTask.invokeAll(searches);
+		
+		// sum up the visits of the root moves over all trees
+		Map<Key, Integer> visits = new HashMap<>();
+		for (Search search : searches)
+			for (Node child : search.join().children.values())
+				visits.merge(child.key, child.visits, Integer::sum);
+		
+		List<Card> handCards = player.getAllHandCards();
+		long best = generator.get(0);
+		int bestVisits = -1;
+		for (int i = 0; i < count; i++) {
+			int visited = visits.getOrDefault(Key.of(generator.get(i), handCards), 0);
+			if (visited > bestVisits) {
+				bestVisits = visited;
+				best = generator.get(i);
+			}
+		}
+		return MoveGenerator.toMove(best, player, session);
+	}
+	
+	/**
+	 *
+	 * Durchsucht einen eigenen Baum bis zum Ablauf der Bedenkzeit.
+	 *
+	 */
+	private final class Search extends RecursiveTask<Node> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final GameSession session;
+		private final Player observer;
+		private final SplittableRandom random;
+		private final long deadline;
+		
+		/** Zählt die erlaubten Züge jeder Stellung ohne Objekte für die Züge zu erstellen. */
+		private final MoveGenerator generator = new MoveGenerator();
+		
+		/** Die Indizes der erlaubten Züge ohne Knoten in der aktuellen Stellung. */
+		private int[] untried = new int[64];
+		
+		/** Die Nummer der laufenden Iteration, damit jeder Knoten pro Iteration nur einmal als erlaubt gezählt wird. */
+		private int iteration;
+		
+		private Search(GameSession session, Player observer, long seed, long deadline) {
+			this.session = session;
+			this.observer = observer;
+			this.random = new SplittableRandom(seed);
+			this.deadline = deadline;
+		}
+		
+		@Override
+		protected Node compute() {
+			Node root = new Node(null, -1);
+			do {
+				iteration++;
+				GameSession game = session.determinize(observer, random.nextLong(), playout);
+				Node node = descend(root, game);
+				
+				// play out with the simple strategy
+				while (!game.isGameOver()) {
+					ComputerPlayer active = (ComputerPlayer) game.getActivePlayer();
+					if (active.getAllHandCards().isEmpty()) game.doNothing();
+					else active.takeTurn();
+				}
+				
+				// every node is rated from the view of the player who made its move
+				List<Player> winners = game.getWinners();
+				Player[] players = game.getPlayers();
+				for (; node != null; node = node.parent) {
+					node.visits++;
+					if (node.player < 0) continue;
+					boolean won = winners.contains(players[node.player]);
+					if (won) node.wins++;
+					if (table != null) table.update(node.hash, won ? 1 : 0);
+				}
+			} while (System.nanoTime() < deadline);
+			return root;
+		}
+		
+		/**
+		 * Folgt dem Baum, solange alle erlaubten Züge bereits Knoten haben, und fügt dann einen neuen Knoten hinzu.
+		 * @param root die Wurzel des Baums
+		 * @param game die Determinisierung, in der die Züge ausgeführt werden
+		 * @return der zuletzt besuchte Knoten
+		 */
+		private Node descend(Node root, GameSession game) {
+			Node node = root;
+			while (!game.isGameOver()) {
+				ComputerPlayer active = (ComputerPlayer) game.getActivePlayer();
+				if (active.getAllHandCards().isEmpty()) {
+					game.doNothing();
+					continue;
+				}
+				Player[] players = game.getPlayers();
+				int index = indexOf(players, active);
+				
+				Node best = null;
+				long bestMove = 0;
+				double bestValue = Double.NEGATIVE_INFINITY;
+				int untriedCount = 0;
+				List<Card> handCards = active.getAllHandCards();
+				int count = generator.generate(game, active);
+				if (untried.length < count) untried = new int[count];
+				for (int i = 0; i < count; i++) {
+					long move = generator.get(i);
+					Node child = node.children.get(Key.of(move, handCards));
+					if (child == null) {
+						untried[untriedCount++] = i;
+						continue;
+					}
+					if (child.seen != iteration) {
+						child.seen = iteration;
+						child.availability++;
+					}
+					double value = child.wins / child.visits + EXPLORATION * Math.sqrt(Math.log(child.availability) / child.visits);
+					if (value > bestValue) {
+						bestValue = value;
+						best = child;
+						bestMove = move;
+					}
+				}
+				
+				if (untriedCount > 0) {
+					long move = generator.get(untried[random.nextInt(untriedCount)]);
+					Node child = new Node(Key.of(move, handCards), index);
+					child.parent = node;
+					child.seen = iteration;
+					child.availability = 1;
+					node.children.put(child.key, child);
+					active.execute(MoveGenerator.toMove(move, active, game));
+					if (table != null) prior(child, game);
+					return child;
+				}
+				active.execute(MoveGenerator.toMove(bestMove, active, game));
+				node = best;
+			}
+			return node;
+		}
+		
+	}
+	
+	/**
+	 * Übernimmt die Ergebnisse der Transpositionstabelle für einen neuen Knoten.
+	 * @param child der neue Knoten, dessen Zug gerade ausgeführt wurde
+	 * @param game die Determinisierung nach dem Zug
+	 */
+	private void prior(Node child, GameSession game) {
+		// the same board after a move of another seat is a different position
+		child.hash = game.getGameboard().getZobristHash() ^ (child.player + 1) * 0x9E3779B97F4A7C15L;
+		int visits = Math.min(table.visits(child.hash), PRIOR_VISITS);
+		if (visits == 0) return;
+		double value = table.value(child.hash);
+		child.visits = visits;
+		child.wins = value * visits;
+	}
+	
+	private static int indexOf(Player[] players, Player player) {
+		for (int i = 0; i < players.length; i++)
+			if (players[i] == player) return i;
+		return -1;
+	}
+	
+	/**
+	 *
+	 * Ein Knoten des Suchbaums, der für einen Zug eines Spielers steht.
+	 *
+	 */
+	private static final class Node {
+		
+		private final Key key;
+		
+		/** Die Nummer des Spielers, der den Zug macht; oder {@code -1} für die Wurzel. */
+		private final int player;
+		
+		private Node parent;
+		private final Map<Key, Node> children = new HashMap<>();
+		
+		/** Der Schlüssel der Stellung nach dem Zug in der {@link TranspositionTable}. */
+		private long hash;
+		
+		private int visits, availability, seen;
+		private double wins;
+		
+		private Node(Key key, int player) {
+			this.key = key;
+			this.player = player;
+		}
+		
+	}
+	
+	/**
+	 *
+	 * Identifiziert einen Zug unabhängig von den Kartenobjekten einer Determinisierung,
+	 * damit gleiche Züge in verschiedenen Determinisierungen denselben Knoten verwenden.
+	 * Statt des Index der Handkarte, der sich zwischen Determinisierungen unterscheidet, zählt ihr Name.
+	 *
+	 */
+	private static final class Key {
+		
+		private final String card;
+		
+		/** Der {@link MoveGenerator kodierte} Zug mit dem Index {@code 0} für die Handkarte. */
+		private final long move;
+		
+		private Key(String card, long move) {
+			this.card = card;
+			this.move = move;
+		}
+		
+		private static Key of(long move, List<Card> handCards) {
+			return new Key(handCards.get(MoveGenerator.card(move)).getName(), MoveGenerator.withCard(move, 0));
+		}
+		
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + card.hashCode();
+			result = prime * result + Long.hashCode(move);
+			return result;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (obj == null) return false;
+			if (getClass() != obj.getClass()) return false;
+			Key other = (Key) obj;
+			if (!card.equals(other.card)) return false;
+			if (move != other.move) return false;
+			return true;
+		}
+		
+	}
+	
+}
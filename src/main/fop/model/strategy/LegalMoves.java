@@ -0,0 +1,38 @@
+package fop.model.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fop.controller.GameSession;
+import fop.model.Move;
+import fop.model.MoveGenerator;
+import fop.model.Player;
+
+/**
+ *
+ * Zählt alle nach den Spielregeln erlaubten Züge eines Spielers als Liste von {@link Move}s auf.<br>
+ * <br>
+ * Die Züge und ihre Reihenfolge bestimmt der {@link MoveGenerator}. Wer viele Stellungen durchsucht,
+ * sollte diesen direkt verwenden, da hier für jeden Zug ein Objekt erstellt wird.
+ *
+ */
+public final class LegalMoves {
+	
+	private LegalMoves() {}
+	
+	/**
+	 * Liefert alle erlaubten Züge des übergebenen Spielers.
+	 * @param session die Sitzung, in der gespielt wird
+	 * @param player der Spieler
+	 * @return die erlaubten Züge; leer, wenn der Spieler keine Handkarten hat
+	 */
+	public static List<Move> of(GameSession session, Player player) {
+		MoveGenerator generator = new MoveGenerator();
+		int count = generator.generate(session, player);
+		List<Move> moves = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			moves.add(MoveGenerator.toMove(generator.get(i), player, session));
+		return moves;
+	}
+	
+}
@@ -0,0 +1,26 @@
+package fop.model.strategy;
+
+import java.util.List;
+
+import fop.controller.GameSession;
+import fop.model.ComputerPlayer;
+import fop.model.Move;
+import fop.model.Strategy;
+import fop.model.cards.Card;
+
+/**
+ *
+ * Legt in jedem Zug eine zufällige Handkarte auf den Ablagestapel.<br>
+ * Dies entspricht dem ursprünglichen Verhalten der Computerspieler und dient als Vergleich für andere Strategien.
+ *
+ */
+public final class RandomStrategy implements Strategy {
+	
+	@Override
+	public Move chooseMove(ComputerPlayer player, GameSession session) {
+		List<Card> handCards = player.getAllHandCards();
+		if (handCards.isEmpty()) return Move.nothing();
+		return Move.discard(handCards.get(session.getRandom().nextInt(handCards.size())));
+	}
+	
+}
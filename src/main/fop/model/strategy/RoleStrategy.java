@@ -0,0 +1,295 @@
+package fop.model.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import fop.controller.GameSession;
+import fop.model.ComputerPlayer;
+import fop.model.Move;
+import fop.model.Player;
+import fop.model.Player.Role;
+import fop.model.Strategy;
+import fop.model.board.FrontierCell;
+import fop.model.board.Gameboard;
+import fop.model.board.Position;
+import fop.model.cards.BrokenToolCard;
+import fop.model.cards.Card;
+import fop.model.cards.CardShape;
+import fop.model.cards.FixedToolCard;
+import fop.model.cards.GoalCard;
+import fop.model.cards.PathCard;
+import fop.model.cards.ToolType;
+
+/**
+ *
+ * Spielt abhängig von der eigenen Rolle.<br>
+ * <br>
+ * Gold- und Steinsucher reparieren zuerst ihr eigenes Werkzeug, verlängern dann wie die {@link GreedyStrategy}
+ * den Weg zu den Zielkarten, die für ihre Rolle in Frage kommen, reparieren die Werkzeuge von Verbündeten
+ * und schauen sich unbekannte Zielkarten an.<br>
+ * Saboteure blockieren die Stelle der {@link Gameboard#getFrontier() Grenze}, die einer verdeckten Zielkarte
+ * am nächsten ist: Sie legen dort Sackgassen und zerstören mit einem Steinschlag die erste Karte, die auf jedem Weg
+ * von der Startkarte dorthin liegt ({@link Gameboard#getCriticalPositions(int, int)}). Sonst zerbrechen sie
+ * das Werkzeug des Gegners mit den meisten Punkten.<br>
+ * <br>
+ * Wer als Verbündeter oder Gegner gilt, bestimmen {@link #isAlly(ComputerPlayer, Player, GameSession)} und
+ * {@link #isOpponent(ComputerPlayer, Player, GameSession)}. Ohne weitere Informationen halten Sucher alle anderen
+ * Spieler für Verbündete und Saboteure alle anderen für Gegner.
+ *
+ */
+public class RoleStrategy implements Strategy {
+	
+	/** Ab diesem Abstand der Grenze zur nächsten verdeckten Zielkarte greifen Saboteure mit Steinschlägen ein. */
+	private static final int THREAT_DISTANCE = 3;
+	
+	@Override
+	public Move chooseMove(ComputerPlayer player, GameSession session) {
+		if (player.getAllHandCards().isEmpty()) return Move.nothing();
+		
+		// every role needs its own tools first
+		Move move = fixTool(player, player);
+		if (move != null) return move;
+		
+		move = player.getRole() == Role.SABOTEUR ? sabotage(player, session) : dig(player, session);
+		return move != null ? move : discard(player);
+	}
+	
+	/**
+	 * Gibt an, ob der Spieler den anderen Spieler für einen Verbündeten hält, dessen Werkzeug er reparieren würde.
+	 * @param player der Spieler, der am Zug ist
+	 * @param other ein anderer Spieler
+	 * @param session die Sitzung, in der gespielt wird
+	 * @return {@code true} wenn der andere Spieler als Verbündeter gilt; sonst {@code false}
+	 */
+	protected boolean isAlly(ComputerPlayer player, Player other, GameSession session) {
+		return player.getRole() != Role.SABOTEUR;
+	}
+	
+	/**
+	 * Gibt an, ob der Spieler den anderen Spieler für einen Gegner hält, dessen Werkzeug er zerbrechen würde.
+	 * @param player der Spieler, der am Zug ist
+	 * @param other ein anderer Spieler
+	 * @param session die Sitzung, in der gespielt wird
+	 * @return {@code true} wenn der andere Spieler als Gegner gilt; sonst {@code false}
+	 */
+	protected boolean isOpponent(ComputerPlayer player, Player other, GameSession session) {
+		return player.getRole() == Role.SABOTEUR;
+	}
+	
+	
+	// miners //
+	
+	/**
+	 * Wählt den Zug eines Gold- oder Steinsuchers.
+	 * @param player der Spieler
+	 * @param session die Sitzung
+	 * @return der Zug; oder {@code null} wenn nur Ablegen bleibt
+	 */
+	private Move dig(ComputerPlayer player, GameSession session) {
+		Gameboard gameboard = session.getGameboard();
+		List<Position> targets = targets(player, session);
+		
+		// extend the path if it leads anywhere
+		Move best = null;
+		int bestScore = GreedyStrategy.DEAD_END + 4;
+		if (!player.hasBrokenTool()) {
+			for (Card card : player.getAllHandCards()) {
+				if (!card.isPathCard()) continue;
+				PathCard pathCard = (PathCard) card;
+				for (int rotation = 0; rotation < 2; rotation++) {
+					CardShape shape = rotation == 0 ? pathCard.getShape() : pathCard.getShape().rotated();
+					for (FrontierCell cell : gameboard.getFrontier().values()) {
+						if (!cell.accepts(shape)) continue;
+						int score = GreedyStrategy.evaluate(gameboard, cell, shape, targets);
+						if (score > bestScore) {
+							bestScore = score;
+							best = Move.place(pathCard, cell.position().x(), cell.position().y(), pathCard.isRotated() != (rotation == 1));
+						}
+					}
+				}
+			}
+		}
+		if (best != null) return best;
+		
+		for (Player other : session.getPlayers()) {
+			if (other == player) continue;
+			if (isAlly(player, other, session)) {
+				Move move = fixTool(player, other);
+				if (move != null) return move;
+			}
+		}
+		Move move = breakTool(player, session);
+		if (move != null) return move;
+		
+		// look at a goal card that is still unknown
+		Set<Position> known = session.getKnownGoalPositions(player);
+		for (Card card : player.getAllHandCards()) {
+			if (!card.isMap()) continue;
+			for (Position goal : GreedyStrategy.coveredGoals(gameboard))
+				if (!known.contains(goal)) return Move.lookAtGoal(card, goal.x(), goal.y());
+		}
+		return null;
+	}
+	
+	/**
+	 * Liefert die verdeckten Zielkarten, die für die Rolle des Spielers in Frage kommen.<br>
+	 * Bekannte Zielkarten der eigenen Art werden bevorzugt, bekannte Zielkarten der anderen Art ausgeschlossen.
+	 * @param player der Spieler
+	 * @param session die Sitzung
+	 * @return die Positionen der Ziele
+	 */
+	private static List<Position> targets(ComputerPlayer player, GameSession session) {
+		Gameboard gameboard = session.getGameboard();
+		GoalCard.Type wanted = player.getRole() == Role.STONE_MINER ? GoalCard.Type.Stone : GoalCard.Type.Gold;
+		Set<Position> known = session.getKnownGoalPositions(player);
+		List<Position> covered = GreedyStrategy.coveredGoals(gameboard);
+		List<Position> found = new ArrayList<>();
+		List<Position> possible = new ArrayList<>();
+		for (Position goal : covered) {
+			if (!known.contains(goal)) possible.add(goal);
+			else if (((GoalCard) gameboard.cardAt(goal.x(), goal.y())).getType() == wanted) found.add(goal);
+		}
+		if (!found.isEmpty()) return found;
+		return possible.isEmpty() ? covered : possible;
+	}
+	
+	
+	// saboteurs //
+	
+	/**
+	 * Wählt den Zug eines Saboteurs.
+	 * @param player der Spieler
+	 * @param session die Sitzung
+	 * @return der Zug; oder {@code null} wenn nur Ablegen bleibt
+	 */
+	private Move sabotage(ComputerPlayer player, GameSession session) {
+		Gameboard gameboard = session.getGameboard();
+		List<Position> goals = GreedyStrategy.coveredGoals(gameboard);
+		
+		// the frontier cell closest to a goal is where the miners will continue
+		FrontierCell front = null;
+		int frontDistance = Integer.MAX_VALUE;
+		for (FrontierCell cell : gameboard.getFrontier().values()) {
+			int distance = GreedyStrategy.distanceToGoal(gameboard, cell.position().x(), cell.position().y(), goals);
+			if (distance < frontDistance) {
+				frontDistance = distance;
+				front = cell;
+			}
+		}
+		
+		// close the cells closest to the goals with dead ends
+		if (!player.hasBrokenTool()) {
+			Move best = null;
+			int bestDistance = Integer.MAX_VALUE;
+			for (Card card : player.getAllHandCards()) {
+				if (!card.isPathCard()) continue;
+				PathCard pathCard = (PathCard) card;
+				for (int rotation = 0; rotation < 2; rotation++) {
+					CardShape shape = rotation == 0 ? pathCard.getShape() : pathCard.getShape().rotated();
+					for (FrontierCell cell : gameboard.getFrontier().values()) {
+						if (!cell.accepts(shape) || GreedyStrategy.evaluate(gameboard, cell, shape, goals) > GreedyStrategy.DEAD_END + 4) continue;
+						int distance = GreedyStrategy.distanceToGoal(gameboard, cell.position().x(), cell.position().y(), goals);
+						if (distance < bestDistance) {
+							bestDistance = distance;
+							best = Move.place(pathCard, cell.position().x(), cell.position().y(), pathCard.isRotated() != (rotation == 1));
+						}
+					}
+				}
+			}
+			if (best != null && bestDistance <= frontDistance) return best;
+		}
+		
+		// cut the path in front of the goals as close to the start card as possible
+		if (front != null && frontDistance <= THREAT_DISTANCE) {
+			List<Position> critical = gameboard.getCriticalPositions(front.position().x(), front.position().y());
+			for (Card card : player.getAllHandCards())
+				if (card.isRockfall() && !critical.isEmpty())
+					return Move.destroy(card, critical.get(0).x(), critical.get(0).y());
+		}
+		
+		return breakTool(player, session);
+	}
+	
+	
+	// action cards //
+	
+	/**
+	 * Sucht eine Handkarte, die ein zerbrochenes Werkzeug des Zielspielers repariert.
+	 * @param player der Spieler, der am Zug ist
+	 * @param target der Spieler, dessen Werkzeug repariert werden soll
+	 * @return der Zug; oder {@code null} wenn nichts repariert werden kann
+	 */
+	private static Move fixTool(ComputerPlayer player, Player target) {
+		for (Card card : player.getAllHandCards()) {
+			if (!card.isFixedTool()) continue;
+			for (ToolType type : ToolType.values()) {
+				BrokenToolCard brokenTool = target.getBrokenTool(type);
+				if (brokenTool != null && ((FixedToolCard) card).canFix(type))
+					return Move.fixTool(card, target, brokenTool);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Zerbricht das Werkzeug des Gegners mit den meisten Punkten.
+	 * @param player der Spieler, der am Zug ist
+	 * @param session die Sitzung
+	 * @return der Zug; oder {@code null} wenn kein Werkzeug zerbrochen werden kann
+	 */
+	private Move breakTool(ComputerPlayer player, GameSession session) {
+		Move best = null;
+		int bestScore = -1;
+		for (Card card : player.getAllHandCards()) {
+			if (!card.isBrokenTool()) continue;
+			for (Player other : session.getPlayers()) {
+				if (other == player || other.getScore() <= bestScore || !isOpponent(player, other, session)) continue;
+				if (other.canToolBeBroken((BrokenToolCard) card)) {
+					bestScore = other.getScore();
+					best = Move.breakTool(card, other);
+				}
+			}
+		}
+		return best;
+	}
+	
+	/**
+	 * Legt die Handkarte ab, die für die eigene Rolle am wenigsten nützt.
+	 * @param player der Spieler
+	 * @return der Zug
+	 */
+	private static Move discard(ComputerPlayer player) {
+		Card worst = null;
+		int worstValue = Integer.MAX_VALUE;
+		for (Card card : player.getAllHandCards()) {
+			int value = value(card, player.getRole() == Role.SABOTEUR);
+			if (value < worstValue) {
+				worstValue = value;
+				worst = card;
+			}
+		}
+		return Move.discard(worst);
+	}
+	
+	/**
+	 * Bewertet, wie nützlich eine Handkarte für Sucher oder Saboteure ist.
+	 * @param card die Karte
+	 * @param saboteur gibt an, ob der Spieler ein Saboteur ist
+	 * @return der Nutzen; je größer desto nützlicher
+	 */
+	private static int value(Card card, boolean saboteur) {
+		if (card.isPathCard()) {
+			// cards without inner edges are dead ends
+			boolean deadEnd = ((PathCard) card).getShape().edgeMask() == 0;
+			int anchors = Integer.bitCount(((PathCard) card).getShape().vertexMask());
+			if (saboteur) return deadEnd ? 6 : 4 - anchors;
+			return deadEnd ? 0 : 2 + anchors;
+		}
+		if (card.isRockfall()) return saboteur ? 8 : 1;
+		if (card.isBrokenTool()) return saboteur ? 7 : 2;
+		if (card.isFixedTool()) return saboteur ? 3 : 7;
+		return 1;
+	}
+	
+}
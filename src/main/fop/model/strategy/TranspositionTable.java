@@ -0,0 +1,143 @@
+package fop.model.strategy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import fop.model.board.Gameboard;
+
+/**
+ *
+ * Speichert Bewertungen und Besuchszahlen von Stellungen unter ihrem Hashwert,
+ * z.B. {@link Gameboard#getZobristHash()}, damit Suchen in mehreren Threads und über mehrere Züge hinweg
+ * ihre Ergebnisse teilen können.<br>
+ * <br>
+ * Die Tabelle hat eine feste Größe und kommt ohne Sperren aus: Jeder Eintrag besteht aus einem Datenwort mit
+ * Besuchszahl und mittlerer Bewertung und einem Prüfwort, das den Hashwert XOR das Datenwort enthält.
+ * Schreiben zwei Threads gleichzeitig in einen Eintrag, passen Prüf- und Datenwort nicht mehr zusammen und
+ * der Eintrag wird beim Lesen verworfen; einzelne Aktualisierungen können so verloren gehen, falsche
+ * Daten werden aber nie geliefert. Jeder Hashwert kann in zwei benachbarten Einträgen liegen;
+ * beim Ersetzen wird der Eintrag mit weniger Besuchen überschrieben.
+ *
+ */
+public final class TranspositionTable {
+	
+	/** Prüf- und Datenwort aller Einträge abwechselnd. */
+	private final AtomicLongArray entries;
+	
+	/** Die Anzahl der Einträge minus eins. */
+	private final int mask;
+	
+	/**
+	 * Erstellt eine leere Tabelle.
+	 * @param capacity die Mindestanzahl der Einträge; wird auf eine Zweierpotenz aufgerundet
+	 * @throws IllegalArgumentException wenn die Anzahl nicht zwischen {@code 2} und {@code 2^29} liegt
+	 */
+	public TranspositionTable(int capacity) {
+		if (capacity < 2 || capacity > 1 << 29) throw new IllegalArgumentException("The capacity must be between 2 and 2^29.");
+		int size = Integer.highestOneBit(capacity - 1) << 1;
+		this.entries = new AtomicLongArray(2 * size);
+		this.mask = size - 1;
+	}
+	
+	/**
+	 * Liefert die Anzahl der Besuche der Stellung.
+	 * @param hash der Hashwert der Stellung
+	 * @return die Anzahl; {@code 0} wenn die Stellung nicht gespeichert ist
+	 */
+	public int visits(long hash) {
+		long data = find(hash);
+		return data == 0 ? 0 : visitsOf(data);
+	}
+	
+	/**
+	 * Liefert die mittlere Bewertung der Stellung.
+	 * @param hash der Hashwert der Stellung
+	 * @return die Bewertung; {@link Double#NaN} wenn die Stellung nicht gespeichert ist
+	 */
+	public double value(long hash) {
+		long data = find(hash);
+		return data == 0 ? Double.NaN : valueOf(data);
+	}
+	
+	/**
+	 * Speichert Besuchszahl und mittlere Bewertung der Stellung und ersetzt einen vorhandenen Eintrag.
+	 * @param hash der Hashwert der Stellung
+	 * @param visits die Anzahl der Besuche, mindestens {@code 1}
+	 * @param value die mittlere Bewertung
+	 */
+	public void store(long hash, int visits, double value) {
+		if (visits <= 0) throw new IllegalArgumentException("A stored position needs at least one visit.");
+		write(hash, (long) visits << 32 | Float.floatToRawIntBits((float) value) & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * Zählt einen weiteren Besuch der Stellung mit der übergebenen Bewertung.
+	 * @param hash der Hashwert der Stellung
+	 * @param reward die Bewertung des Besuchs, z.B. {@code 1} für einen Sieg
+	 */
+	public void update(long hash, double reward) {
+		long data = find(hash);
+		int visits = data == 0 ? 0 : visitsOf(data);
+		double value = data == 0 ? 0 : valueOf(data);
+		if (visits == Integer.MAX_VALUE) return;
+		visits++;
+		store(hash, visits, value + (reward - value) / visits);
+	}
+	
+	/**
+	 * Entfernt alle Einträge. Darf nicht gleichzeitig mit anderen Zugriffen aufgerufen werden.
+	 */
+	public void clear() {
+		for (int i = 0; i < entries.length(); i++)
+			entries.set(i, 0);
+	}
+	
+	/**
+	 * Liefert die Anzahl der Einträge.
+	 * @return die Anzahl
+	 */
+	public int capacity() {
+		return mask + 1;
+	}
+	
+	/**
+	 * Sucht das Datenwort der Stellung in ihren beiden Einträgen.
+	 * @param hash der Hashwert
+	 * @return das Datenwort; oder {@code 0} wenn die Stellung nicht gespeichert ist
+	 */
+	private long find(long hash) {
+		int slot = (int) hash & mask;
+		for (int i = 0; i < 2; i++, slot ^= 1) {
+			long data = entries.get(2 * slot + 1);
+			if (data != 0 && (entries.get(2 * slot) ^ data) == hash) return data;
+		}
+		return 0;
+	}
+	
+	/**
+	 * Schreibt das Datenwort in den Eintrag der Stellung oder ersetzt den Eintrag mit weniger Besuchen.
+	 * @param hash der Hashwert
+	 * @param data das Datenwort
+	 */
+	private void write(long hash, long data) {
+		int first = (int) hash & mask;
+		int second = first ^ 1;
+		int slot;
+		long firstData = entries.get(2 * first + 1);
+		long secondData = entries.get(2 * second + 1);
+		if ((entries.get(2 * first) ^ firstData) == hash) slot = first;
+		else if ((entries.get(2 * second) ^ secondData) == hash) slot = second;
+		else slot = visitsOf(firstData) <= visitsOf(secondData) ? first : second;
+		// a reader that sees only one of the two new words finds a mismatch and ignores the entry
+		entries.set(2 * slot, hash ^ data);
+		entries.set(2 * slot + 1, data);
+	}
+	
+	private static int visitsOf(long data) {
+		return (int) (data >>> 32);
+	}
+	
+	private static double valueOf(long data) {
+		return Float.intBitsToFloat((int) data);
+	}
+	
+}
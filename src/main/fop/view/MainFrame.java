@@ -9,8 +9,10 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 
 import fop.io.IconReader;
+import fop.io.ImagePreloader;
 import fop.view.menu.MainMenu;
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 /**
  * 
@@ -20,10 +22,12 @@ import javax.swing.JFrame;
 @SuppressWarnings("serial")
 public final class MainFrame extends JFrame {
 	
+	private static final String TITLE = "Saboteur";
+	
 	private View activeView;
 	
 	public MainFrame() {
-		super("Saboteur");
+		super(TITLE);
 		setDefaultCloseOperation(EXIT_ON_CLOSE);
 		setMinimumSize(new Dimension(400, 240));
 		addComponentListener(new ComponentAdapter() {
@@ -60,6 +64,18 @@ public final class MainFrame extends JFrame {
 		// location //
 		pack();
 		setLocationRelativeTo(null);
+		
+		// images //
+		ImagePreloader.preload((loaded, total) -> SwingUtilities.invokeLater(() -> onPreloadProgress(loaded, total)));
+	}
+	
+	/**
+	 * Wird aufgerufen, wenn der {@link ImagePreloader} ein weiteres Bild geladen hat, und zeigt den Fortschritt im Titel an.
+	 * @param loaded die Anzahl der geladenen Bilder
+	 * @param total die Anzahl aller Bilder
+	 */
+	public void onPreloadProgress(int loaded, int total) {
+		setTitle(loaded < total ? String.format("%s (Bilder werden geladen: %d/%d)", TITLE, loaded, total) : TITLE);
 	}
 	
 	/**
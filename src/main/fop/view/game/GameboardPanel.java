@@ -1,13 +1,12 @@
 package fop.view.game;
 
 import static fop.io.CardImageReader.ASPECT_RATIO;
-import static fop.io.CardImageReader.readImage;
+import static fop.io.CardImageReader.drawImage;
 
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
-import java.awt.image.BufferedImage;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -169,9 +168,8 @@ public class GameboardPanel extends JPanel implements MouseListener, MouseMotion
 	}
 	
 	private void drawCard(Graphics2D g, Card card, Position pos, float opacity) {
-		BufferedImage img = readImage(card);
 		if (opacity != 1f) g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity));
-		g.drawImage(img, sx(pos.x()), sy(pos.y()), cardWidth, cardHeight, null);
+		drawImage(g, card, sx(pos.x()), sy(pos.y()), cardWidth, cardHeight);
 		if (opacity != 1f) g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1f));
 	}
 	
@@ -292,12 +290,11 @@ public class GameboardPanel extends JPanel implements MouseListener, MouseMotion
 		// skip if selection is not a path card
 		if (GameController.getSelectedCard() == null || !GameController.getSelectedCard().isPathCard()) return;
 		
-		// collect all valid positions
+		// collect all valid positions, only cells of the frontier can be valid
 		PathCard selectedCard = (PathCard) GameController.getSelectedCard();
-		for (int x = minX; x <= maxX; x++)
-			for (int y = minY; y <= maxY; y++)
-				if (GameController.canCardBePlacedAt(x, y, selectedCard))
-					validPositions.add(Position.of(x, y));
+		for (Position pos : GameController.getFrontierPositions())
+			if (GameController.canCardBePlacedAt(pos.x(), pos.y(), selectedCard))
+				validPositions.add(pos);
 	}
 	
 }
@@ -8,7 +8,6 @@ import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Ellipse2D;
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -105,7 +104,6 @@ public class PilePanel extends JPanel implements MouseListener, MouseMotionListe
 		
 		// == draw deck == //
 		
-		BufferedImage cardBack = CardImageReader.readImage("back");
 		double effect3Dx = cardWidth * EFFECT_3D_X;
 		double effect3Dy = cardHeight * EFFECT_3D_Y;
 		int x0 = (int) ((getWidth() - cardWidth - effect3Dx * (maxCards - 1)) / 2);
@@ -114,7 +112,7 @@ public class PilePanel extends JPanel implements MouseListener, MouseMotionListe
 		drawDeckPosition = new Rectangle(x0, (int) (y0 - effect3Dy * drawDeckSize),
 				(int) (cardWidth + effect3Dx * drawDeckSize), (int) (cardHeight + effect3Dy * drawDeckSize));
 		for (int i = 0; i < drawDeckSize; i += EVERY_NTH_DRAW_DECK_CARD)
-			g.drawImage(cardBack, x0 + (int) (effect3Dx * i), y0 - (int) (effect3Dy * i), cardWidth, cardHeight, null);
+			CardImageReader.drawImage(g, "back", x0 + (int) (effect3Dx * i), y0 - (int) (effect3Dy * i), cardWidth, cardHeight);
 		
 		
 		// == discard pile == //
@@ -152,13 +150,12 @@ public class PilePanel extends JPanel implements MouseListener, MouseMotionListe
 		for (int i = Math.max(0, discardPile.size() - MAX_DRAW_PILE_CARDS); i < discardPile.size(); i++) {
 			Card card = discardPile.get(i);
 			if (card == null) continue;
-			BufferedImage cardImage = CardImageReader.readImage(card);
-			AffineTransform af = new AffineTransform();
-			af.translate(translationListX.get(i) * cardWidth, translationListY.get(i) * cardHeight);
-			af.translate(x0, y0);
-			af.scale((double) cardWidth / cardImage.getWidth(), (double) cardHeight / cardImage.getHeight());
-			af.rotate(rotationList.get(i), cardImage.getWidth() / 2, cardImage.getHeight() / 2);
-			g.drawImage(cardImage, af, null);
+			// rotated cards are drawn from the unrotated image, see CardImageReader.drawImage
+			AffineTransform transform = g.getTransform();
+			g.translate(x0 + translationListX.get(i) * cardWidth, y0 + translationListY.get(i) * cardHeight);
+			g.rotate(rotationList.get(i), cardWidth / 2.0, cardHeight / 2.0);
+			CardImageReader.drawImage(g, card, 0, 0, cardWidth, cardHeight);
+			g.setTransform(transform);
 		}
 		
 		// highlight discard pile
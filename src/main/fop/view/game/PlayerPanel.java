@@ -163,9 +163,8 @@ public class PlayerPanel extends JPanel implements MouseListener, MouseMotionLis
 		
 		// draw role //
 		String roleImageName = player == GameController.getActivePlayer() ? String.format("role_%s", player.getRole().name().toLowerCase()) : "role";
-		BufferedImage roleImage = CardImageReader.readImage(roleImageName);
 		rolePosition = new Rectangle(scrollX + padding, padding + infoHeight + padding * 3 / 2, cardWidth, cardHeight);
-		g.drawImage(roleImage, rolePosition.x, rolePosition.y, rolePosition.width, rolePosition.height, null);
+		CardImageReader.drawImage(g, roleImageName, rolePosition.x, rolePosition.y, rolePosition.width, rolePosition.height);
 		cardsWidth += cardWidth;
 		cardsHeight += cardHeight;
 		
@@ -187,7 +186,7 @@ public class PlayerPanel extends JPanel implements MouseListener, MouseMotionLis
 				x += padding;
 				boolean moveUp = card == mouseHandCard || card == selectedCard; // move up if selected or hovered
 				Rectangle rect = new Rectangle(x, moveUp ? y - padding : y, cardWidth, cardHeight);
-				g.drawImage(CardImageReader.readImage(card), rect.x, rect.y, rect.width, rect.height, null);
+				CardImageReader.drawImage(g, card, rect.x, rect.y, rect.width, rect.height);
 				
 				// highlight if selected card
 				if (card == selectedCard) {
@@ -0,0 +1,65 @@
+package fop.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ *
+ * Prüft, dass ein Turnier mit demselben Startwert immer dieselben Gewinnquoten liefert.<br>
+ * <br>
+ * Verglichen werden zwei Turniere in diesem Prozess, jeweils mit mehreren Threads, und zwei Turniere in neu
+ * gestarteten Prozessen. Nur die zweiten decken Abhängigkeiten von Identitäts-Hashwerten auf, da diese in jedem
+ * Prozess anders vergeben werden. Die erste Zeile mit der Laufzeit wird nicht verglichen.
+ * Aufruf: {@code ant test} oder {@code java -cp bin/main:bin/test fop.controller.TournamentDeterminismCheck [Spiele] [Startwert]}
+ *
+ */
+public final class TournamentDeterminismCheck {
+	
+	private TournamentDeterminismCheck() {}
+	
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+		
+		List<String> results = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		for (int i = 0; i < 2; i++)
+			results.add(withoutTiming(Tournament.withAllStrategies().run(games, seed, pool).toString()));
+		pool.shutdown();
+		for (int i = 0; i < 2; i++)
+			results.add(withoutTiming(runInNewProcess(games, seed)));
+		
+		for (int i = 1; i < results.size(); i++) {
+			if (!results.get(i).equals(results.get(0))) {
+				System.err.printf("Run %d differs from run 0 with seed %d:%n%s%nvs.%n%s", i, seed, results.get(0), results.get(i));
+				System.exit(1);
+			}
+		}
+		System.out.printf("%d tournaments with seed %d agree:%n%s", results.size(), seed, results.get(0));
+	}
+	
+	/**
+	 * Spielt ein Turnier mit {@link Tournament#main(String[])} in einem neuen Prozess mit mehreren Threads.
+	 * @param games die Anzahl der Spiele
+	 * @param seed der Startwert
+	 * @return die Ausgabe des Turniers
+	 */
+	private static String runInNewProcess(int games, long seed) throws IOException, InterruptedException {
+		String java = String.join(File.separator, System.getProperty("java.home"), "bin", "java");
+		Process process = new ProcessBuilder(java, "-Djava.util.concurrent.ForkJoinPool.common.parallelism=4",
+				"-cp", System.getProperty("java.class.path"), Tournament.class.getName(), Integer.toString(games), Long.toString(seed))
+				.redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+		if (process.waitFor() != 0) throw new IllegalStateException("The tournament process failed.");
+		return output;
+	}
+	
+	private static String withoutTiming(String result) {
+		return result.substring(result.indexOf('\n') + 1);
+	}
+	
+}
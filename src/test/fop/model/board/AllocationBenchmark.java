@@ -0,0 +1,119 @@
+package fop.model.board;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import fop.io.PathCardReader;
+import fop.model.cards.CardAnchor;
+import fop.model.cards.GoalCard;
+import fop.model.cards.PathCard;
+import fop.model.cards.StartCard;
+
+/**
+ *
+ * Misst, wie viele Bytes die häufig genutzten Methoden des Wegelabyrinths pro Aufruf allokieren.<br>
+ * <br>
+ * Gemessen wird über {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} für den aktuellen Thread.
+ * Aufruf: {@code ant benchmark} oder {@code java -cp bin/main:bin/test fop.model.board.AllocationBenchmark [Wiederholungen]}
+ *
+ */
+public final class AllocationBenchmark {
+	
+	private AllocationBenchmark() {}
+	
+	public static void main(String[] args) {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		Gameboard gameboard = createMaze();
+		List<PathCard> cards = PathCardReader.readFromResource("/pathcards.xml");
+		
+		// warm up so that the JIT has compiled all hot paths
+		for (int i = 0; i < rounds; i++) {
+			sweep(gameboard, cards);
+			lookups();
+		}
+		
+		long sweeps = (long) rounds * cards.size() * 21 * 21;
+		long sweepBytes = measure(() -> {
+			for (int i = 0; i < rounds; i++)
+				sweep(gameboard, cards);
+		});
+		long lookups = (long) rounds * 21 * 21 * CardAnchor.values().length;
+		long lookupBytes = measure(() -> {
+			for (int i = 0; i < rounds; i++)
+				lookups();
+		});
+		long placements = (long) rounds * 8;
+		long placementBytes = measure(() -> {
+			for (int i = 0; i < rounds; i++)
+				placeAndRemove(gameboard, cards);
+		});
+		
+		System.out.printf("canCardBePlacedAt:        %8.2f bytes/call%n", (double) sweepBytes / sweeps);
+		System.out.printf("Position/BoardAnchor.of:  %8.2f bytes/call%n", (double) lookupBytes / lookups);
+		System.out.printf("placeCard + removeCard:   %8.2f bytes/call%n", (double) placementBytes / placements);
+	}
+	
+	/**
+	 * Erstellt ein Wegelabyrinth mit einem Weg von der Start- bis kurz vor die Zielkarten.
+	 * @return das Wegelabyrinth
+	 */
+	private static Gameboard createMaze() {
+		Gameboard gameboard = new Gameboard();
+		gameboard.placeCard(0, 0, new StartCard());
+		gameboard.placeCard(8, -2, new GoalCard(GoalCard.Type.Gold));
+		gameboard.placeCard(8, 0, new GoalCard(GoalCard.Type.Stone));
+		gameboard.placeCard(8, 2, new GoalCard(GoalCard.Type.Stone));
+		for (int x = 1; x < 7; x++)
+			gameboard.placeCard(x, 0, new StartCard());
+		for (int y = -3; y <= 3; y++)
+			if (y != 0) gameboard.placeCard(3, y, new StartCard());
+		return gameboard;
+	}
+	
+	private static void sweep(Gameboard gameboard, List<PathCard> cards) {
+		for (PathCard card : cards)
+			for (int x = -10; x <= 10; x++)
+				for (int y = -10; y <= 10; y++)
+					gameboard.canCardBePlacedAt(x, y, card);
+	}
+	
+	/** Hält die zuletzt erzeugten Knoten, damit der JIT die Allokationen nicht wegoptimiert. */
+	private static final BoardAnchor[] sink = new BoardAnchor[CardAnchor.values().length];
+	
+	/** {@link CardAnchor#values()} erzeugt bei jedem Aufruf ein neues Feld. */
+	private static final CardAnchor[] anchors = CardAnchor.values();
+	
+	private static void lookups() {
+		for (int x = -10; x <= 10; x++)
+			for (int y = -10; y <= 10; y++)
+				for (CardAnchor anchor : anchors)
+					sink[anchor.ordinal()] = BoardAnchor.of(x, y, anchor);
+	}
+	
+	private static void placeAndRemove(Gameboard gameboard, List<PathCard> cards) {
+		for (int y = -3; y <= 3; y += 2) {
+			gameboard.placeCard(7, y, cards.get(0));
+			gameboard.removeCard(7, y);
+		}
+		for (int x = 4; x <= 6; x++) {
+			gameboard.placeCard(x, 1, cards.get(0));
+			gameboard.removeCard(x, 1);
+		}
+		gameboard.placeCard(2, -1, cards.get(0));
+		gameboard.removeCard(2, -1);
+	}
+	
+	/**
+	 * Misst die Anzahl der Bytes, die der aktuelle Thread beim Ausführen allokiert.
+	 * @param task die zu messende Aufgabe
+	 * @return die allokierten Bytes
+	 */
+	private static long measure(Runnable task) {
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long id = Thread.currentThread().getId();
+		long before = bean.getThreadAllocatedBytes(id);
+		task.run();
+		return bean.getThreadAllocatedBytes(id) - before;
+	}
+	
+}
@@ -0,0 +1,55 @@
+package fop.model.board;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ *
+ * Prüft {@link Gameboard#getCriticalPositions(int, int)} gegen Entfernen und erneutes Prüfen.<br>
+ * <br>
+ * In zufälligen Spielverläufen von {@link RandomMaze} wird für jedes Feld der Grenze jede entfernbare Karte
+ * probeweise entfernt. Genau die Karten, ohne die das Feld nicht mehr zur Grenze gehört, müssen kritisch sein,
+ * jede höchstens einmal.
+ * Aufruf: {@code ant test} oder {@code java -cp bin/main:bin/test fop.model.board.CriticalPositionsCheck [Spiele] [Startwert]}
+ *
+ */
+public final class CriticalPositionsCheck {
+
+	private CriticalPositionsCheck() {}
+
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+
+		int cells = 0, critical = 0;
+		for (int game = 0; game < games; game++) {
+			RandomMaze maze = new RandomMaze(seed + game);
+			Gameboard gameboard = maze.gameboard();
+			for (int step = 0; step < 40; step++) {
+				maze.step();
+				if (step % 4 != 3) continue;
+
+				List<Position> removable = maze.removablePositions();
+				for (Position cell : RandomMaze.sorted(gameboard.getFrontier().keySet())) {
+					List<Position> actual = gameboard.getCriticalPositions(cell.x(), cell.y());
+					List<Position> expected = new ArrayList<>();
+					for (Position pos : removable) {
+						Gameboard.Snapshot snapshot = gameboard.snapshot();
+						gameboard.removeCard(pos.x(), pos.y());
+						if (!gameboard.getFrontier().containsKey(cell)) expected.add(pos);
+						gameboard.rollback(snapshot);
+					}
+					if (actual.size() != new HashSet<>(actual).size() || !new HashSet<>(actual).equals(new HashSet<>(expected))) {
+						System.err.printf("Game %d, step %d: the critical cards of %s are %s instead of %s%n", game, step, cell, actual, expected);
+						System.exit(1);
+					}
+					cells++;
+					critical += actual.size();
+				}
+			}
+		}
+		System.out.printf("%d games: the critical cards of %d frontier cells (%d in total) agree with remove-and-retest%n", games, cells, critical);
+	}
+
+}
@@ -0,0 +1,116 @@
+package fop.model.board;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ *
+ * Prüft die inkrementell angepassten Abstände von {@link Gameboard#getGoalDistance(int, int, Position)} gegen eine
+ * vollständige Breitensuche.<br>
+ * <br>
+ * In zufälligen Spielverläufen von {@link RandomMaze} mit Legen, Entfernen und Zurücknehmen wird nach jedem Schritt
+ * für jede Zielkarte eine Breitensuche über die freien Felder eines großzügigen Bereichs um das Raster gestartet
+ * und mit den Abständen aller Felder im Raster und seiner Umgebung verglichen.
+ * Aufruf: {@code ant test} oder {@code java -cp bin/main:bin/test fop.model.board.DistanceFieldCheck [Spiele] [Startwert]}
+ *
+ */
+public final class DistanceFieldCheck {
+	
+	/** Der Rand um das Raster, in dem die Abstände verglichen werden. */
+	private static final int COMPARED = 3;
+	
+	/** Der Rand um das Raster, über den die Breitensuche läuft. */
+	private static final int SEARCHED = 5;
+	
+	private DistanceFieldCheck() {}
+	
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+		
+		long cells = 0;
+		int steps = 0;
+		for (int game = 0; game < games; game++) {
+			RandomMaze maze = new RandomMaze(seed + game);
+			Gameboard gameboard = maze.gameboard();
+			SplittableRandom random = maze.random();
+			Gameboard.Snapshot snapshot = null;
+			for (int step = 0; step < 60; step++) {
+				int kind = random.nextInt(10);
+				if (kind == 0 && snapshot == null) {
+					snapshot = gameboard.snapshot();
+				} else if (kind == 1 && snapshot != null) {
+					gameboard.rollback(snapshot);
+					snapshot = null;
+				} else if (kind == 2) {
+					maze.remove();
+				} else {
+					maze.step();
+				}
+				cells += compare(gameboard, game, step);
+				steps++;
+			}
+		}
+		System.out.printf("%d games: %d distances after %d steps agree with a breadth-first search%n", games, cells, steps);
+	}
+	
+	/**
+	 * Vergleicht die Abstände aller Felder zu jeder Zielkarte mit einer Breitensuche.
+	 * @return die Anzahl der verglichenen Abstände
+	 */
+	private static int compare(Gameboard gameboard, int game, int step) {
+		int minX = 0, maxX = 0, minY = 0, maxY = 0;
+		for (Position pos : gameboard.getBoard().keySet()) {
+			minX = Math.min(minX, pos.x());
+			maxX = Math.max(maxX, pos.x());
+			minY = Math.min(minY, pos.y());
+			maxY = Math.max(maxY, pos.y());
+		}
+		
+		int cells = 0;
+		for (Position goal : gameboard.getGoalPositions()) {
+			int[][] expected = search(gameboard, goal, minX - SEARCHED, minY - SEARCHED, maxX + SEARCHED, maxY + SEARCHED);
+			for (int y = minY - COMPARED; y <= maxY + COMPARED; y++) {
+				for (int x = minX - COMPARED; x <= maxX + COMPARED; x++) {
+					int actual = gameboard.getGoalDistance(x, y, goal);
+					int distance = expected[y - minY + SEARCHED][x - minX + SEARCHED];
+					if (actual != distance) {
+						System.err.printf("Game %d, step %d: the distance of (%d, %d) to %s is %d instead of %d%n", game, step, x, y, goal, actual, distance);
+						System.exit(1);
+					}
+					cells++;
+				}
+			}
+		}
+		return cells;
+	}
+	
+	/**
+	 * Sucht von der Zielkarte aus in die Breite über alle freien Felder des übergebenen Bereichs.
+	 * @return die Abstände, zeilenweise beginnend bei {@code (minX, minY)}
+	 */
+	private static int[][] search(Gameboard gameboard, Position goal, int minX, int minY, int maxX, int maxY) {
+		int[][] distances = new int[maxY - minY + 1][maxX - minX + 1];
+		for (int[] row : distances)
+			Arrays.fill(row, Integer.MAX_VALUE);
+		distances[goal.y() - minY][goal.x() - minX] = 0;
+		Deque<Position> queue = new ArrayDeque<>(List.of(goal));
+		while (!queue.isEmpty()) {
+			Position pos = queue.poll();
+			int next = distances[pos.y() - minY][pos.x() - minX] + 1;
+			for (int[] d : new int[][] { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } }) {
+				int x = pos.x() + d[0], y = pos.y() + d[1];
+				if (x < minX || x > maxX || y < minY || y > maxY) continue;
+				// occupied cells, including the other goal cards, cannot be passed
+				if (gameboard.cardAt(x, y) != null || distances[y - minY][x - minX] != Integer.MAX_VALUE) continue;
+				distances[y - minY][x - minX] = next;
+				queue.add(Position.of(x, y));
+			}
+		}
+		return distances;
+	}
+	
+}
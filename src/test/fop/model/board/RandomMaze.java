@@ -0,0 +1,137 @@
+package fop.model.board;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import fop.io.PathCardReader;
+import fop.model.cards.GoalCard;
+import fop.model.cards.PathCard;
+import fop.model.cards.StartCard;
+
+/**
+ *
+ * Erzeugt für die Prüfungen des Wegelabyrinths zufällige Spielverläufe aus erlaubten Zügen.<br>
+ * <br>
+ * Das Wegelabyrinth beginnt wie im Spiel mit einer Startkarte und drei Zielkarten. Jeder Schritt legt eine
+ * zufällige Wegekarte aus {@value #PATH_CARDS} auf ein passendes Feld der Grenze oder entfernt eine gelegte Wegekarte.
+ * Die Hälfte der Karten wird vorab gedreht; danach werden Karten nicht mehr gedreht, damit zurückgenommene
+ * Änderungen genau die vorherigen Karten wiederherstellen. Derselbe Startwert ergibt denselben Verlauf.
+ *
+ */
+final class RandomMaze {
+	
+	/** Die Ressource mit den Wegekarten. */
+	private static final String PATH_CARDS = "/pathcards.xml";
+	
+	private final Gameboard gameboard = new Gameboard();
+	private final List<PathCard> deck;
+	private final SplittableRandom random;
+	
+	/**
+	 * Erstellt ein Wegelabyrinth mit Start- und Zielkarten.
+	 * @param seed der Startwert des Zufallsgenerators
+	 */
+	RandomMaze(long seed) {
+		random = new SplittableRandom(seed);
+		deck = PathCardReader.readFromResource(PATH_CARDS);
+		for (PathCard card : deck)
+			if (random.nextBoolean()) card.rotate();
+		
+		List<GoalCard> goals = new ArrayList<>(List.of(new GoalCard(GoalCard.Type.Gold), new GoalCard(GoalCard.Type.Stone), new GoalCard(GoalCard.Type.Stone)));
+		Collections.swap(goals, 0, random.nextInt(goals.size()));
+		gameboard.placeCard(0, 0, new StartCard());
+		gameboard.placeCard(8, -2, goals.get(0));
+		gameboard.placeCard(8, 0, goals.get(1));
+		gameboard.placeCard(8, 2, goals.get(2));
+	}
+	
+	Gameboard gameboard() {
+		return gameboard;
+	}
+	
+	SplittableRandom random() {
+		return random;
+	}
+	
+	/**
+	 * Legt meistens eine Wegekarte und entfernt manchmal eine, immer dann, wenn keine Karte gelegt werden kann.
+	 */
+	void step() {
+		if (random.nextInt(5) == 0 && remove()) return;
+		if (!place()) remove();
+	}
+	
+	/**
+	 * Legt eine zufällige freie Wegekarte auf ein zufälliges Feld der Grenze, auf das sie passt.
+	 * @return {@code true} wenn eine Karte gelegt wurde
+	 */
+	boolean place() {
+		List<Position> cells = sorted(gameboard.getFrontier().keySet());
+		List<PathCard> free = freeCards();
+		if (cells.isEmpty() || free.isEmpty()) return false;
+		for (int attempt = 0; attempt < 50; attempt++) {
+			Position pos = cells.get(random.nextInt(cells.size()));
+			PathCard card = free.get(random.nextInt(free.size()));
+			if (!gameboard.canCardBePlacedAt(pos.x(), pos.y(), card)) continue;
+			gameboard.placeCard(pos.x(), pos.y(), card);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Entfernt eine zufällige Wegekarte, die keine Start- oder Zielkarte ist.
+	 * @return {@code true} wenn eine Karte entfernt wurde
+	 */
+	boolean remove() {
+		List<Position> positions = removablePositions();
+		if (positions.isEmpty()) return false;
+		Position pos = positions.get(random.nextInt(positions.size()));
+		gameboard.removeCard(pos.x(), pos.y());
+		return true;
+	}
+	
+	/**
+	 * Liefert die Positionen aller Karten, die mit einem Steinschlag entfernt werden können.
+	 * @return die Positionen, sortiert
+	 */
+	List<Position> removablePositions() {
+		List<Position> positions = new ArrayList<>();
+		for (Position pos : sorted(gameboard.getBoard().keySet())) {
+			PathCard card = gameboard.cardAt(pos.x(), pos.y());
+			if (!card.isStartCard() && !card.isGoalCard()) positions.add(pos);
+		}
+		return positions;
+	}
+	
+	/**
+	 * Liefert alle Wegekarten, die gerade nicht im Wegelabyrinth liegen, z.B. nach einem Zurücknehmen.
+	 * @return die Karten
+	 */
+	private List<PathCard> freeCards() {
+		Set<PathCard> placed = Collections.newSetFromMap(new IdentityHashMap<>());
+		placed.addAll(gameboard.getBoard().values());
+		List<PathCard> free = new ArrayList<>();
+		for (PathCard card : deck)
+			if (!placed.contains(card)) free.add(card);
+		return free;
+	}
+	
+	/**
+	 * Sortiert Positionen nach Zeile und Spalte, damit der Verlauf nicht von der Reihenfolge einer Hashtabelle abhängt.
+	 * @param positions die Positionen
+	 * @return eine sortierte Kopie
+	 */
+	static List<Position> sorted(Collection<Position> positions) {
+		List<Position> list = new ArrayList<>(positions);
+		list.sort(Comparator.comparingInt(Position::y).thenComparingInt(Position::x));
+		return list;
+	}
+	
+}
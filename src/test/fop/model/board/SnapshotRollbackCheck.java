@@ -0,0 +1,126 @@
+package fop.model.board;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import fop.model.cards.GoalCard;
+import fop.model.cards.PathCard;
+
+/**
+ *
+ * Prüft, dass {@link Gameboard#rollback(Gameboard.Snapshot)} genau den Zustand beim Erstellen des Schnappschusses
+ * wiederherstellt.<br>
+ * <br>
+ * In zufälligen Spielverläufen von {@link RandomMaze} werden verschachtelte Schnappschüsse erstellt, übernommen und
+ * zurückgenommen. Nach jedem Zurücknehmen werden Karten, Drehungen, verdeckte Zielkarten, die Reihenfolge der
+ * Zielkarten, Graph, Grenze, Abstände, kritische Karten und Hashwert mit dem gespeicherten Zustand verglichen.
+ * Aufruf: {@code ant test} oder {@code java -cp bin/main:bin/test fop.model.board.SnapshotRollbackCheck [Spiele] [Startwert]}
+ *
+ */
+public final class SnapshotRollbackCheck {
+	
+	private SnapshotRollbackCheck() {}
+	
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+		
+		int rollbacks = 0, commits = 0;
+		for (int game = 0; game < games; game++) {
+			RandomMaze maze = new RandomMaze(seed + game);
+			Gameboard gameboard = maze.gameboard();
+			SplittableRandom random = maze.random();
+			for (int i = random.nextInt(30); i > 0; i--)
+				maze.step();
+			
+			List<Gameboard.Snapshot> snapshots = new ArrayList<>();
+			List<List<Object>> states = new ArrayList<>();
+			for (int op = 0; op < 200; op++) {
+				int kind = random.nextInt(10);
+				if (kind < 2 || snapshots.isEmpty()) {
+					states.add(state(gameboard));
+					snapshots.add(gameboard.snapshot());
+				} else if (kind < 7) {
+					maze.step();
+				} else if (kind < 9) {
+					int depth = random.nextInt(snapshots.size());
+					gameboard.rollback(snapshots.get(depth));
+					check(states.get(depth), state(gameboard), game, op);
+					truncate(snapshots, states, depth);
+					rollbacks++;
+				} else {
+					int depth = random.nextInt(snapshots.size());
+					gameboard.commit(snapshots.get(depth));
+					truncate(snapshots, states, depth);
+					commits++;
+				}
+			}
+			if (!snapshots.isEmpty()) {
+				Gameboard.Snapshot closed = snapshots.get(snapshots.size() - 1);
+				gameboard.rollback(snapshots.get(0));
+				check(states.get(0), state(gameboard), game, -1);
+				rollbacks++;
+				try {
+					gameboard.rollback(closed);
+					fail("A closed snapshot was rolled back in game %d.", game);
+				} catch (IllegalStateException expected) {}
+			}
+		}
+		System.out.printf("%d games: %d rollbacks restored the snapshot state, %d commits%n", games, rollbacks, commits);
+	}
+	
+	/**
+	 * Erfasst alle beobachtbaren Eigenschaften des Wegelabyrinths als vergleichbare Kopie.
+	 * @param gameboard das Wegelabyrinth
+	 * @return der Zustand
+	 */
+	static List<Object> state(Gameboard gameboard) {
+		List<Object> state = new ArrayList<>();
+		List<Position> positions = RandomMaze.sorted(gameboard.getBoard().keySet());
+		int minX = 0, maxX = 0, minY = 0, maxY = 0;
+		for (Position pos : positions) {
+			PathCard card = gameboard.cardAt(pos.x(), pos.y());
+			boolean covered = card.isGoalCard() && ((GoalCard) card).isCovered();
+			state.add(String.format("%s %s %d %b %b", pos, card.getName(), card.getShape().id(), card.isRotated(), covered));
+			minX = Math.min(minX, pos.x());
+			maxX = Math.max(maxX, pos.x());
+			minY = Math.min(minY, pos.y());
+			maxY = Math.max(maxY, pos.y());
+		}
+		state.add(new ArrayList<>(gameboard.getGoalPositions()));
+		state.add(new HashSet<>(gameboard.graph.vertices()));
+		state.add(new HashSet<>(gameboard.graph.edges()));
+		state.add(new HashSet<>(gameboard.getFrontier().values()));
+		for (Position cell : RandomMaze.sorted(gameboard.getFrontier().keySet()))
+			state.add(gameboard.getCriticalPositions(cell.x(), cell.y()));
+		for (Position goal : gameboard.getGoalPositions())
+			for (int y = minY - 2; y <= maxY + 2; y++)
+				for (int x = minX - 2; x <= maxX + 2; x++)
+					state.add(gameboard.getGoalDistance(x, y, goal));
+		state.add(gameboard.isGoldCardVisible());
+		state.add(gameboard.isStoneCardVisible());
+		state.add(gameboard.getZobristHash());
+		return state;
+	}
+	
+	private static void check(List<Object> expected, List<Object> actual, int game, int op) {
+		if (expected.equals(actual)) return;
+		for (int i = 0; i < Math.min(expected.size(), actual.size()); i++)
+			if (!expected.get(i).equals(actual.get(i)))
+				fail("Game %d, operation %d: rollback restored %s instead of %s", game, op, actual.get(i), expected.get(i));
+		fail("Game %d, operation %d: rollback restored %d properties instead of %d", game, op, actual.size(), expected.size());
+	}
+	
+	private static void truncate(List<Gameboard.Snapshot> snapshots, List<List<Object>> states, int depth) {
+		snapshots.subList(depth, snapshots.size()).clear();
+		states.subList(depth, states.size()).clear();
+	}
+	
+	private static void fail(String format, Object... args) {
+		System.err.printf(format + "%n", args);
+		System.exit(1);
+	}
+	
+}
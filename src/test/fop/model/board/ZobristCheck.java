@@ -0,0 +1,77 @@
+package fop.model.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import fop.model.cards.PathCard;
+
+/**
+ *
+ * Prüft den inkrementell angepassten {@link Gameboard#getZobristHash() Hashwert} gegen eine vollständige Neuberechnung.<br>
+ * <br>
+ * In zufälligen Spielverläufen von {@link RandomMaze} mit Legen, Entfernen, Aufdecken von Zielkarten sowie
+ * verschachtelten Schnappschüssen wird nach jedem Schritt die XOR-Verknüpfung der {@link Zobrist}-Schlüssel aller
+ * Karten berechnet. Nach jedem Zurücknehmen muss außerdem der Hashwert beim Erstellen des Schnappschusses gelten.
+ * Aufruf: {@code ant test} oder {@code java -cp bin/main:bin/test fop.model.board.ZobristCheck [Spiele] [Startwert]}
+ *
+ */
+public final class ZobristCheck {
+	
+	private ZobristCheck() {}
+	
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+		
+		int steps = 0, rollbacks = 0;
+		for (int game = 0; game < games; game++) {
+			RandomMaze maze = new RandomMaze(seed + game);
+			Gameboard gameboard = maze.gameboard();
+			SplittableRandom random = maze.random();
+			List<Gameboard.Snapshot> snapshots = new ArrayList<>();
+			List<Long> hashes = new ArrayList<>();
+			for (int step = 0; step < 100; step++) {
+				int kind = random.nextInt(10);
+				if (kind == 0) {
+					hashes.add(gameboard.getZobristHash());
+					snapshots.add(gameboard.snapshot());
+				} else if (kind == 1 && !snapshots.isEmpty()) {
+					int depth = random.nextInt(snapshots.size());
+					gameboard.rollback(snapshots.get(depth));
+					if (gameboard.getZobristHash() != hashes.get(depth))
+						fail("Game %d, step %d: rollback restored the hash %x instead of %x", game, step, gameboard.getZobristHash(), hashes.get(depth));
+					snapshots.subList(depth, snapshots.size()).clear();
+					hashes.subList(depth, hashes.size()).clear();
+					rollbacks++;
+				} else {
+					maze.step();
+				}
+				long expected = recompute(gameboard);
+				if (gameboard.getZobristHash() != expected)
+					fail("Game %d, step %d: the hash is %x instead of %x", game, step, gameboard.getZobristHash(), expected);
+				steps++;
+			}
+		}
+		System.out.printf("%d games: the hash after %d steps and %d rollbacks agrees with a full recomputation%n", games, steps, rollbacks);
+	}
+	
+	/**
+	 * Berechnet den Hashwert aus allen Karten des Wegelabyrinths neu.
+	 * @param gameboard das Wegelabyrinth
+	 * @return der Hashwert
+	 */
+	private static long recompute(Gameboard gameboard) {
+		long hash = 0;
+		for (Map.Entry<Position, PathCard> entry : gameboard.getBoard().entrySet())
+			hash ^= Zobrist.key(entry.getKey().x(), entry.getKey().y(), entry.getValue());
+		return hash;
+	}
+	
+	private static void fail(String format, Object... args) {
+		System.err.printf(format + "%n", args);
+		System.exit(1);
+	}
+	
+}
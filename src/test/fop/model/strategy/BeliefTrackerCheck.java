@@ -0,0 +1,136 @@
+package fop.model.strategy;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import fop.controller.GameSession;
+import fop.model.ComputerPlayer;
+import fop.model.Player;
+import fop.model.Player.Role;
+
+/**
+ *
+ * Prüft die Randverteilungen des {@link BeliefTracker} gegen eine vollständige Aufzählung aller Rollenzuordnungen.<br>
+ * <br>
+ * In zufälligen Spielen mit 3 bis 7 Spielern und gemischten Strategien, darunter {@link BeliefStrategy} mit dem
+ * geprüften Tracker, wird an mehreren Zeitpunkten für jeden Spieler, jede Rolle und jeden Beobachter verglichen.
+ * Die Aufzählung zieht die Rollen wie {@link GameSession#assignRoles()} ohne Zurücklegen aus den verteilten Rollen
+ * und gewichtet jede Zuordnung mit den Gewichten des Trackers. Jede Abfrage wird zweimal gestellt, damit auch die
+ * zwischengespeicherten Ergebnisse geprüft werden.
+ * Aufruf: {@code ant test} oder {@code java -cp bin/main:bin/test fop.model.strategy.BeliefTrackerCheck [Spiele] [Startwert]}
+ *
+ */
+public final class BeliefTrackerCheck {
+	
+	/** Die größte erlaubte Abweichung einer Wahrscheinlichkeit. */
+	private static final double TOLERANCE = 1e-9;
+	
+	private static final Role[] ROLES = Role.values();
+	
+	private BeliefTrackerCheck() {}
+	
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+		
+		int comparisons = 0;
+		for (int game = 0; game < games; game++) {
+			SplittableRandom random = new SplittableRandom(seed + game);
+			GameSession session = new GameSession(random.nextLong());
+			BeliefTracker tracker = new BeliefTracker(session);
+			int playerCount = 3 + random.nextInt(5);
+			for (int i = 0; i < playerCount; i++) {
+				String name = "Player " + i;
+				switch (random.nextInt(4)) {
+					case 0:
+						session.addPlayer(new ComputerPlayer(name, session, new RandomStrategy()));
+						break;
+					case 1:
+						session.addPlayer(new ComputerPlayer(name, session, new GreedyStrategy()));
+						break;
+					case 2:
+						session.addPlayer(new ComputerPlayer(name, session, new RoleStrategy()));
+						break;
+					default:
+						session.addPlayer(new ComputerPlayer(name, session, new BeliefStrategy(tracker)));
+				}
+			}
+			
+			session.startGame();
+			for (int turn = 0; session.getWinners() == null; turn++) {
+				if (turn % 16 == 0) comparisons += compare(session, tracker, game, turn);
+				ComputerPlayer player = (ComputerPlayer) session.getActivePlayer();
+				if (player.getAllHandCards().isEmpty()) session.doNothing();
+				else player.takeTurn();
+			}
+		}
+		System.out.printf("%d games: %d marginals agree with the enumeration of all role assignments%n", games, comparisons);
+	}
+	
+	/**
+	 * Vergleicht die Randverteilungen aller Spieler aus Sicht eines Zuschauers und jedes Spielers.
+	 * @return die Anzahl der verglichenen Wahrscheinlichkeiten
+	 */
+	private static int compare(GameSession session, BeliefTracker tracker, int game, int turn) {
+		Player[] players = session.getPlayers();
+		int comparisons = 0;
+		for (int o = -1; o < players.length; o++) {
+			Player observer = o < 0 ? null : players[o];
+			double[][] expected = enumerate(players, session.getDealtRoles(), tracker, observer);
+			for (int repeat = 0; repeat < 2; repeat++) {
+				for (int i = 0; i < players.length; i++) {
+					for (Role role : ROLES) {
+						double actual = tracker.probability(players[i], role, observer);
+						if (Math.abs(actual - expected[i][role.ordinal()]) > TOLERANCE) {
+							System.err.printf("Game %d, turn %d: P(%s is %s | observer %s) is %f instead of %f%n", game, turn,
+									players[i].getName(), role, observer == null ? "none" : observer.getName(), actual, expected[i][role.ordinal()]);
+							System.exit(1);
+						}
+						comparisons++;
+					}
+				}
+			}
+		}
+		return comparisons;
+	}
+	
+	/**
+	 * Zählt alle Zuordnungen der verteilten Rollen zu den Spielern auf und summiert ihre Gewichte je Spieler und Rolle.
+	 * @param observer der Spieler, dessen Rolle feststeht; oder {@code null}
+	 * @return die normierten Randverteilungen
+	 */
+	private static double[][] enumerate(Player[] players, List<Role> dealtRoles, BeliefTracker tracker, Player observer) {
+		double[][] marginals = new double[players.length][ROLES.length];
+		assign(players, dealtRoles, tracker, observer, new boolean[dealtRoles.size()], new Role[players.length], 0, marginals);
+		for (double[] marginal : marginals) {
+			double total = 0;
+			for (double p : marginal)
+				total += p;
+			for (int r = 0; r < marginal.length; r++)
+				marginal[r] /= total;
+		}
+		return marginals;
+	}
+	
+	private static void assign(Player[] players, List<Role> dealtRoles, BeliefTracker tracker, Player observer,
+			boolean[] used, Role[] roles, int index, double[][] marginals) {
+		if (index == players.length) {
+			double weight = 1;
+			for (int i = 0; i < players.length; i++)
+				weight *= players[i] == observer ? 1 : tracker.weight(players[i], roles[i]);
+			for (int i = 0; i < players.length; i++)
+				marginals[i][roles[i].ordinal()] += weight;
+			return;
+		}
+		for (int d = 0; d < dealtRoles.size(); d++) {
+			if (used[d]) continue;
+			// the observer knows the own role
+			if (players[index] == observer && dealtRoles.get(d) != observer.getRole()) continue;
+			used[d] = true;
+			roles[index] = dealtRoles.get(d);
+			assign(players, dealtRoles, tracker, observer, used, roles, index + 1, marginals);
+			used[d] = false;
+		}
+	}
+	
+}